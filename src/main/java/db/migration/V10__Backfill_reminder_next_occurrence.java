@@ -0,0 +1,104 @@
+package db.migration;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Заполняет next_occurrence у напоминаний, созданных до появления колонки, начиная с текущей даты.
+ * Напоминания с неполным правилом остаются без даты.
+ *
+ * <p>Миграция не зависит от классов приложения: правило расчета зафиксировано здесь в том виде, в
+ * каком оно было на момент появления колонки, и читает значения колонок как строки. Поэтому
+ * изменения сущности или калькулятора не меняют результат уже выпущенной миграции.
+ */
+public class V10__Backfill_reminder_next_occurrence extends BaseJavaMigration {
+
+  private static final int BATCH_SIZE = 500;
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    LocalDate today = LocalDate.now();
+    try (Statement select = context.getConnection().createStatement();
+        ResultSet rs =
+            select.executeQuery(
+                "SELECT id, recurrence_type, weekly_day_of_week, monthly_day_of_month, "
+                    + "monthly_use_last_day FROM reminders WHERE next_occurrence IS NULL");
+        PreparedStatement update =
+            context
+                .getConnection()
+                .prepareStatement("UPDATE reminders SET next_occurrence = ? WHERE id = ?")) {
+      int pending = 0;
+      while (rs.next()) {
+        long id = rs.getLong(1);
+        String weekly = rs.getString(3);
+        int dayOfMonth = rs.getInt(4);
+        Integer monthlyDayOfMonth = rs.wasNull() ? null : dayOfMonth;
+        LocalDate next =
+            nextOccurrence(
+                rs.getString(2),
+                weekly != null ? DayOfWeek.valueOf(weekly) : null,
+                monthlyDayOfMonth,
+                rs.getBoolean(5),
+                today);
+        if (next == null) {
+          continue;
+        }
+        update.setDate(1, Date.valueOf(next));
+        update.setLong(2, id);
+        update.addBatch();
+        if (++pending == BATCH_SIZE) {
+          update.executeBatch();
+          pending = 0;
+        }
+      }
+      if (pending > 0) {
+        update.executeBatch();
+      }
+    }
+  }
+
+  private static LocalDate nextOccurrence(
+      String recurrenceType,
+      DayOfWeek weeklyDayOfWeek,
+      Integer monthlyDayOfMonth,
+      boolean monthlyUseLastDay,
+      LocalDate from) {
+    if (recurrenceType == null) {
+      return null;
+    }
+    switch (recurrenceType) {
+      case "DAILY":
+        return from;
+      case "WEEKLY":
+        return weeklyDayOfWeek != null
+            ? from.with(TemporalAdjusters.nextOrSame(weeklyDayOfWeek))
+            : null;
+      case "MONTHLY":
+        if (!monthlyUseLastDay && monthlyDayOfMonth == null) {
+          return null;
+        }
+        YearMonth month = YearMonth.from(from);
+        LocalDate candidate = monthlyOccurrence(month, monthlyDayOfMonth, monthlyUseLastDay);
+        if (candidate.isBefore(from)) {
+          candidate = monthlyOccurrence(month.plusMonths(1), monthlyDayOfMonth, monthlyUseLastDay);
+        }
+        return candidate;
+      default:
+        return null;
+    }
+  }
+
+  private static LocalDate monthlyOccurrence(
+      YearMonth month, Integer dayOfMonth, boolean useLastDay) {
+    int lastDay = month.lengthOfMonth();
+    return month.atDay(useLastDay ? lastDay : Math.min(dayOfMonth, lastDay));
+  }
+}
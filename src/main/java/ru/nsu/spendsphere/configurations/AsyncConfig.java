@@ -0,0 +1,13 @@
+package ru.nsu.spendsphere.configurations;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Включает асинхронное выполнение методов ({@code @Async}). Исполнителем служит автоконфигурируемый
+ * {@code applicationTaskExecutor}: при {@code spring.threads.virtual.enabled=true} каждая задача
+ * выполняется в отдельном виртуальном потоке.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {}
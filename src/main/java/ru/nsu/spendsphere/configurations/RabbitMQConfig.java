@@ -6,9 +6,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,6 +37,12 @@ public class RabbitMQConfig {
   @Value("${app.rabbit.queues.advice-results}")
   private String adviceResultsQueueName;
 
+  @Value("${app.rabbit.queues.reminder-notifications}")
+  private String reminderNotificationsQueueName;
+
+  @Value("${app.rabbit.exchanges.cache-invalidation}")
+  private String cacheInvalidationExchangeName;
+
   @Bean
   public Queue imageUploadQueue() {
     return new Queue(imageUploadQueueName, true);
@@ -52,6 +63,27 @@ public class RabbitMQConfig {
     return new Queue(adviceResultsQueueName, true);
   }
 
+  @Bean
+  public Queue reminderNotificationsQueue() {
+    return new Queue(reminderNotificationsQueueName, true);
+  }
+
+  @Bean
+  public FanoutExchange cacheInvalidationExchange() {
+    return new FanoutExchange(cacheInvalidationExchangeName, true, false);
+  }
+
+  @Bean
+  public Queue cacheInvalidationQueue() {
+    return new AnonymousQueue();
+  }
+
+  @Bean
+  public Binding cacheInvalidationBinding(
+      Queue cacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+    return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+  }
+
   @Bean
   public MessageConverter jacksonMessageConverter() {
     ObjectMapper objectMapper = new ObjectMapper();
@@ -62,7 +94,12 @@ public class RabbitMQConfig {
     // Используем snake_case для полей JSON
     objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
 
-    return new Jackson2JsonMessageConverter(objectMapper);
+    Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+    // Обмен сброса кэша несет сообщения нескольких типов: тип берется из заголовка __TypeId__
+    DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+    typeMapper.setTrustedPackages("ru.nsu.spendsphere.models.messaging");
+    converter.setJavaTypeMapper(typeMapper);
+    return converter;
   }
 
   @Bean
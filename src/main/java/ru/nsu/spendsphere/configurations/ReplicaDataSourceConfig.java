@@ -0,0 +1,84 @@
+package ru.nsu.spendsphere.configurations;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+
+/**
+ * Разделение чтения и записи между основной БД и репликой. Включается настройкой
+ * app.datasource.replica.enabled.
+ *
+ * <p>Основной источник данных приложения — {@link LazyConnectionDataSourceProxy}: соединение
+ * берется из пула только при первом запросе, когда уже известно, открыта ли транзакция с {@code
+ * readOnly = true}. Такие транзакции идут на реплику через {@link ReplicaRoutingDataSource}, все
+ * остальные — на основную БД.
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  /** Пул соединений с основной БД, настраивается свойствами spring.datasource. */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /** Пул соединений с репликой, настраивается свойствами app.datasource.replica. */
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(
+      DataSourceProperties properties,
+      @Value("${app.datasource.replica.url}") String url,
+      @Value("${app.datasource.replica.username}") String username,
+      @Value("${app.datasource.replica.password}") String password) {
+    HikariDataSource dataSource =
+        properties
+            .initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagGuard replicaLagGuard(
+      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+      @Value("${app.datasource.replica.max-lag-ms}") long maxLagMillis) {
+    return new ReplicaLagGuard(new JdbcTemplate(replicaDataSource), maxLagMillis);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primaryDataSource,
+      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+      ReplicaLagGuard replicaLagGuard,
+      ResourceVersionRegistry resourceVersions,
+      @Value("${app.datasource.replica.read-your-writes-ms}") long readYourWritesMillis) {
+    LazyConnectionDataSourceProxy dataSource =
+        new LazyConnectionDataSourceProxy(primaryDataSource);
+    dataSource.setReadOnlyDataSource(
+        new ReplicaRoutingDataSource(
+            primaryDataSource,
+            replicaDataSource,
+            replicaLagGuard,
+            resourceVersions,
+            readYourWritesMillis));
+    return dataSource;
+  }
+}
@@ -0,0 +1,74 @@
+package ru.nsu.spendsphere.configurations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Следит за отставанием реплики. Пока реплика недоступна или отстает больше чем на
+ * app.datasource.replica.max-lag-ms, чтения идут на основную БД. До первой успешной проверки
+ * реплика считается недоступной.
+ */
+public class ReplicaLagGuard {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+  // Если реплика проиграла все полученные WAL, она не отстает, даже когда записей давно не было
+  private static final String LAG_SQL =
+      "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+          + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)"
+          + " END::bigint";
+
+  private final JdbcTemplate replica;
+  private final long maxLagMillis;
+  private volatile boolean usable;
+
+  /**
+   * @param replica доступ к реплике
+   * @param maxLagMillis допустимое отставание в миллисекундах
+   */
+  public ReplicaLagGuard(JdbcTemplate replica, long maxLagMillis) {
+    this.replica = replica;
+    this.maxLagMillis = maxLagMillis;
+  }
+
+  /** Измеряет отставание реплики и решает, можно ли с нее читать. */
+  @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms}")
+  public void check() {
+    Long lag;
+    try {
+      lag = replica.queryForObject(LAG_SQL, Long.class);
+    } catch (DataAccessException e) {
+      markUnavailable(e);
+      return;
+    }
+    boolean nowUsable = lag != null && lag <= maxLagMillis;
+    if (usable && !nowUsable) {
+      log.warn("Replica lags behind by {} ms, reading from primary", lag);
+    } else if (!usable && nowUsable) {
+      log.info("Replica lag is {} ms, reading from replica", lag);
+    }
+    usable = nowUsable;
+  }
+
+  /**
+   * @return true, если чтения можно направлять на реплику
+   */
+  public boolean isUsable() {
+    return usable;
+  }
+
+  /**
+   * Переключает чтения на основную БД до следующей успешной проверки.
+   *
+   * @param cause ошибка обращения к реплике
+   */
+  public void markUnavailable(Exception cause) {
+    if (usable) {
+      log.warn("Replica is unavailable, reading from primary", cause);
+    }
+    usable = false;
+  }
+}
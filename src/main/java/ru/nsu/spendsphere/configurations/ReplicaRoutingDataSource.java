@@ -0,0 +1,78 @@
+package ru.nsu.spendsphere.configurations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import ru.nsu.spendsphere.configurations.security.AuthenticatedUser;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+
+/**
+ * Источник соединений для транзакций только на чтение. Отдает соединение с репликой, если она не
+ * отстает и текущий пользователь не менял свои данные за последние read-your-writes-ms; иначе — с
+ * основной БД.
+ *
+ * <p>Окно после записи нужно не только для того, чтобы пользователь видел свои изменения: ETag
+ * списков и кэш балансов счетов вычисляют версию до чтения, и отстающие данные с реплики
+ * закэшировались бы клиентом или сервером под новой версией. Окно должно быть больше допустимого
+ * отставания реплики вместе с интервалом его проверки.
+ *
+ * <p>Время последнего изменения общее для всех узлов: {@link ResourceVersionRegistry} получает
+ * повышения версий с других узлов через fanout-обмен сброса кэша и отмечает пользователя так же,
+ * как при локальной записи. Пока сообщение в пути, узел может прочитать отстающие данные с реплики,
+ * но только под прежней версией, которая сменится с приходом сообщения. После переподключения к
+ * RabbitMQ все пользователи считаются только что изменившими данные.
+ */
+class ReplicaRoutingDataSource extends AbstractDataSource {
+
+  private final DataSource primary;
+  private final DataSource replica;
+  private final ReplicaLagGuard lagGuard;
+  private final ResourceVersionRegistry resourceVersions;
+  private final long readYourWritesMillis;
+
+  ReplicaRoutingDataSource(
+      DataSource primary,
+      DataSource replica,
+      ReplicaLagGuard lagGuard,
+      ResourceVersionRegistry resourceVersions,
+      long readYourWritesMillis) {
+    this.primary = primary;
+    this.replica = replica;
+    this.lagGuard = lagGuard;
+    this.resourceVersions = resourceVersions;
+    this.readYourWritesMillis = readYourWritesMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (useReplica()) {
+      try {
+        return replica.getConnection();
+      } catch (SQLException e) {
+        lagGuard.markUnavailable(e);
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (useReplica()) {
+      try {
+        return replica.getConnection(username, password);
+      } catch (SQLException e) {
+        lagGuard.markUnavailable(e);
+      }
+    }
+    return primary.getConnection(username, password);
+  }
+
+  private boolean useReplica() {
+    if (!lagGuard.isUsable()) {
+      return false;
+    }
+    Long userId = AuthenticatedUser.currentId();
+    return userId == null || !resourceVersions.changedWithin(userId, readYourWritesMillis);
+  }
+}
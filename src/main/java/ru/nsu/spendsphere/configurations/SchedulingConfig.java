@@ -0,0 +1,9 @@
+package ru.nsu.spendsphere.configurations;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Включает выполнение фоновых задач по расписанию ({@code @Scheduled}). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
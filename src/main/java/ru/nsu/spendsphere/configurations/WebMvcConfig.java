@@ -0,0 +1,20 @@
+package ru.nsu.spendsphere.configurations;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.nsu.spendsphere.configurations.security.PathUserAuthorizationInterceptor;
+
+/** Настройка Spring MVC: перехватчики запросов к API. */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  private final PathUserAuthorizationInterceptor pathUserAuthorizationInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(pathUserAuthorizationInterceptor).addPathPatterns("/api/**", "/v1/**");
+  }
+}
@@ -0,0 +1,28 @@
+package ru.nsu.spendsphere.configurations.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.nsu.spendsphere.models.entities.User;
+
+/**
+ * Доступ к пользователю, аутентифицированному в текущем запросе. {@link JwtAuthenticationFilter}
+ * один раз загружает пользователя по токену и кладет его в контекст безопасности; дальше его
+ * идентификатор доступен без обращения к БД.
+ */
+public final class AuthenticatedUser {
+
+  private AuthenticatedUser() {}
+
+  /**
+   * Возвращает идентификатор пользователя, аутентифицированного по JWT в текущем запросе.
+   *
+   * @return идентификатор пользователя или {@code null}, если запрос не аутентифицирован по JWT
+   */
+  public static Long currentId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof User user) {
+      return user.getId();
+    }
+    return null;
+  }
+}
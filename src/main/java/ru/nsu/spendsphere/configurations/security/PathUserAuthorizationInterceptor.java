@@ -0,0 +1,51 @@
+package ru.nsu.spendsphere.configurations.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+import ru.nsu.spendsphere.exceptions.ForbiddenException;
+
+/**
+ * Проверяет, что переменная пути {@code userId} совпадает с идентификатором пользователя из токена.
+ * Значения сравниваются как числа, так же как их привязывает контроллер, поэтому {@code /users/007}
+ * относится к пользователю 7. Запрос к данным другого пользователя отклоняется с кодом 403, а
+ * нечисловой {@code userId} — с кодом 400, до вызова контроллера, без обращения к сервисам и БД.
+ *
+ * <p>Запросы без пользователя в контексте безопасности пропускаются: требование аутентификации
+ * проверяет цепочка фильтров Spring Security.
+ */
+@Component
+public class PathUserAuthorizationInterceptor implements HandlerInterceptor {
+
+  private static final String USER_ID_VARIABLE = "userId";
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    Long principalId = AuthenticatedUser.currentId();
+    if (principalId == null) {
+      return true;
+    }
+    @SuppressWarnings("unchecked")
+    Map<String, String> variables =
+        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    String pathUserId = variables != null ? variables.get(USER_ID_VARIABLE) : null;
+    if (pathUserId == null) {
+      return true;
+    }
+    long userId;
+    try {
+      userId = Long.parseLong(pathUserId);
+    } catch (NumberFormatException e) {
+      throw new BadRequestException("Invalid user id: " + pathUserId);
+    }
+    if (userId != principalId) {
+      throw new ForbiddenException("Access to user " + userId + " is forbidden");
+    }
+    return true;
+  }
+}
@@ -19,13 +19,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.nsu.spendsphere.models.dto.AccountBalanceDTO;
 import ru.nsu.spendsphere.models.dto.AccountCreateDTO;
 import ru.nsu.spendsphere.models.dto.AccountDTO;
 import ru.nsu.spendsphere.models.dto.AccountUpdateDTO;
+import ru.nsu.spendsphere.models.entities.Currency;
 import ru.nsu.spendsphere.services.AccountService;
+import ru.nsu.spendsphere.services.FxRates;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.UserAccessService;
+import ru.nsu.spendsphere.services.VersionedResource;
 
 @Tag(
     name = "Управление счетами",
@@ -36,6 +43,9 @@ import ru.nsu.spendsphere.services.AccountService;
 public class AccountController {
 
   private final AccountService accountService;
+  private final ResourceVersionRegistry resourceVersions;
+  private final FxRates fxRates;
+  private final UserAccessService userAccessService;
 
   @Operation(
       summary = "Получение всех счетов пользователя",
@@ -49,6 +59,10 @@ public class AccountController {
                 @Content(
                     mediaType = "application/json",
                     array = @ArraySchema(schema = @Schema(implementation = AccountDTO.class)))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Список счетов не изменился с момента выдачи ETag",
+            content = @Content),
         @ApiResponse(
             responseCode = "404",
             description = "Пользователь не найден",
@@ -57,7 +71,12 @@ public class AccountController {
   @GetMapping
   public List<AccountDTO> getUserAccounts(
       @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
-          Long userId) {
+          Long userId,
+      WebRequest request) {
+    userAccessService.requireAccess(userId);
+    if (request.checkNotModified(resourceVersions.etag(userId, VersionedResource.ACCOUNTS))) {
+      return null;
+    }
     return accountService.getUserAccounts(userId);
   }
 
@@ -171,7 +190,8 @@ public class AccountController {
   @Operation(
       summary = "Получение общего баланса по активным счетам",
       description =
-          "Возвращает общий баланс по всем активным счетам пользователя, сгруппированный по валютам")
+          "Возвращает общий баланс по всем активным счетам пользователя, сгруппированный по"
+              + " валютам, и его итог в базовой валюте")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -181,6 +201,10 @@ public class AccountController {
                 @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = AccountBalanceDTO.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Баланс не изменился с момента выдачи ETag",
+            content = @Content),
         @ApiResponse(
             responseCode = "404",
             description = "Пользователь не найден",
@@ -189,7 +213,18 @@ public class AccountController {
   @GetMapping("/balance")
   public AccountBalanceDTO getUserAccountsBalance(
       @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
-          Long userId) {
-    return accountService.getUserAccountsBalance(userId);
+          Long userId,
+      @Parameter(description = "Валюта, в которой считается общий баланс", example = "RUB")
+          @RequestParam(defaultValue = "RUB")
+          Currency baseCurrency,
+      WebRequest request) {
+    userAccessService.requireAccess(userId);
+    String etag =
+        resourceVersions.etag(
+            userId, VersionedResource.ACCOUNTS, fxRates.version(), baseCurrency.name());
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    return accountService.getUserAccountsBalance(userId, baseCurrency);
   }
 }
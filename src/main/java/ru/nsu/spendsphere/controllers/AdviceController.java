@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.nsu.spendsphere.models.dto.AdviceRequestDTO;
@@ -64,7 +65,8 @@ public class AdviceController {
   @Operation(
       summary = "Получить финансовые советы за последний месяц",
       description =
-          "Возвращает список финансовых советов, созданных за последний месяц для пользователя")
+          "Возвращает страницу финансовых советов, созданных за последний месяц для"
+              + " пользователя, от новых к старым")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -78,12 +80,22 @@ public class AdviceController {
         @ApiResponse(
             responseCode = "404",
             description = "Пользователь не найден",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Некорректные параметры страницы",
             content = @Content)
       })
   @GetMapping("/recent")
   public List<AdviceResponseDTO> getRecentAdvices(
       @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
-          Long userId) {
-    return adviceService.getRecentAdvices(userId);
+          Long userId,
+      @Parameter(description = "Номер страницы (с нуля)", example = "0")
+          @RequestParam(defaultValue = "0")
+          int page,
+      @Parameter(description = "Размер страницы (1-50)", example = "20")
+          @RequestParam(defaultValue = "20")
+          int size) {
+    return adviceService.getRecentAdvices(userId, page, size);
   }
 }
@@ -18,9 +18,13 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.nsu.spendsphere.models.dto.CategoryDTO;
 import ru.nsu.spendsphere.models.dto.CategoryInputDTO;
 import ru.nsu.spendsphere.services.CategoryService;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.UserAccessService;
+import ru.nsu.spendsphere.services.VersionedResource;
 
 @Tag(
     name = "Управление категориями",
@@ -30,6 +34,8 @@ import ru.nsu.spendsphere.services.CategoryService;
 @RequiredArgsConstructor
 public class CategoryController {
   private final CategoryService categoryService;
+  private final ResourceVersionRegistry resourceVersions;
+  private final UserAccessService userAccessService;
 
   @Operation(
       summary = "Получение всех категорий пользователя",
@@ -44,6 +50,10 @@ public class CategoryController {
                 @Content(
                     mediaType = "application/json",
                     array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class)))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Список категорий не изменился с момента выдачи ETag",
+            content = @Content),
         @ApiResponse(
             responseCode = "404",
             description = "Пользователь не найден",
@@ -52,7 +62,15 @@ public class CategoryController {
   @GetMapping("/user/{userId}/all")
   public List<CategoryDTO> getAllCategoriesForUser(
       @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
-          Long userId) {
+          Long userId,
+      WebRequest request) {
+    userAccessService.requireAccess(userId);
+    String etag =
+        resourceVersions.etag(
+            userId, VersionedResource.CATEGORIES, categoryService.getDefaultCategoriesVersion());
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
     return categoryService.getAllByUserIdOrDefault(userId);
   }
 
@@ -68,6 +86,10 @@ public class CategoryController {
                 @Content(
                     mediaType = "application/json",
                     array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class)))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Список категорий не изменился с момента выдачи ETag",
+            content = @Content),
         @ApiResponse(
             responseCode = "404",
             description = "Пользователь не найден",
@@ -76,7 +98,12 @@ public class CategoryController {
   @GetMapping("/user/{userId}/custom")
   public List<CategoryDTO> getCustomCategoriesForUser(
       @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
-          Long userId) {
+          Long userId,
+      WebRequest request) {
+    userAccessService.requireAccess(userId);
+    if (request.checkNotModified(resourceVersions.etag(userId, VersionedResource.CATEGORIES))) {
+      return null;
+    }
     return categoryService.getCustomByUserId(userId);
   }
 
@@ -91,10 +118,18 @@ public class CategoryController {
             content =
                 @Content(
                     mediaType = "application/json",
-                    array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class))))
+                    array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class)))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Список категорий не изменился с момента выдачи ETag",
+            content = @Content)
       })
   @GetMapping("/default")
-  public List<CategoryDTO> getAllDefaultCategories() {
+  public List<CategoryDTO> getAllDefaultCategories(WebRequest request) {
+    String etag = resourceVersions.etag(categoryService.getDefaultCategoriesVersion());
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
     return categoryService.getAllDefault();
   }
 
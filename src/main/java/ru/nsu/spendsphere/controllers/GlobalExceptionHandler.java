@@ -1,10 +1,12 @@
 package ru.nsu.spendsphere.controllers;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import ru.nsu.spendsphere.exceptions.BadRequestException;
+import ru.nsu.spendsphere.exceptions.ForbiddenException;
 import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
 
 @ControllerAdvice
@@ -18,4 +20,16 @@ public class GlobalExceptionHandler {
   public ResponseEntity<String> handleBadRequestException(BadRequestException ex) {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
   }
+
+  @ExceptionHandler(ForbiddenException.class)
+  public ResponseEntity<String> handleForbiddenException(ForbiddenException ex) {
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<String> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body("Resource was modified concurrently, retry the request");
+  }
 }
@@ -0,0 +1,60 @@
+package ru.nsu.spendsphere.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.nsu.spendsphere.models.dto.SyncDTO;
+import ru.nsu.spendsphere.services.SyncService;
+
+@Tag(
+    name = "Синхронизация",
+    description = "API для разностной синхронизации данных пользователя с офлайн-клиентами")
+@RestController
+@RequestMapping({"/api/v1/users/{userId}/sync", "/v1/users/{userId}/sync"})
+@RequiredArgsConstructor
+public class SyncController {
+
+  private final SyncService syncService;
+
+  @Operation(
+      summary = "Получение изменений с момента последней синхронизации",
+      description =
+          "Возвращает транзакции, счета, категории и напоминания, измененные после токена, и"
+              + " удаленные сущности. Без токена или с устаревшим токеном возвращается полный"
+              + " снимок")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Изменения успешно получены",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = SyncDTO.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Пользователь не найден",
+            content = @Content)
+      })
+  @GetMapping
+  public SyncDTO sync(
+      @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
+          Long userId,
+      @Parameter(
+              description = "Токен из предыдущего ответа синхронизации",
+              example = "1760000000000")
+          @RequestParam(required = false)
+          Long since) {
+    return syncService.sync(userId, since);
+  }
+}
@@ -0,0 +1,68 @@
+package ru.nsu.spendsphere.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.nsu.spendsphere.models.dto.TransactionBatchRequestDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchResultDTO;
+import ru.nsu.spendsphere.services.TransactionBatchService;
+
+@Tag(
+    name = "Пакетные операции с транзакциями",
+    description = "API для создания, обновления и удаления множества транзакций одним запросом")
+@RestController
+@RequestMapping({
+  "/api/v1/users/{userId}/transactions:batch",
+  "/v1/users/{userId}/transactions:batch"
+})
+@RequiredArgsConstructor
+public class TransactionBatchController {
+
+  private final TransactionBatchService transactionBatchService;
+
+  @Operation(
+      summary = "Пакетное изменение транзакций",
+      description =
+          "Выполняет операции CREATE, UPDATE и DELETE по порядку в одной транзакции БД и возвращает"
+              + " результат каждой операции. Некорректные операции отклоняются, остальные"
+              + " выполняются")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Пакет обработан",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TransactionBatchResultDTO.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Пользователь не найден",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Пустой или слишком большой пакет",
+            content = @Content)
+      })
+  @PostMapping
+  public TransactionBatchResultDTO applyBatch(
+      @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
+          Long userId,
+      @Parameter(description = "Операции над транзакциями", required = true)
+          @RequestBody
+          @Valid
+          TransactionBatchRequestDTO request) {
+    return transactionBatchService.applyBatch(userId, request.operations());
+  }
+}
@@ -9,31 +9,50 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.nsu.spendsphere.exceptions.BadRequestException;
 import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
 import ru.nsu.spendsphere.models.dto.TransactionDTO;
+import ru.nsu.spendsphere.models.dto.TransactionExportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportResultDTO;
 import ru.nsu.spendsphere.models.dto.TransactionStatisticsDTO;
 import ru.nsu.spendsphere.models.dto.TransactionUpdateDTO;
+import ru.nsu.spendsphere.models.entities.Currency;
 import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.TransactionExportService;
 import ru.nsu.spendsphere.services.TransactionImageService;
+import ru.nsu.spendsphere.services.TransactionImportService;
 import ru.nsu.spendsphere.services.TransactionService;
+import ru.nsu.spendsphere.services.UserAccessService;
+import ru.nsu.spendsphere.services.VersionedResource;
 
 @Tag(
     name = "Управление транзакциями",
@@ -45,6 +64,10 @@ public class TransactionController {
 
   private final TransactionService transactionService;
   private final TransactionImageService transactionImageService;
+  private final TransactionImportService transactionImportService;
+  private final TransactionExportService transactionExportService;
+  private final ResourceVersionRegistry resourceVersions;
+  private final UserAccessService userAccessService;
 
   @Operation(
       summary = "Получение всех транзакций пользователя",
@@ -58,6 +81,10 @@ public class TransactionController {
                 @Content(
                     mediaType = "application/json",
                     array = @ArraySchema(schema = @Schema(implementation = TransactionDTO.class)))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Список транзакций не изменился с момента выдачи ETag",
+            content = @Content),
         @ApiResponse(
             responseCode = "404",
             description = "Пользователь не найден",
@@ -66,7 +93,12 @@ public class TransactionController {
   @GetMapping
   public List<TransactionDTO> getAllTransactions(
       @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
-          Long userId) {
+          Long userId,
+      WebRequest request) {
+    userAccessService.requireAccess(userId);
+    if (request.checkNotModified(resourceVersions.etag(userId, VersionedResource.TRANSACTIONS))) {
+      return null;
+    }
     return transactionService.getAllTransactions(userId);
   }
 
@@ -139,6 +171,75 @@ public class TransactionController {
         userId, type, accountId, categoryId, dateFrom, dateTo);
   }
 
+  @Operation(
+      summary = "Экспорт транзакций",
+      description =
+          "Потоково выгружает транзакции пользователя за период в CSV или NDJSON. Если клиент"
+              + " принимает gzip (Accept-Encoding), ответ сжимается")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Файл экспорта",
+            content = {
+              @Content(mediaType = "text/csv"),
+              @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+            }),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Пользователь не найден",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Дата начала периода позже даты окончания",
+            content = @Content)
+      })
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportTransactions(
+      @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
+          Long userId,
+      @Parameter(description = "Формат экспорта", example = "CSV")
+          @RequestParam(defaultValue = "CSV")
+          TransactionExportFormat format,
+      @Parameter(description = "Дата начала периода", example = "2025-01-01")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate dateFrom,
+      @Parameter(description = "Дата окончания периода", example = "2025-12-31")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate dateTo,
+      @Parameter(hidden = true)
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
+    StreamingResponseBody body = transactionExportService.export(userId, format, dateFrom, dateTo);
+    boolean ndjson = format == TransactionExportFormat.NDJSON;
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(
+                ndjson
+                    ? MediaType.APPLICATION_NDJSON
+                    : new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment()
+                    .filename(ndjson ? "transactions.ndjson" : "transactions.csv")
+                    .build()
+                    .toString())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+      return response.body(body);
+    }
+    return response
+        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .body(
+            out -> {
+              GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+              body.writeTo(gzip);
+              gzip.finish();
+            });
+  }
+
   @Operation(
       summary = "Получение статистики транзакций за период",
       description =
@@ -159,7 +260,7 @@ public class TransactionController {
             content = @Content),
         @ApiResponse(
             responseCode = "400",
-            description = "Некорректный период (должен быть 1, 3, 6 или 12 месяцев)",
+            description = "Некорректный период или неизвестен курс валюты",
             content = @Content)
       })
   @GetMapping("/statistics")
@@ -171,8 +272,13 @@ public class TransactionController {
               required = true,
               example = "3")
           @RequestParam
-          Integer months) {
-    return transactionService.getTransactionStatistics(userId, months);
+          Integer months,
+      @Parameter(
+              description = "Валюта, в которую пересчитываются суммы по курсам счетов",
+              example = "RUB")
+          @RequestParam(required = false)
+          Currency baseCurrency) {
+    return transactionService.getTransactionStatistics(userId, months, baseCurrency);
   }
 
   @Operation(
@@ -208,6 +314,62 @@ public class TransactionController {
     return transactionService.createTransaction(userId, createDTO);
   }
 
+  @Operation(
+      summary = "Импорт транзакций из файла",
+      description =
+          "Потоково разбирает CSV или OFX из тела запроса и создает транзакции пакетами. CSV должен"
+              + " содержать заголовок с колонками date и amount, а также, при необходимости, type,"
+              + " account, transfer_account, category и description. Строки с ошибками"
+              + " пропускаются")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Импорт завершен",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TransactionImportResultDTO.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Пользователь или счет не найдены",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Файл не удалось прочитать или кодировка не поддерживается",
+            content = @Content)
+      })
+  @PostMapping(
+      value = "/import",
+      consumes = {
+        "text/csv",
+        "application/x-ofx",
+        MediaType.TEXT_PLAIN_VALUE,
+        MediaType.APPLICATION_OCTET_STREAM_VALUE
+      })
+  public TransactionImportResultDTO importTransactions(
+      @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable
+          Long userId,
+      @Parameter(description = "Формат файла", example = "CSV")
+          @RequestParam(defaultValue = "CSV")
+          TransactionImportFormat format,
+      @Parameter(description = "Счет для строк без указанного счета", example = "2")
+          @RequestParam(required = false)
+          Long accountId,
+      @Parameter(description = "Кодировка файла", example = "windows-1251")
+          @RequestParam(defaultValue = "UTF-8")
+          String charset,
+      InputStream body) {
+    Charset fileCharset;
+    try {
+      fileCharset = Charset.forName(charset);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Unsupported charset: " + charset);
+    }
+    return transactionImportService.importTransactions(
+        userId, accountId, format, fileCharset, body);
+  }
+
   @Operation(
       summary = "Загрузка фото для распознавания транзакций",
       description = "Принимает фото и accountId, отправляет его в RabbitMQ и возвращает 200 OK")
@@ -0,0 +1,7 @@
+package ru.nsu.spendsphere.exceptions;
+
+public class ForbiddenException extends RuntimeException {
+  public ForbiddenException(String message) {
+    super(message);
+  }
+}
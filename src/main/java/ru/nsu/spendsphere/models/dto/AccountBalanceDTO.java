@@ -9,4 +9,10 @@ import ru.nsu.spendsphere.models.entities.Currency;
 public record AccountBalanceDTO(
     @Schema(description = "Общее количество активных счетов", example = "3") Integer totalAccounts,
     @Schema(description = "Балансы, сгруппированные по валютам")
-        Map<Currency, BigDecimal> balancesByCurrency) {}
+        Map<Currency, BigDecimal> balancesByCurrency,
+    @Schema(description = "Базовая валюта общего баланса", example = "RUB") Currency baseCurrency,
+    @Schema(
+            description =
+                "Общий баланс в базовой валюте; null, если курс одной из валют неизвестен",
+            example = "125000.00")
+        BigDecimal totalInBaseCurrency) {}
@@ -0,0 +1,15 @@
+package ru.nsu.spendsphere.models.dto;
+
+import java.math.BigDecimal;
+import ru.nsu.spendsphere.models.entities.Currency;
+
+/**
+ * Баланс счета вместе с версией строки, по которой более новое значение отличается от старого.
+ *
+ * @param id идентификатор счета
+ * @param currency валюта счета
+ * @param balance баланс счета
+ * @param version версия строки счета
+ */
+public record AccountBalanceSnapshotDTO(
+    Long id, Currency currency, BigDecimal balance, Long version) {}
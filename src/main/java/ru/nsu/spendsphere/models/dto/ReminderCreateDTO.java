@@ -23,4 +23,8 @@ public record ReminderCreateDTO(
     @Schema(description = "Последний день месяца (MONTHLY)", example = "false")
         Boolean monthlyUseLastDay,
     @Schema(description = "Активно ли напоминание", example = "true") Boolean isActive,
-    @Schema(description = "ID счета для оплаты", example = "2") Long accountId) {}
+    @Schema(description = "ID счета для оплаты", example = "2") Long accountId,
+    @Schema(
+            description = "Автоматически проводить расход по счету в дату срабатывания",
+            example = "false")
+        Boolean autoPost) {}
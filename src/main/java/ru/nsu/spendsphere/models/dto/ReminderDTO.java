@@ -22,5 +22,7 @@ public record ReminderDTO(
     @Schema(description = "Активно ли напоминание", example = "true") Boolean isActive,
     @Schema(description = "ID счета для оплаты", example = "2") Long accountId,
     @Schema(description = "Имя счета", example = "Основная карта") String accountName,
+    @Schema(description = "Автоматическое проведение расхода", example = "false")
+        Boolean autoPost,
     @Schema(description = "Создано", example = "2025-10-12T10:15:30") LocalDateTime createdAt,
     @Schema(description = "Обновлено", example = "2025-10-12T10:15:30") LocalDateTime updatedAt) {}
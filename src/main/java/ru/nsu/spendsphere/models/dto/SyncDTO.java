@@ -0,0 +1,21 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Изменения данных пользователя для синхронизации клиента")
+public record SyncDTO(
+    @Schema(
+            description = "Токен для следующего запроса синхронизации (параметр since)",
+            example = "1760000000000")
+        Long token,
+    @Schema(
+            description =
+                "Полный снимок вместо изменений: клиент должен заменить локальные данные целиком",
+            example = "false")
+        Boolean fullResync,
+    @Schema(description = "Созданные и измененные транзакции") List<TransactionDTO> transactions,
+    @Schema(description = "Созданные и измененные счета") List<AccountDTO> accounts,
+    @Schema(description = "Созданные и измененные категории") List<CategoryDTO> categories,
+    @Schema(description = "Созданные и измененные напоминания") List<ReminderDTO> reminders,
+    @Schema(description = "Удаленные сущности") List<SyncTombstoneDTO> deleted) {}
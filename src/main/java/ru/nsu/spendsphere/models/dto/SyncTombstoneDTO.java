@@ -0,0 +1,11 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
+
+@Schema(description = "Удаленная сущность")
+public record SyncTombstoneDTO(
+    @Schema(description = "Тип сущности", example = "TRANSACTION") SyncEntityType entityType,
+    @Schema(description = "Идентификатор сущности", example = "42") Long entityId,
+    @Schema(description = "Дата и время удаления") LocalDateTime deletedAt) {}
@@ -0,0 +1,13 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат отдельной операции пакетного запроса")
+public record TransactionBatchItemResultDTO(
+    @Schema(description = "Порядковый номер операции в запросе (с нуля)", example = "0")
+        Integer index,
+    @Schema(description = "Результат операции", example = "CREATED")
+        TransactionBatchItemStatus status,
+    @Schema(description = "Идентификатор транзакции", example = "42") Long transactionId,
+    @Schema(description = "Причина ошибки", example = "Account with id 7 not found for user 1")
+        String error) {}
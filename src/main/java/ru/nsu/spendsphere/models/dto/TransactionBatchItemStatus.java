@@ -0,0 +1,20 @@
+package ru.nsu.spendsphere.models.dto;
+
+/**
+ * Результат отдельной операции пакетного запроса.
+ *
+ * <ul>
+ *   <li>CREATED - транзакция создана
+ *   <li>UPDATED - транзакция обновлена
+ *   <li>DELETED - транзакция удалена
+ *   <li>NOT_FOUND - транзакция, счет или категория не найдены
+ *   <li>INVALID - некорректные данные операции
+ * </ul>
+ */
+public enum TransactionBatchItemStatus {
+  CREATED,
+  UPDATED,
+  DELETED,
+  NOT_FOUND,
+  INVALID
+}
@@ -0,0 +1,27 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+
+@Schema(
+    description =
+        "Операция пакетного запроса. Для CREATE обязательны type, accountId, amount и date, для"
+            + " UPDATE и DELETE - transactionId; при UPDATE изменяются только указанные поля")
+public record TransactionBatchOperationDTO(
+    @NotNull(message = "Вид операции обязателен")
+        @Schema(description = "Вид операции", example = "CREATE", required = true)
+        TransactionBatchOperationType operation,
+    @Schema(description = "Идентификатор транзакции (для UPDATE и DELETE)", example = "42")
+        Long transactionId,
+    @Schema(description = "Тип транзакции", example = "EXPENSE") TransactionType type,
+    @Schema(description = "Идентификатор категории", example = "5") Long categoryId,
+    @Schema(description = "Идентификатор счета", example = "2") Long accountId,
+    @Schema(description = "Идентификатор счета для перевода (только для TRANSFER)", example = "3")
+        Long transferAccountId,
+    @Schema(description = "Сумма транзакции", example = "500.00") BigDecimal amount,
+    @Schema(description = "Описание транзакции", example = "Покупка продуктов в магазине")
+        String description,
+    @Schema(description = "Дата транзакции", example = "2025-10-12") LocalDate date) {}
@@ -0,0 +1,16 @@
+package ru.nsu.spendsphere.models.dto;
+
+/**
+ * Виды операций пакетного запроса над транзакциями.
+ *
+ * <ul>
+ *   <li>CREATE - создание транзакции
+ *   <li>UPDATE - изменение указанных полей транзакции
+ *   <li>DELETE - удаление транзакции
+ * </ul>
+ */
+public enum TransactionBatchOperationType {
+  CREATE,
+  UPDATE,
+  DELETE
+}
@@ -0,0 +1,15 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "Пакет операций над транзакциями, выполняемых в одной транзакции БД")
+public record TransactionBatchRequestDTO(
+    @NotEmpty(message = "Список операций не должен быть пустым")
+        @Size(max = 500, message = "Не более 500 операций в одном запросе")
+        @Schema(description = "Операции в порядке выполнения", required = true)
+        List<@Valid @NotNull TransactionBatchOperationDTO> operations) {}
@@ -0,0 +1,11 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Результат пакетного запроса")
+public record TransactionBatchResultDTO(
+    @Schema(description = "Количество выполненных операций", example = "10") Integer succeeded,
+    @Schema(description = "Количество отклоненных операций", example = "1") Integer failed,
+    @Schema(description = "Результаты операций в порядке запроса")
+        List<TransactionBatchItemResultDTO> results) {}
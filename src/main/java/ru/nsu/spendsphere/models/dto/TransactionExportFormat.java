@@ -0,0 +1,14 @@
+package ru.nsu.spendsphere.models.dto;
+
+/**
+ * Форматы экспорта транзакций.
+ *
+ * <ul>
+ *   <li>CSV - таблица с заголовком, совместимая с импортом
+ *   <li>NDJSON - по одному JSON-объекту на строку
+ * </ul>
+ */
+public enum TransactionExportFormat {
+  CSV,
+  NDJSON
+}
@@ -0,0 +1,19 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+
+@Schema(description = "Строка экспорта транзакций")
+public record TransactionExportRowDTO(
+    @Schema(description = "Идентификатор транзакции", example = "1") Long id,
+    @Schema(description = "Дата транзакции", example = "2025-10-12") LocalDate date,
+    @Schema(description = "Тип транзакции", example = "EXPENSE") TransactionType type,
+    @Schema(description = "Сумма транзакции", example = "500.00") BigDecimal amount,
+    @Schema(description = "Название счета", example = "Основная карта") String account,
+    @Schema(description = "Название счета зачисления (только для TRANSFER)", example = "Вклад")
+        String transferAccount,
+    @Schema(description = "Название категории", example = "Продукты") String category,
+    @Schema(description = "Описание транзакции", example = "Покупка продуктов в магазине")
+        String description) {}
@@ -0,0 +1,14 @@
+package ru.nsu.spendsphere.models.dto;
+
+/**
+ * Форматы файлов импорта транзакций.
+ *
+ * <ul>
+ *   <li>CSV - таблица с заголовком (разделитель запятая или точка с запятой)
+ *   <li>OFX - банковская выписка Open Financial Exchange
+ * </ul>
+ */
+public enum TransactionImportFormat {
+  CSV,
+  OFX
+}
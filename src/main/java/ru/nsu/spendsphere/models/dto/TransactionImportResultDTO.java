@@ -0,0 +1,13 @@
+package ru.nsu.spendsphere.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Результат импорта транзакций")
+public record TransactionImportResultDTO(
+    @Schema(description = "Количество импортированных транзакций", example = "1520")
+        Integer imported,
+    @Schema(description = "Количество пропущенных строк", example = "3") Integer skipped,
+    @Schema(description = "Ошибки разбора строк (не более 100)") List<String> errors,
+    @Schema(description = "Длительность импорта в миллисекундах", example = "840")
+        Long durationMs) {}
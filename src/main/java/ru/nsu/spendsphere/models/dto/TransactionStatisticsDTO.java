@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import ru.nsu.spendsphere.models.entities.Currency;
 
 /**
  * DTO для статистики транзакций за период.
@@ -19,6 +20,7 @@ import java.util.Map;
  * @param maxExpensePerCategory максимальный расход за категорию
  * @param averageExpense среднее значение расхода за период
  * @param averageIncome среднее значение дохода за период
+ * @param baseCurrency валюта, в которую пересчитаны суммы, или {@code null}
  * @param startDate дата начала периода
  * @param endDate дата окончания периода
  */
@@ -41,6 +43,8 @@ public record TransactionStatisticsDTO(
         MaxExpensePerCategoryDTO maxExpensePerCategory,
     @Schema(description = "Среднее значение расхода за период") BigDecimal averageExpense,
     @Schema(description = "Среднее значение дохода за период") BigDecimal averageIncome,
+    @Schema(description = "Валюта сумм; null, если суммы не пересчитывались", example = "RUB")
+        Currency baseCurrency,
     @Schema(description = "Дата начала периода") LocalDate startDate,
     @Schema(description = "Дата окончания периода") LocalDate endDate) {
 
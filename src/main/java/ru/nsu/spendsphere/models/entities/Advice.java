@@ -7,6 +7,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -25,7 +26,9 @@ import org.hibernate.annotations.CreationTimestamp;
 
 /** Сущность для хранения финансовых советов пользователя. */
 @Entity
-@Table(name = "advices")
+@Table(
+    name = "advices",
+    indexes = @Index(name = "idx_advices_user_created", columnList = "user_id, created_at"))
 @Getter
 @Setter
 @Builder
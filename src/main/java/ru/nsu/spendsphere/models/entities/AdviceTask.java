@@ -0,0 +1,56 @@
+package ru.nsu.spendsphere.models.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+/** Сущность для хранения задач генерации финансовых советов. */
+@Entity
+@Table(
+    name = "advice_tasks",
+    indexes = @Index(name = "idx_advice_tasks_user_id", columnList = "user_id"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdviceTask {
+
+  @Id
+  @Column(name = "task_id", nullable = false)
+  private UUID taskId;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "goal", nullable = false, length = 500)
+  private String goal;
+
+  @Column(name = "target_date")
+  private LocalDate targetDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  @Builder.Default
+  private AdviceTaskStatus status = AdviceTaskStatus.PENDING;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+}
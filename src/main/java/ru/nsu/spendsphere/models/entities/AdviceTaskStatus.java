@@ -0,0 +1,11 @@
+package ru.nsu.spendsphere.models.entities;
+
+/** Статус задачи на генерацию финансовых советов. */
+public enum AdviceTaskStatus {
+  /** Задача отправлена в очередь и ожидает результата. */
+  PENDING,
+  /** Результат получен и советы сохранены. */
+  COMPLETED,
+  /** Сервис генерации вернул ошибку или пустой результат. */
+  FAILED
+}
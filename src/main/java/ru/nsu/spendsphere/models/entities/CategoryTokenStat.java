@@ -0,0 +1,50 @@
+package ru.nsu.spendsphere.models.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Снимок статистики классификатора категорий: сколько раз токен описания встречался в транзакциях
+ * пользователя с данной категорией. Строка с токеном {@code #} хранит количество обученных
+ * транзакций категории.
+ */
+@Entity
+@Table(
+    name = "category_token_stats",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_category_token_stats_user_token_category",
+            columnNames = {"user_id", "token", "category_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryTokenStat {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "token", nullable = false, length = 64)
+  private String token;
+
+  @Column(name = "category_id", nullable = false)
+  private Long categoryId;
+
+  @Column(name = "occurrences", nullable = false)
+  private Integer occurrences;
+}
@@ -0,0 +1,14 @@
+package ru.nsu.spendsphere.models.entities;
+
+/** Параметры последовательностей идентификаторов сущностей. */
+public final class IdSequences {
+
+  /**
+   * Шаг последовательностей и размер блока pooled-lo: одно значение последовательности резервирует
+   * столько подряд идущих идентификаторов. Должен совпадать с INCREMENT BY последовательностей в
+   * миграции V7.
+   */
+  public static final int ALLOCATION_SIZE = 50;
+
+  private IdSequences() {}
+}
@@ -8,11 +8,14 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,20 +24,32 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "reminders")
+@Table(
+    name = "reminders",
+    indexes = {
+      @Index(name = "idx_reminders_user_next_occurrence", columnList = "user_id, next_occurrence"),
+      @Index(name = "idx_reminders_next_occurrence_id", columnList = "next_occurrence, id"),
+      @Index(name = "idx_reminders_user_updated_at", columnList = "user_id, updated_at")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @ToString
+@DynamicUpdate
 public class Reminder {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminders_seq")
+  @SequenceGenerator(
+      name = "reminders_seq",
+      sequenceName = "reminders_seq",
+      allocationSize = IdSequences.ALLOCATION_SIZE)
   private long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -75,6 +90,23 @@ public class Reminder {
   @Builder.Default
   private Boolean isActive = true;
 
+  /** Автоматически проводить расход по счету напоминания в каждую дату срабатывания. */
+  @Column(name = "auto_post", nullable = false)
+  @Builder.Default
+  private Boolean autoPost = false;
+
+  /** Последняя дата, по которую включительно расходы уже проведены автоматически. */
+  @Column(name = "auto_posted_through")
+  private LocalDate autoPostedThrough;
+
+  /** Ближайшая дата срабатывания, пересчитывается при изменении правила и после её наступления. */
+  @Column(name = "next_occurrence")
+  private LocalDate nextOccurrence;
+
+  /** Последняя дата, по которую включительно срабатывания уже отправлены уведомлениями. */
+  @Column(name = "last_notified_on")
+  private LocalDate lastNotifiedOn;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -0,0 +1,18 @@
+package ru.nsu.spendsphere.models.entities;
+
+/**
+ * Типы сущностей, изменения которых передаются клиентам при синхронизации.
+ *
+ * <ul>
+ *   <li>TRANSACTION - Транзакция
+ *   <li>ACCOUNT - Счет
+ *   <li>CATEGORY - Пользовательская категория
+ *   <li>REMINDER - Напоминание
+ * </ul>
+ */
+public enum SyncEntityType {
+  TRANSACTION,
+  ACCOUNT,
+  CATEGORY,
+  REMINDER
+}
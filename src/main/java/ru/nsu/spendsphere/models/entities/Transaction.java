@@ -8,9 +8,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -24,7 +27,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "transactions")
+@Table(
+    name = "transactions",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_transactions_reminder_occurrence",
+            columnNames = {"reminder_id", "reminder_occurrence_date"}),
+    indexes = @Index(name = "idx_transactions_user_updated_at", columnList = "user_id, updated_at"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,7 +42,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 @ToString
 public class Transaction {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+  @SequenceGenerator(
+      name = "transactions_seq",
+      sequenceName = "transactions_seq",
+      allocationSize = IdSequences.ALLOCATION_SIZE)
   private long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -69,6 +82,14 @@ public class Transaction {
   @Column(name = "date", nullable = false)
   private LocalDate date;
 
+  /** Напоминание, по которому транзакция проведена автоматически. */
+  @Column(name = "reminder_id")
+  private Long reminderId;
+
+  /** Дата срабатывания напоминания, за которую проведена транзакция. */
+  @Column(name = "reminder_occurrence_date")
+  private LocalDate reminderOccurrenceDate;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -22,6 +22,7 @@ public class ReminderMapper {
         reminder.getIsActive(),
         reminder.getAccount() != null ? reminder.getAccount().getId() : null,
         reminder.getAccount() != null ? reminder.getAccount().getName() : null,
+        reminder.getAutoPost(),
         reminder.getCreatedAt(),
         reminder.getUpdatedAt());
   }
@@ -1,6 +1,7 @@
 package ru.nsu.spendsphere.models.mappers;
 
 import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
 import ru.nsu.spendsphere.models.dto.TransactionDTO;
 import ru.nsu.spendsphere.models.entities.Transaction;
 
@@ -36,4 +37,35 @@ public class TransactionMapper {
         transaction.getCreatedAt(),
         transaction.getUpdatedAt());
   }
+
+  /**
+   * Преобразует Entity Transaction в DTO, беря данные категории из уже загруженного DTO, чтобы не
+   * инициализировать ленивую связь.
+   *
+   * @param transaction entity транзакции
+   * @param category DTO категории транзакции (может быть null)
+   * @return DTO транзакции
+   */
+  public TransactionDTO toTransactionDTO(Transaction transaction, CategoryDTO category) {
+    if (transaction == null) return null;
+    return new TransactionDTO(
+        transaction.getId(),
+        transaction.getUser().getId(),
+        transaction.getType(),
+        category != null ? category.id() : null,
+        category != null ? category.name() : null,
+        category != null ? category.icon() : null,
+        category != null ? category.color() : null,
+        transaction.getAccount().getId(),
+        transaction.getAccount().getName(),
+        transaction.getTransferAccount() != null ? transaction.getTransferAccount().getId() : null,
+        transaction.getTransferAccount() != null
+            ? transaction.getTransferAccount().getName()
+            : null,
+        transaction.getAmount(),
+        transaction.getDescription(),
+        transaction.getDate(),
+        transaction.getCreatedAt(),
+        transaction.getUpdatedAt());
+  }
 }
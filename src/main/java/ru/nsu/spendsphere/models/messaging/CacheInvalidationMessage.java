@@ -0,0 +1,12 @@
+package ru.nsu.spendsphere.models.messaging;
+
+import java.util.List;
+
+/**
+ * Сообщение об изменении кэшируемых сущностей для сброса второго уровня кэша на других узлах.
+ *
+ * @param origin идентификатор узла-отправителя
+ * @param entityName имя сущности Hibernate (полное имя класса)
+ * @param ids идентификаторы измененных сущностей
+ */
+public record CacheInvalidationMessage(String origin, String entityName, List<Long> ids) {}
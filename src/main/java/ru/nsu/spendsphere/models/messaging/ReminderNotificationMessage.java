@@ -0,0 +1,24 @@
+package ru.nsu.spendsphere.models.messaging;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Сообщение о наступлении срока напоминания.
+ *
+ * @param reminderId идентификатор напоминания
+ * @param userId идентификатор пользователя
+ * @param accountId идентификатор счета для оплаты (может быть null)
+ * @param title заголовок напоминания
+ * @param description описание
+ * @param amount сумма платежа
+ * @param dueDate дата срабатывания
+ */
+public record ReminderNotificationMessage(
+    Long reminderId,
+    Long userId,
+    Long accountId,
+    String title,
+    String description,
+    BigDecimal amount,
+    LocalDate dueDate) {}
@@ -0,0 +1,13 @@
+package ru.nsu.spendsphere.models.messaging;
+
+import java.util.List;
+
+/**
+ * Сообщение о повышении версий списков пользователя для согласования ETag и зависящих от версий
+ * кэшей между узлами.
+ *
+ * @param origin идентификатор узла-отправителя
+ * @param userId идентификатор пользователя
+ * @param resources имена измененных списков
+ */
+public record ResourceVersionMessage(String origin, long userId, List<String> resources) {}
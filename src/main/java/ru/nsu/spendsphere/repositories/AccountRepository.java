@@ -1,11 +1,18 @@
 package ru.nsu.spendsphere.repositories;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.nsu.spendsphere.models.dto.AccountBalanceSnapshotDTO;
 import ru.nsu.spendsphere.models.entities.Account;
 
 /** Репозиторий для работы со счетами пользователей. */
@@ -22,14 +29,32 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
   List<Account> findByUserId(@Param("userId") Long userId);
 
   /**
-   * Находит счет по идентификатору и идентификатору пользователя с загрузкой связанных сущностей.
+   * Находит счет по идентификатору и идентификатору пользователя. Счет загружается по
+   * идентификатору, поэтому берется из второго уровня кэша, если он там есть; подходит только для
+   * чтения, для изменения счета используется {@link #findForUpdateByIdAndUserId}.
    *
    * @param id идентификатор счета
    * @param userId идентификатор пользователя
    * @return Optional с счетом, если найден
    */
+  default Optional<Account> findByIdAndUserId(Long id, Long userId) {
+    return findById(id).filter(account -> userId.equals(account.getUser().getId()));
+  }
+
+  /**
+   * Находит счет по идентификатору и идентификатору пользователя, читая строку из БД в обход
+   * второго уровня кэша, и обновляет кэш прочитанным состоянием. Используется на путях, изменяющих
+   * счет: балансы, обновленные SQL-запросом на этом или другом узле, могут еще оставаться в кэше, и
+   * сохранение такого счета отклоняется проверкой версии.
+   *
+   * @param id идентификатор счета
+   * @param userId идентификатор пользователя
+   * @return Optional с счетом, если найден
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
   @Query("SELECT a FROM Account a JOIN FETCH a.user WHERE a.id = :id AND a.user.id = :userId")
-  Optional<Account> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+  Optional<Account> findForUpdateByIdAndUserId(
+      @Param("id") Long id, @Param("userId") Long userId);
 
   /**
    * Проверяет существование счета по идентификатору и идентификатору пользователя.
@@ -39,4 +64,55 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
    * @return true, если счет существует
    */
   boolean existsByIdAndUserId(Long id, Long userId);
+
+  /**
+   * Выбирает из переданных идентификаторов счета, принадлежащие пользователю.
+   *
+   * @param userId идентификатор пользователя
+   * @param ids идентификаторы счетов
+   * @return идентификаторы счетов пользователя
+   */
+  @Query("SELECT a.id FROM Account a WHERE a.user.id = :userId AND a.id IN :ids")
+  Set<Long> findIdsByUserIdAndIdIn(
+      @Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+  /**
+   * Находит счета пользователя, измененные после указанного момента.
+   *
+   * @param userId идентификатор пользователя
+   * @param since момент, после которого ищутся изменения
+   * @return список счетов в порядке изменения
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query(
+      "SELECT a FROM Account a JOIN FETCH a.user "
+          + "WHERE a.user.id = :userId AND a.updatedAt > :since "
+          + "ORDER BY a.updatedAt")
+  List<Account> findByUserIdUpdatedAfter(
+      @Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+  /**
+   * Находит балансы активных счетов пользователя, учитываемых в общем балансе.
+   *
+   * @param userId идентификатор пользователя
+   * @return балансы счетов с версиями
+   */
+  @Query(
+      "SELECT new ru.nsu.spendsphere.models.dto.AccountBalanceSnapshotDTO("
+          + "a.id, a.currency, a.balance, a.version) "
+          + "FROM Account a "
+          + "WHERE a.user.id = :userId AND a.isActive = true AND a.includeInTotal = true")
+  List<AccountBalanceSnapshotDTO> findActiveBalanceSnapshots(@Param("userId") Long userId);
+
+  /**
+   * Находит балансы счетов по идентификаторам.
+   *
+   * @param ids идентификаторы счетов
+   * @return балансы счетов с версиями
+   */
+  @Query(
+      "SELECT new ru.nsu.spendsphere.models.dto.AccountBalanceSnapshotDTO("
+          + "a.id, a.currency, a.balance, a.version) "
+          + "FROM Account a WHERE a.id IN :ids")
+  List<AccountBalanceSnapshotDTO> findBalanceSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
 }
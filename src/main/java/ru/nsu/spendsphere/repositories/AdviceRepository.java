@@ -1,9 +1,15 @@
 package ru.nsu.spendsphere.repositories;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.nsu.spendsphere.models.entities.Advice;
@@ -13,18 +19,32 @@ import ru.nsu.spendsphere.models.entities.Advice;
 public interface AdviceRepository extends JpaRepository<Advice, Long> {
 
   /**
-   * Находит все советы пользователя с загрузкой связанных сущностей.
+   * Находит идентификаторы советов пользователя, созданных начиная с указанного момента. Первый шаг
+   * постраничной выборки: страница ограничивается в БД по индексу (user_id, created_at), без
+   * загрузки связанных советов.
    *
    * @param userId идентификатор пользователя
-   * @return список советов пользователя
+   * @param since нижняя граница даты создания (включительно)
+   * @param pageable параметры страницы
+   * @return идентификаторы советов, от новых к старым
    */
   @Query(
-      "SELECT DISTINCT a FROM Advice a "
-          + "JOIN FETCH a.user "
-          + "LEFT JOIN FETCH a.items "
-          + "WHERE a.user.id = :userId "
-          + "ORDER BY a.createdAt DESC")
-  List<Advice> findByUserIdWithItems(@Param("userId") Long userId);
+      "SELECT a.id FROM Advice a "
+          + "WHERE a.user.id = :userId AND a.createdAt >= :since "
+          + "ORDER BY a.createdAt DESC, a.id DESC")
+  List<Long> findIdsByUserIdCreatedSince(
+      @Param("userId") Long userId, @Param("since") LocalDateTime since, Pageable pageable);
+
+  /**
+   * Загружает советы вместе с их пунктами по списку идентификаторов. Второй шаг постраничной
+   * выборки.
+   *
+   * @param ids идентификаторы советов
+   * @return советы с загруженными пунктами (порядок не гарантируется)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("SELECT DISTINCT a FROM Advice a LEFT JOIN FETCH a.items WHERE a.id IN :ids")
+  List<Advice> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 
   /**
    * Находит совет по task_id с загрузкой связанных сущностей.
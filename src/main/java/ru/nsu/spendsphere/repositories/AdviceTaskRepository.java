@@ -0,0 +1,10 @@
+package ru.nsu.spendsphere.repositories;
+
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.nsu.spendsphere.models.entities.AdviceTask;
+
+/** Репозиторий для работы с задачами генерации финансовых советов. */
+@Repository
+public interface AdviceTaskRepository extends JpaRepository<AdviceTask, UUID> {}
@@ -1,31 +1,25 @@
 package ru.nsu.spendsphere.repositories;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.nsu.spendsphere.models.entities.Category;
 
 /** Репозиторий для работы с категориями расходов и доходов. */
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-  /**
-   * Поиск всех категорий пользователя (пользовательские и дефолтные).
-   *
-   * @param userId идентификатор пользователя
-   * @return список всех доступных категорий для пользователя
-   */
-  @Query("SELECT c FROM Category c WHERE c.user.id = :userId OR c.isDefault = true")
-  List<Category> findAllByUserIdOrDefault(@Param("userId") Long userId);
-
   /**
    * Поиск всех пользовательских (не дефолтных) категорий пользователя.
    *
    * @param userId идентификатор пользователя
    * @return список пользовательских категорий
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   List<Category> findByUserIdAndIsDefaultFalse(Long userId);
 
   /**
@@ -33,6 +27,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
    *
    * @return список дефолтных категорий
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   List<Category> findByIsDefaultTrue();
 
   /**
@@ -54,16 +49,21 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
   boolean existsByIdAndUserIdAndIsDefaultFalse(Long categoryId, Long userId);
 
   /**
-   * Находит категорию по идентификатору, если она доступна для пользователя. Категория доступна,
-   * если она либо дефолтная, либо принадлежит данному пользователю.
+   * Поиск пользовательских категорий пользователя, измененных после указанного момента.
    *
-   * @param categoryId идентификатор категории
    * @param userId идентификатор пользователя
-   * @return Optional с категорией, если она доступна для пользователя
+   * @param since момент, после которого ищутся изменения
+   * @return список пользовательских категорий
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  List<Category> findByUserIdAndIsDefaultFalseAndUpdatedAtAfter(Long userId, LocalDateTime since);
+
+  /**
+   * Поиск дефолтных категорий, измененных после указанного момента.
+   *
+   * @param since момент, после которого ищутся изменения
+   * @return список дефолтных категорий
    */
-  @Query(
-      "SELECT c FROM Category c WHERE c.id = :categoryId AND (c.isDefault = true OR c.user.id ="
-          + " :userId)")
-  Optional<Category> findByIdAndIsDefaultTrueOrUserId(
-      @Param("categoryId") Long categoryId, @Param("userId") Long userId);
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  List<Category> findByIsDefaultTrueAndUpdatedAtAfter(LocalDateTime since);
 }
@@ -0,0 +1,73 @@
+package ru.nsu.spendsphere.repositories;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** JDBC-доступ к снимкам статистики классификатора категорий и к истории для его обучения. */
+@Repository
+@RequiredArgsConstructor
+public class CategoryTokenStatsStore {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Загружает снимок статистики пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @return строки статистики
+   */
+  public List<TokenStat> findByUserId(long userId) {
+    return jdbcTemplate.query(
+        "SELECT token, category_id, occurrences FROM category_token_stats WHERE user_id = ?",
+        (rs, i) -> new TokenStat(rs.getString(1), rs.getLong(2), rs.getInt(3)),
+        userId);
+  }
+
+  /**
+   * Загружает описания последних категоризированных транзакций пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @param limit максимальное количество транзакций
+   * @return пары (описание, категория), начиная с самых новых
+   */
+  public List<LabeledDescription> findLabeledHistory(long userId, int limit) {
+    return jdbcTemplate.query(
+        "SELECT description, category_id FROM transactions "
+            + "WHERE user_id = ? AND category_id IS NOT NULL AND description IS NOT NULL "
+            + "ORDER BY id DESC LIMIT ?",
+        (rs, i) -> new LabeledDescription(rs.getString(1), rs.getLong(2)),
+        userId,
+        limit);
+  }
+
+  /**
+   * Заменяет снимок статистики пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @param stats новая статистика
+   */
+  @Transactional
+  public void replaceUser(long userId, List<TokenStat> stats) {
+    jdbcTemplate.update("DELETE FROM category_token_stats WHERE user_id = ?", userId);
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO category_token_stats (user_id, token, category_id, occurrences) "
+            + "VALUES (?, ?, ?, ?)",
+        stats,
+        500,
+        (ps, stat) -> {
+          ps.setLong(1, userId);
+          ps.setString(2, stat.token());
+          ps.setLong(3, stat.categoryId());
+          ps.setInt(4, stat.occurrences());
+        });
+  }
+
+  /** Строка статистики: токен, категория и количество совпадений. */
+  public record TokenStat(String token, long categoryId, int occurrences) {}
+
+  /** Описание транзакции с известной категорией. */
+  public record LabeledDescription(String description, long categoryId) {}
+}
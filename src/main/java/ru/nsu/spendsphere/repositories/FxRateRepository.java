@@ -0,0 +1,20 @@
+package ru.nsu.spendsphere.repositories;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.models.entities.FxRate;
+
+/** Репозиторий для работы с курсами валют. */
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+
+  /**
+   * Находит курс валюты.
+   *
+   * @param currency валюта
+   * @return Optional с курсом, если он загружен
+   */
+  Optional<FxRate> findByCurrency(Currency currency);
+}
@@ -1,11 +1,21 @@
 package ru.nsu.spendsphere.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.nsu.spendsphere.models.entities.Reminder;
 
 @Repository
@@ -17,6 +27,7 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
    * @param userId идентификатор пользователя
    * @return список напоминаний пользователя
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   @Query(
       "SELECT r FROM Reminder r "
           + "JOIN FETCH r.user "
@@ -25,17 +36,20 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
   List<Reminder> findByUserId(@Param("userId") Long userId);
 
   /**
-   * Находит активные напоминания пользователя с загрузкой связанных сущностей.
+   * Находит активные напоминания пользователя, ближайшее срабатывание которых не позже указанной
+   * даты, с загрузкой связанных сущностей.
    *
    * @param userId идентификатор пользователя
-   * @return список активных напоминаний пользователя
+   * @param to граница периода (включительно)
+   * @return список напоминаний
    */
   @Query(
       "SELECT r FROM Reminder r "
           + "JOIN FETCH r.user "
           + "LEFT JOIN FETCH r.account "
-          + "WHERE r.user.id = :userId AND r.isActive = true")
-  List<Reminder> findActiveByUserId(@Param("userId") Long userId);
+          + "WHERE r.user.id = :userId AND r.isActive = true "
+          + "AND r.nextOccurrence <= :to")
+  List<Reminder> findActiveDueByUserId(@Param("userId") Long userId, @Param("to") LocalDate to);
 
   /**
    * Находит напоминание по ID с загрузкой связанных сущностей.
@@ -49,4 +63,120 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
           + "LEFT JOIN FETCH r.account "
           + "WHERE r.id = :id")
   Optional<Reminder> findByIdWithRelations(@Param("id") Long id);
+
+  /**
+   * Находит активные напоминания всех пользователей своего шарда, срабатывание которых наступило не
+   * позже указанной даты и которые еще не обработаны в эту дату. Выборка постраничная по ключу
+   * (next_occurrence, id), поэтому не требует OFFSET и полного сканирования таблицы.
+   *
+   * @param upTo граница даты срабатывания (включительно)
+   * @param afterDate дата последнего обработанного напоминания предыдущей страницы
+   * @param afterId идентификатор последнего обработанного напоминания предыдущей страницы
+   * @param nodeCount количество узлов-диспетчеров
+   * @param nodeIndex номер текущего узла (0..nodeCount-1)
+   * @param pageable размер страницы
+   * @return напоминания, упорядоченные по (next_occurrence, id)
+   */
+  @Query(
+      "SELECT r FROM Reminder r "
+          + "WHERE r.isActive = true AND r.nextOccurrence <= :upTo "
+          + "AND (r.lastNotifiedOn IS NULL OR r.lastNotifiedOn < :upTo) "
+          + "AND (r.nextOccurrence > :afterDate "
+          + "OR (r.nextOccurrence = :afterDate AND r.id > :afterId)) "
+          + "AND MOD(r.user.id, :nodeCount) = :nodeIndex "
+          + "ORDER BY r.nextOccurrence, r.id")
+  List<Reminder> findDueForShard(
+      @Param("upTo") LocalDate upTo,
+      @Param("afterDate") LocalDate afterDate,
+      @Param("afterId") long afterId,
+      @Param("nodeCount") long nodeCount,
+      @Param("nodeIndex") long nodeIndex,
+      Pageable pageable);
+
+  /**
+   * Находит активные напоминания, сохраненная дата срабатывания которых уже прошла. Выборка
+   * постраничная по ключу (next_occurrence, id).
+   *
+   * @param today текущая дата
+   * @param onlyNotified брать только напоминания, уведомление о прошедшей дате которых уже
+   *     отправлено
+   * @param afterDate дата последнего напоминания предыдущей страницы
+   * @param afterId идентификатор последнего напоминания предыдущей страницы
+   * @param pageable размер страницы
+   * @return напоминания, упорядоченные по (next_occurrence, id)
+   */
+  @Query(
+      "SELECT r FROM Reminder r "
+          + "WHERE r.isActive = true AND r.nextOccurrence < :today "
+          + "AND (:onlyNotified = false OR r.lastNotifiedOn >= r.nextOccurrence) "
+          + "AND (r.nextOccurrence > :afterDate "
+          + "OR (r.nextOccurrence = :afterDate AND r.id > :afterId)) "
+          + "ORDER BY r.nextOccurrence, r.id")
+  List<Reminder> findPassed(
+      @Param("today") LocalDate today,
+      @Param("onlyNotified") boolean onlyNotified,
+      @Param("afterDate") LocalDate afterDate,
+      @Param("afterId") long afterId,
+      Pageable pageable);
+
+  /**
+   * Переносит дату срабатывания, если она не изменилась с момента чтения.
+   *
+   * @param id идентификатор напоминания
+   * @param previous прочитанная дата срабатывания
+   * @param next новая дата срабатывания (может быть null)
+   * @return количество обновленных строк
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE Reminder r SET r.nextOccurrence = :next "
+          + "WHERE r.id = :id AND r.nextOccurrence = :previous")
+  int moveNextOccurrence(
+      @Param("id") long id, @Param("previous") LocalDate previous, @Param("next") LocalDate next);
+
+  /**
+   * Находит напоминание по ID и блокирует строку до конца транзакции.
+   *
+   * @param id идентификатор напоминания
+   * @return Optional с напоминанием
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT r FROM Reminder r WHERE r.id = :id")
+  Optional<Reminder> findByIdForUpdate(@Param("id") long id);
+
+  /**
+   * Находит активные напоминания с автопроведением, по которым есть непроведённые даты до указанной
+   * включительно. Выборка постраничная по идентификатору.
+   *
+   * @param today дата, по которую проводятся срабатывания
+   * @param afterId идентификатор последнего напоминания предыдущей страницы
+   * @param pageable размер страницы
+   * @return напоминания, упорядоченные по идентификатору
+   */
+  @Query(
+      "SELECT r FROM Reminder r "
+          + "WHERE r.isActive = true AND r.autoPost = true AND r.account IS NOT NULL "
+          + "AND r.autoPostedThrough < :today AND r.id > :afterId "
+          + "ORDER BY r.id")
+  List<Reminder> findAutoPostDue(
+      @Param("today") LocalDate today, @Param("afterId") long afterId, Pageable pageable);
+
+  /**
+   * Находит напоминания пользователя, измененные после указанного момента, с загрузкой связанных
+   * сущностей.
+   *
+   * @param userId идентификатор пользователя
+   * @param since момент, после которого ищутся изменения
+   * @return список напоминаний в порядке изменения
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query(
+      "SELECT r FROM Reminder r "
+          + "JOIN FETCH r.user "
+          + "LEFT JOIN FETCH r.account "
+          + "WHERE r.user.id = :userId AND r.updatedAt > :since "
+          + "ORDER BY r.updatedAt")
+  List<Reminder> findByUserIdUpdatedAfter(
+      @Param("userId") Long userId, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,55 @@
+package ru.nsu.spendsphere.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
+import ru.nsu.spendsphere.models.entities.SyncTombstone;
+
+/** Репозиторий для работы с отметками об удалении сущностей. */
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+  /**
+   * Находит отметки об удалениях пользователя, сделанных после указанного момента.
+   *
+   * @param userId идентификатор пользователя
+   * @param since момент, после которого ищутся удаления
+   * @return отметки в порядке удаления
+   */
+  List<SyncTombstone> findByUserIdAndDeletedAtAfterOrderByDeletedAt(
+      Long userId, LocalDateTime since);
+
+  /**
+   * Записывает отметку об удалении сущности пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @param entityType тип удаленной сущности
+   * @param entityId идентификатор удаленной сущности
+   */
+  default void recordDeletion(Long userId, SyncEntityType entityType, Long entityId) {
+    save(
+        SyncTombstone.builder()
+            .userId(userId)
+            .entityType(entityType)
+            .entityId(entityId)
+            .deletedAt(LocalDateTime.now())
+            .build());
+  }
+
+  /**
+   * Удаляет отметки старше указанного момента.
+   *
+   * @param before граница хранения
+   * @return количество удаленных отметок
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :before")
+  int deleteOlderThan(@Param("before") LocalDateTime before);
+}
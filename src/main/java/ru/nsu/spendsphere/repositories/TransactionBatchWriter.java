@@ -0,0 +1,321 @@
+package ru.nsu.spendsphere.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.nsu.spendsphere.models.entities.IdSequences;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+
+/**
+ * Пакетная запись транзакций через JDBC. Используется фоновыми задачами и пакетными операциями,
+ * которым не нужен полный путь изменения транзакции через JPA: строки пишутся пачками, а изменения
+ * балансов суммируются по счетам и применяются одним обновлением на счет.
+ *
+ * <p>Идентификаторы новых транзакций берутся из той же последовательности, что и у JPA, и так же
+ * блоками pooled-lo: одно значение последовательности резервирует {@link #ID_BLOCK_SIZE} подряд
+ * идущих идентификаторов, начиная с полученного. Поэтому на пачку строк приходится по одному
+ * обращению к последовательности на блок, а не на строку, и чужие блоки не затрагиваются.
+ *
+ * <p>Методы должны вызываться внутри транзакции.
+ */
+@Repository
+public class TransactionBatchWriter {
+
+  private static final int JDBC_BATCH_SIZE = 500;
+
+  private static final String ID_SEQUENCE = "transactions_seq";
+
+  /** Шаг последовательности; тот же, что у {@code allocationSize} сущности {@code Transaction}. */
+  private static final int ID_BLOCK_SIZE = IdSequences.ALLOCATION_SIZE;
+
+  private static final String UPDATE_SQL =
+      "UPDATE transactions SET type = ?, category_id = ?, account_id = ?, transfer_account_id = ?,"
+          + " amount = ?, description = ?, date = ?, updated_at = ? WHERE id = ?";
+
+  private static final String INSERT_TOMBSTONE_SQL =
+      "INSERT INTO sync_tombstones (user_id, entity_type, entity_id, deleted_at)"
+          + " VALUES (?, ?, ?, ?)";
+
+  private static final String UPDATE_BALANCE_SQL =
+      "UPDATE accounts SET balance = balance + ?, updated_at = ?, version = version + 1"
+          + " WHERE id = ?";
+
+  private static final String INSERT_SQL =
+      "INSERT INTO transactions (id, user_id, type, category_id, account_id,"
+          + " transfer_account_id, amount, description, date, reminder_id,"
+          + " reminder_occurrence_date, created_at, updated_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final String nextIdBlockSql;
+
+  /**
+   * Создает писателя; запрос следующего значения последовательности берется из диалекта Hibernate,
+   * чтобы он работал и в PostgreSQL, и в H2.
+   *
+   * @param jdbcTemplate шаблон JDBC
+   * @param entityManagerFactory фабрика JPA, из которой берется диалект
+   */
+  public TransactionBatchWriter(
+      JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+    this.jdbcTemplate = jdbcTemplate;
+    Dialect dialect =
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    this.nextIdBlockSql = dialect.getSequenceSupport().getSequenceNextValString(ID_SEQUENCE);
+  }
+
+  /**
+   * Вставляет транзакции пачками.
+   *
+   * @param rows новые транзакции
+   */
+  public void insertAll(List<NewTransaction> rows) {
+    insertAllReturningIds(rows);
+  }
+
+  /**
+   * Вставляет транзакции пачками и возвращает их идентификаторы.
+   *
+   * @param rows новые транзакции
+   * @return идентификаторы в порядке строк
+   */
+  public List<Long> insertAllReturningIds(List<NewTransaction> rows) {
+    if (rows.isEmpty()) {
+      return List.of();
+    }
+    List<Long> ids = allocateIds(rows.size());
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        IntStream.range(0, rows.size()).boxed().toList(),
+        JDBC_BATCH_SIZE,
+        (ps, i) -> {
+          ps.setLong(1, ids.get(i));
+          bindNewTransaction(ps, rows.get(i), now);
+        });
+    return ids;
+  }
+
+  /**
+   * Загружает транзакции пользователя и блокирует их строки до конца транзакции.
+   *
+   * @param userId идентификатор пользователя
+   * @param ids идентификаторы транзакций
+   * @return найденные транзакции по идентификатору; чужие и несуществующие отсутствуют
+   */
+  public Map<Long, StoredTransaction> findForUpdate(long userId, Collection<Long> ids) {
+    Map<Long, StoredTransaction> found = new HashMap<>();
+    if (ids.isEmpty()) {
+      return found;
+    }
+    List<Object> args = new ArrayList<>(ids.size() + 1);
+    args.add(userId);
+    args.addAll(ids);
+    jdbcTemplate.query(
+        "SELECT id, type, category_id, account_id, transfer_account_id, amount, description, date"
+            + " FROM transactions WHERE user_id = ? AND id IN ("
+            + String.join(", ", Collections.nCopies(ids.size(), "?"))
+            + ") FOR UPDATE",
+        rs -> {
+          StoredTransaction row =
+              new StoredTransaction(
+                  rs.getLong("id"),
+                  TransactionType.valueOf(rs.getString("type")),
+                  rs.getObject("category_id", Long.class),
+                  rs.getLong("account_id"),
+                  rs.getObject("transfer_account_id", Long.class),
+                  rs.getBigDecimal("amount"),
+                  rs.getString("description"),
+                  rs.getObject("date", LocalDate.class));
+          found.put(row.id(), row);
+        },
+        args.toArray());
+    return found;
+  }
+
+  /**
+   * Перезаписывает изменяемые поля транзакций пачками.
+   *
+   * @param rows новые значения транзакций
+   */
+  public void updateAll(Collection<StoredTransaction> rows) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.batchUpdate(
+        UPDATE_SQL,
+        rows,
+        JDBC_BATCH_SIZE,
+        (ps, row) -> {
+          ps.setString(1, row.type().name());
+          ps.setObject(2, row.categoryId(), Types.BIGINT);
+          ps.setLong(3, row.accountId());
+          ps.setObject(4, row.transferAccountId(), Types.BIGINT);
+          ps.setBigDecimal(5, row.amount());
+          ps.setString(6, row.description());
+          ps.setObject(7, row.date());
+          ps.setObject(8, now);
+          ps.setLong(9, row.id());
+        });
+  }
+
+  /**
+   * Удаляет транзакции пачками и записывает отметки об удалении для синхронизации клиентов.
+   *
+   * @param userId идентификатор владельца транзакций
+   * @param ids идентификаторы транзакций
+   */
+  public void deleteAll(long userId, Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        "DELETE FROM transactions WHERE id = ?",
+        ids,
+        JDBC_BATCH_SIZE,
+        (ps, id) -> ps.setLong(1, id));
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.batchUpdate(
+        INSERT_TOMBSTONE_SQL,
+        ids,
+        JDBC_BATCH_SIZE,
+        (ps, id) -> {
+          ps.setLong(1, userId);
+          ps.setString(2, SyncEntityType.TRANSACTION.name());
+          ps.setLong(3, id);
+          ps.setObject(4, now);
+        });
+  }
+
+  /**
+   * Применяет суммарные изменения балансов. Счета обновляются в порядке идентификаторов, чтобы
+   * параллельные пакеты брали блокировки строк в одном порядке.
+   *
+   * @param deltas изменение баланса по идентификатору счета
+   */
+  public void applyBalanceDeltas(Map<Long, BigDecimal> deltas) {
+    List<Object[]> args = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+    new TreeMap<>(deltas)
+        .forEach(
+            (accountId, delta) -> {
+              if (delta.signum() != 0) {
+                args.add(new Object[] {delta, now, accountId});
+              }
+            });
+    if (!args.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, args);
+    }
+  }
+
+  /**
+   * Добавляет влияние транзакции на балансы счетов, так же как при обычном создании транзакции.
+   *
+   * @param deltas накапливаемые изменения балансов
+   * @param row транзакция
+   */
+  public static void accumulateDelta(Map<Long, BigDecimal> deltas, NewTransaction row) {
+    accumulateDelta(deltas, row.type(), row.accountId(), row.transferAccountId(), row.amount());
+  }
+
+  /**
+   * Добавляет влияние транзакции на балансы счетов. Отрицательная сумма откатывает транзакцию.
+   *
+   * @param deltas накапливаемые изменения балансов
+   * @param type тип транзакции
+   * @param accountId основной счет
+   * @param transferAccountId счет зачисления для переводов (может быть null)
+   * @param amount сумма транзакции
+   */
+  public static void accumulateDelta(
+      Map<Long, BigDecimal> deltas,
+      TransactionType type,
+      long accountId,
+      Long transferAccountId,
+      BigDecimal amount) {
+    switch (type) {
+      case INCOME:
+        deltas.merge(accountId, amount, BigDecimal::add);
+        break;
+      case EXPENSE:
+        deltas.merge(accountId, amount.negate(), BigDecimal::add);
+        break;
+      case TRANSFER:
+        deltas.merge(accountId, amount.negate(), BigDecimal::add);
+        if (transferAccountId != null) {
+          deltas.merge(transferAccountId, amount, BigDecimal::add);
+        }
+        break;
+    }
+  }
+
+  /** Резервирует идентификаторы блоками по {@link #ID_BLOCK_SIZE}. */
+  private List<Long> allocateIds(int count) {
+    List<Long> ids = new ArrayList<>(count);
+    while (ids.size() < count) {
+      Long blockStart = jdbcTemplate.queryForObject(nextIdBlockSql, Long.class);
+      for (int i = 0; i < ID_BLOCK_SIZE && ids.size() < count; i++) {
+        ids.add(blockStart + i);
+      }
+    }
+    return ids;
+  }
+
+  private static void bindNewTransaction(
+      PreparedStatement ps, NewTransaction row, LocalDateTime now) throws SQLException {
+    ps.setLong(2, row.userId());
+    ps.setString(3, row.type().name());
+    ps.setObject(4, row.categoryId(), Types.BIGINT);
+    ps.setLong(5, row.accountId());
+    ps.setObject(6, row.transferAccountId(), Types.BIGINT);
+    ps.setBigDecimal(7, row.amount());
+    ps.setString(8, row.description());
+    ps.setObject(9, row.date());
+    ps.setObject(10, row.reminderId(), Types.BIGINT);
+    ps.setObject(11, row.reminderOccurrenceDate());
+    ps.setObject(12, now);
+    ps.setObject(13, now);
+  }
+
+  /** Строка новой транзакции для пакетной вставки. */
+  public record NewTransaction(
+      long userId,
+      TransactionType type,
+      Long categoryId,
+      long accountId,
+      Long transferAccountId,
+      BigDecimal amount,
+      String description,
+      LocalDate date,
+      Long reminderId,
+      LocalDate reminderOccurrenceDate) {}
+
+  /** Сохраненная транзакция: поля, от которых зависят балансы и которые можно изменить. */
+  public record StoredTransaction(
+      long id,
+      TransactionType type,
+      Long categoryId,
+      long accountId,
+      Long transferAccountId,
+      BigDecimal amount,
+      String description,
+      LocalDate date) {}
+}
@@ -1,12 +1,18 @@
 package ru.nsu.spendsphere.repositories;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.nsu.spendsphere.models.dto.TransactionExportRowDTO;
 import ru.nsu.spendsphere.models.entities.Transaction;
 import ru.nsu.spendsphere.models.entities.TransactionType;
 
@@ -20,6 +26,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
    * @param userId идентификатор пользователя
    * @return список транзакций пользователя
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   @Query(
       "SELECT DISTINCT t FROM Transaction t "
           + "LEFT JOIN FETCH t.category "
@@ -56,6 +63,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
    * @param dateTo дата окончания периода (опционально)
    * @return список транзакций
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   @Query(
       "SELECT DISTINCT t FROM Transaction t "
           + "LEFT JOIN FETCH t.category "
@@ -76,4 +84,50 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
       @Param("categoryId") Long categoryId,
       @Param("dateFrom") LocalDate dateFrom,
       @Param("dateTo") LocalDate dateTo);
+
+  /**
+   * Потоково выбирает транзакции пользователя для экспорта в порядке дат. Строки читаются серверным
+   * курсором порциями и не попадают в контекст персистентности, поэтому поток нужно читать внутри
+   * транзакции и закрывать после использования.
+   *
+   * @param userId идентификатор пользователя
+   * @param dateFrom дата начала периода (опционально)
+   * @param dateTo дата окончания периода (опционально)
+   * @return поток строк экспорта
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      "SELECT new ru.nsu.spendsphere.models.dto.TransactionExportRowDTO("
+          + "t.id, t.date, t.type, t.amount, a.name, ta.name, c.name, t.description) "
+          + "FROM Transaction t "
+          + "JOIN t.account a "
+          + "LEFT JOIN t.transferAccount ta "
+          + "LEFT JOIN t.category c "
+          + "WHERE t.user.id = :userId "
+          + "AND (CAST(:dateFrom AS date) IS NULL OR t.date >= :dateFrom) "
+          + "AND (CAST(:dateTo AS date) IS NULL OR t.date <= :dateTo) "
+          + "ORDER BY t.date, t.id")
+  Stream<TransactionExportRowDTO> streamForExport(
+      @Param("userId") Long userId,
+      @Param("dateFrom") LocalDate dateFrom,
+      @Param("dateTo") LocalDate dateTo);
+
+  /**
+   * Находит транзакции пользователя, измененные после указанного момента, с загрузкой связанных
+   * сущностей.
+   *
+   * @param userId идентификатор пользователя
+   * @param since момент, после которого ищутся изменения
+   * @return список транзакций в порядке изменения
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query(
+      "SELECT t FROM Transaction t "
+          + "LEFT JOIN FETCH t.category "
+          + "LEFT JOIN FETCH t.account "
+          + "LEFT JOIN FETCH t.transferAccount "
+          + "WHERE t.user.id = :userId AND t.updatedAt > :since "
+          + "ORDER BY t.updatedAt")
+  List<Transaction> findByUserIdUpdatedAfter(
+      @Param("userId") Long userId, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,20 @@
+package ru.nsu.spendsphere.repositories;
+
+import java.util.Optional;
+import ru.nsu.spendsphere.models.entities.User;
+
+/**
+ * Поиск пользователя по естественному идентификатору (email). В отличие от производного запроса,
+ * поиск идет через кэш естественных идентификаторов Hibernate и не обращается к БД, если
+ * пользователь уже есть во втором уровне кэша.
+ */
+public interface UserNaturalIdRepository {
+
+  /**
+   * Поиск пользователя по email.
+   *
+   * @param email email пользователя
+   * @return Optional с пользователем, если найден
+   */
+  Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,26 @@
+package ru.nsu.spendsphere.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.entities.User;
+
+/**
+ * Реализация поиска пользователя по email через {@code bySimpleNaturalId}.
+ *
+ * <p>Поиск используется при аутентификации, поэтому выполняется в транзакции на запись и при
+ * включенной реплике читает основную БД: только что зарегистрированный пользователь может еще не
+ * дойти до реплики. При попадании в кэш естественных идентификаторов соединение не берется.
+ */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public Optional<User> findByEmail(String email) {
+    return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+  }
+}
@@ -3,19 +3,12 @@ package ru.nsu.spendsphere.repositories;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.nsu.spendsphere.models.entities.User;
 
 /** Репозиторий для работы с сущностью пользователя. */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-  /**
-   * Поиск пользователя по email.
-   *
-   * @param email email пользователя
-   * @return Optional с пользователем, если найден
-   */
-  Optional<User> findByEmail(String email);
-
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
   /**
    * Проверка существования пользователя с указанным email.
    *
@@ -24,5 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
    */
   boolean existsByEmail(String email);
 
+  /**
+   * Поиск пользователя по OAuth2-провайдеру и идентификатору у провайдера. Используется при входе,
+   * поэтому выполняется в транзакции на запись и при включенной реплике читает основную БД.
+   *
+   * @param provider идентификатор провайдера
+   * @param providerId идентификатор пользователя у провайдера
+   * @return Optional с пользователем, если найден
+   */
+  @Transactional
   Optional<User> findByProviderAndProviderId(String provider, String providerId);
 }
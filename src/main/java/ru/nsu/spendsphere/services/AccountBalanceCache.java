@@ -0,0 +1,210 @@
+package ru.nsu.spendsphere.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.AccountBalanceSnapshotDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+
+/**
+ * Кэш сводки балансов пользователя по валютам. Размер ограничен настройкой
+ * app.accounts.balance-cache-max-users, давно не запрошенные сводки вытесняются (см. {@link
+ * LruEviction}). Записи неизменяемы и хранятся в {@link ConcurrentHashMap}, поэтому чтение не
+ * берет общих блокировок.
+ *
+ * <p>Сводка помечается версией списка счетов из {@link ResourceVersionRegistry} и хранит балансы
+ * учитываемых счетов вместе с версиями их строк. Операции с транзакциями после коммита передают
+ * новые балансы измененных счетов в {@link #bumpAfterCommit}: если сводка помечена версией,
+ * предшествовавшей этому повышению, балансы заменяются в памяти и сводка получает новую версию без
+ * запроса к БД. Баланс заменяется, только если версия строки больше сохраненной, поэтому изменение,
+ * уже попавшее в сводку при загрузке, не учитывается второй раз.
+ *
+ * <p>Остальные изменения счетов (создание, удаление, архивирование, смена валюты) и повышения
+ * версий, пришедшие с других узлов, оставляют сводке старую версию, и она перестраивается запросом
+ * балансов учитываемых счетов пользователя. Версия читается до загрузки: если изменение
+ * закоммитится во время загрузки, сводка получит старую версию и будет перестроена при следующем
+ * обращении.
+ *
+ * <p>Актуальная сводка отдается без транзакции и без соединения с БД; транзакция только на чтение
+ * открывается лишь для перестроения.
+ */
+@Component
+public class AccountBalanceCache {
+
+  private final AccountRepository accountRepository;
+  private final UserAccessService userAccessService;
+  private final ResourceVersionRegistry resourceVersions;
+  private final TransactionTemplate readOnlyTransaction;
+
+  @Value("${app.accounts.balance-cache-max-users}")
+  private int maxUsers;
+
+  private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final LruEviction eviction = new LruEviction();
+
+  public AccountBalanceCache(
+      AccountRepository accountRepository,
+      UserAccessService userAccessService,
+      ResourceVersionRegistry resourceVersions,
+      PlatformTransactionManager transactionManager) {
+    this.accountRepository = accountRepository;
+    this.userAccessService = userAccessService;
+    this.resourceVersions = resourceVersions;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Возвращает сводку балансов пользователя, перестраивая ее при отсутствии или устаревании.
+   *
+   * @param userId идентификатор пользователя
+   * @return сводка балансов по валютам
+   * @throws ResourceNotFoundException если пользователь не найден
+   */
+  public Summary get(Long userId) {
+    long version = resourceVersions.version(userId, VersionedResource.ACCOUNTS);
+    Entry entry = entries.get(userId);
+    if (entry != null && entry.version == version) {
+      entry.lastUsedNanos = System.nanoTime();
+      return entry.summary;
+    }
+
+    Entry loaded =
+        readOnlyTransaction.execute(
+            status -> {
+              userAccessService.requireExists(userId);
+              return Entry.of(version, accountRepository.findActiveBalanceSnapshots(userId));
+            });
+    entries.merge(
+        userId, loaded, (current, fresh) -> fresh.version >= current.version ? fresh : current);
+    eviction.evictIfFull(entries, maxUsers, e -> e.lastUsedNanos);
+    return loaded.summary;
+  }
+
+  /**
+   * После коммита текущей транзакции повышает версию списка счетов и остальных списков
+   * пользователя и переносит в сводку новые балансы измененных счетов. Источник балансов
+   * вызывается после коммита, поэтому может читать балансы и версии из сущностей, сохраненных в
+   * транзакции.
+   *
+   * @param userId идентификатор пользователя
+   * @param balances источник закоммиченных балансов измененных счетов
+   * @param others остальные измененные списки
+   */
+  public void bumpAfterCommit(
+      long userId,
+      Supplier<? extends Collection<AccountBalanceSnapshotDTO>> balances,
+      VersionedResource... others) {
+    AfterCommit.run(
+        () -> {
+          ResourceVersionRegistry.VersionChange change =
+              resourceVersions.bumpTracking(userId, VersionedResource.ACCOUNTS, others);
+          Collection<AccountBalanceSnapshotDTO> updated = balances.get();
+          entries.computeIfPresent(
+              userId,
+              (id, entry) ->
+                  entry.version == change.previous()
+                      ? entry.withBalances(change.current(), updated)
+                      : entry);
+        });
+  }
+
+  /**
+   * Для счетов, балансы которых обновлены SQL-запросом в текущей транзакции, читает новые балансы
+   * до коммита (строки еще заблокированы этой транзакцией) и после коммита переносит их в сводку
+   * так же, как {@link #bumpAfterCommit}.
+   *
+   * @param userId идентификатор пользователя
+   * @param accountIds идентификаторы счетов с обновленными балансами
+   * @param others остальные измененные списки
+   */
+  public void bumpAfterBalanceUpdate(
+      long userId, Collection<Long> accountIds, VersionedResource... others) {
+    List<AccountBalanceSnapshotDTO> balances =
+        accountIds.isEmpty() ? List.of() : accountRepository.findBalanceSnapshotsByIdIn(accountIds);
+    bumpAfterCommit(userId, () -> balances, others);
+  }
+
+  /**
+   * Возвращает балансы счетов. Вызывается после коммита, когда версии сущностей уже повышены.
+   *
+   * @param accounts счета; null пропускаются
+   * @return балансы счетов с версиями
+   */
+  public static List<AccountBalanceSnapshotDTO> snapshotsOf(Account... accounts) {
+    List<AccountBalanceSnapshotDTO> snapshots = new ArrayList<>(accounts.length);
+    for (Account account : accounts) {
+      if (account != null) {
+        snapshots.add(
+            new AccountBalanceSnapshotDTO(
+                account.getId(),
+                account.getCurrency(),
+                account.getBalance(),
+                account.getVersion()));
+      }
+    }
+    return snapshots;
+  }
+
+  /**
+   * Сводка балансов пользователя.
+   *
+   * @param accounts количество активных счетов, учитываемых в общем балансе
+   * @param balancesByCurrency суммы балансов по валютам
+   */
+  public record Summary(int accounts, Map<Currency, BigDecimal> balancesByCurrency) {}
+
+  private static final class Entry {
+    private final long version;
+    private final Map<Long, AccountBalanceSnapshotDTO> accounts;
+    private final Summary summary;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private Entry(long version, Map<Long, AccountBalanceSnapshotDTO> accounts) {
+      this.version = version;
+      this.accounts = accounts;
+      this.summary = summarize(accounts.values());
+    }
+
+    private static Entry of(long version, Collection<AccountBalanceSnapshotDTO> snapshots) {
+      Map<Long, AccountBalanceSnapshotDTO> accounts = new HashMap<>();
+      for (AccountBalanceSnapshotDTO snapshot : snapshots) {
+        accounts.put(snapshot.id(), snapshot);
+      }
+      return new Entry(version, accounts);
+    }
+
+    /** Возвращает сводку с новой версией и более новыми балансами учитываемых счетов. */
+    private Entry withBalances(long newVersion, Collection<AccountBalanceSnapshotDTO> updated) {
+      Map<Long, AccountBalanceSnapshotDTO> merged = new HashMap<>(accounts);
+      for (AccountBalanceSnapshotDTO snapshot : updated) {
+        merged.computeIfPresent(
+            snapshot.id(),
+            (id, cached) -> snapshot.version() > cached.version() ? snapshot : cached);
+      }
+      return new Entry(newVersion, merged);
+    }
+
+    private static Summary summarize(Collection<AccountBalanceSnapshotDTO> accounts) {
+      Map<Currency, BigDecimal> balancesByCurrency = new EnumMap<>(Currency.class);
+      for (AccountBalanceSnapshotDTO account : accounts) {
+        balancesByCurrency.merge(account.currency(), account.balance(), BigDecimal::add);
+      }
+      return new Summary(accounts.size(), Collections.unmodifiableMap(balancesByCurrency));
+    }
+  }
+}
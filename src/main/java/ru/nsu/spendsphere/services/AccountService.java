@@ -1,7 +1,6 @@
 package ru.nsu.spendsphere.services;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -15,10 +14,11 @@ import ru.nsu.spendsphere.models.dto.AccountDTO;
 import ru.nsu.spendsphere.models.dto.AccountUpdateDTO;
 import ru.nsu.spendsphere.models.entities.Account;
 import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.models.mappers.AccountMapper;
 import ru.nsu.spendsphere.repositories.AccountRepository;
-import ru.nsu.spendsphere.repositories.UserRepository;
+import ru.nsu.spendsphere.repositories.SyncTombstoneRepository;
 
 /**
  * Сервис для управления счетами пользователей. Предоставляет бизнес-логику для работы со счетами,
@@ -29,8 +29,12 @@ import ru.nsu.spendsphere.repositories.UserRepository;
 public class AccountService {
 
   private final AccountRepository accountRepository;
-  private final UserRepository userRepository;
+  private final UserAccessService userAccessService;
   private final AccountMapper accountMapper;
+  private final SyncTombstoneRepository syncTombstoneRepository;
+  private final ResourceVersionRegistry resourceVersions;
+  private final AccountBalanceCache accountBalanceCache;
+  private final FxRates fxRates;
 
   /**
    * Получение всех счетов пользователя.
@@ -39,10 +43,9 @@ public class AccountService {
    * @return список DTO счетов пользователя
    * @throws ResourceNotFoundException если пользователь не найден
    */
+  @Transactional(readOnly = true)
   public List<AccountDTO> getUserAccounts(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     return accountRepository.findByUserId(userId).stream()
         .map(accountMapper::toAccountDTO)
         .collect(Collectors.toList());
@@ -56,10 +59,9 @@ public class AccountService {
    * @return DTO счета
    * @throws ResourceNotFoundException если счет не найден или не принадлежит пользователю
    */
+  @Transactional(readOnly = true)
   public AccountDTO getAccountById(Long accountId, Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     Account account =
         accountRepository
             .findByIdAndUserId(accountId, userId)
@@ -80,11 +82,7 @@ public class AccountService {
    */
   @Transactional
   public AccountDTO createAccount(Long userId, AccountCreateDTO createDTO) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("User with id " + userId + " not found"));
+    User user = userAccessService.getReference(userId);
 
     Account account =
         Account.builder()
@@ -99,7 +97,9 @@ public class AccountService {
             .includeInTotal(createDTO.includeInTotal())
             .isActive(createDTO.isActive())
             .build();
-    return accountMapper.toAccountDTO(accountRepository.save(account));
+    AccountDTO created = accountMapper.toAccountDTO(accountRepository.save(account));
+    resourceVersions.bumpAfterCommit(userId, VersionedResource.ACCOUNTS);
+    return created;
   }
 
   /**
@@ -113,12 +113,10 @@ public class AccountService {
    */
   @Transactional
   public AccountDTO updateAccount(Long accountId, Long userId, AccountUpdateDTO updateDTO) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     Account account =
         accountRepository
-            .findByIdAndUserId(accountId, userId)
+            .findForUpdateByIdAndUserId(accountId, userId)
             .orElseThrow(
                 () ->
                     new ResourceNotFoundException(
@@ -149,6 +147,8 @@ public class AccountService {
       account.setIncludeInTotal(updateDTO.includeInTotal());
     }
 
+    resourceVersions.bumpAfterCommit(
+        userId, VersionedResource.ACCOUNTS, VersionedResource.TRANSACTIONS);
     return accountMapper.toAccountDTO(accountRepository.save(account));
   }
 
@@ -161,45 +161,43 @@ public class AccountService {
    */
   @Transactional
   public void deleteAccount(Long accountId, Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     Account account =
         accountRepository
-            .findByIdAndUserId(accountId, userId)
+            .findForUpdateByIdAndUserId(accountId, userId)
             .orElseThrow(
                 () ->
                     new ResourceNotFoundException(
                         "Account with id " + accountId + " not found for user " + userId));
     accountRepository.delete(account);
+    syncTombstoneRepository.recordDeletion(userId, SyncEntityType.ACCOUNT, accountId);
+    resourceVersions.bumpAfterCommit(
+        userId, VersionedResource.ACCOUNTS, VersionedResource.TRANSACTIONS);
   }
 
   /**
-   * Получение общего баланса по всем активным счетам пользователя, сгруппированного по валютам.
+   * Получение общего баланса по всем активным счетам пользователя, сгруппированного по валютам, и
+   * его итога в базовой валюте. Сводка по валютам берется из кэша: изменения балансов транзакциями
+   * применяются к ней в памяти, перестраивается она только после изменения самих счетов. Метод не
+   * открывает транзакцию: актуальная сводка отдается без обращения к БД.
    *
    * @param userId идентификатор пользователя
+   * @param baseCurrency валюта, в которой считается итог
    * @return DTO с информацией о балансах по валютам
    * @throws ResourceNotFoundException если пользователь не найден
    */
-  public AccountBalanceDTO getUserAccountsBalance(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
-
-    List<Account> activeAccounts =
-        accountRepository.findByUserId(userId).stream()
-            .filter(Account::getIsActive)
-            .filter(Account::getIncludeInTotal)
-            .toList();
-
-    Map<Currency, BigDecimal> balancesByCurrency = new HashMap<>();
-
-    for (Account account : activeAccounts) {
-      Currency currency = account.getCurrency();
-      BigDecimal currentBalance = balancesByCurrency.getOrDefault(currency, BigDecimal.ZERO);
-      balancesByCurrency.put(currency, currentBalance.add(account.getBalance()));
+  public AccountBalanceDTO getUserAccountsBalance(Long userId, Currency baseCurrency) {
+    AccountBalanceCache.Summary summary = accountBalanceCache.get(userId);
+    BigDecimal total = BigDecimal.ZERO;
+    for (Map.Entry<Currency, BigDecimal> entry : summary.balancesByCurrency().entrySet()) {
+      BigDecimal converted = fxRates.convert(entry.getValue(), entry.getKey(), baseCurrency);
+      if (converted == null) {
+        total = null;
+        break;
+      }
+      total = total.add(converted);
     }
-
-    return new AccountBalanceDTO(activeAccounts.size(), balancesByCurrency);
+    return new AccountBalanceDTO(
+        summary.accounts(), summary.balancesByCurrency(), baseCurrency, total);
   }
 }
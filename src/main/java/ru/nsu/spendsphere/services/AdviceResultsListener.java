@@ -1,7 +1,10 @@
 package ru.nsu.spendsphere.services;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,10 +15,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.nsu.spendsphere.models.entities.Advice;
 import ru.nsu.spendsphere.models.entities.AdviceItem;
+import ru.nsu.spendsphere.models.entities.AdviceTask;
+import ru.nsu.spendsphere.models.entities.AdviceTaskStatus;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.models.messaging.AdviceResultItem;
 import ru.nsu.spendsphere.models.messaging.AdviceResultMessage;
 import ru.nsu.spendsphere.repositories.AdviceRepository;
+import ru.nsu.spendsphere.repositories.AdviceTaskRepository;
 import ru.nsu.spendsphere.repositories.UserRepository;
 
 /** Listener для обработки результатов генерации финансовых советов. */
@@ -26,8 +32,8 @@ public class AdviceResultsListener {
 
   private static final Logger log = LoggerFactory.getLogger(AdviceResultsListener.class);
 
-  private final AdviceService adviceService;
   private final AdviceRepository adviceRepository;
+  private final AdviceTaskRepository adviceTaskRepository;
   private final UserRepository userRepository;
 
   @Value("${app.rabbit.queues.advice-results}")
@@ -42,25 +48,36 @@ public class AdviceResultsListener {
         message.taskId(),
         message.status());
 
+    AdviceTask adviceTask = findAdviceTask(message.taskId());
+    if (adviceTask == null) {
+      return;
+    }
+
+    if (adviceTask.getStatus() != AdviceTaskStatus.PENDING) {
+      log.warn(
+          "Advice task {} already processed with status {}, skipping duplicate result",
+          adviceTask.getTaskId(),
+          adviceTask.getStatus());
+      return;
+    }
+
     if (!"SUCCESS".equalsIgnoreCase(message.status())) {
       log.error("Advice task {} failed with status: {}", message.taskId(), message.status());
+      finishTask(adviceTask, AdviceTaskStatus.FAILED);
       return;
     }
 
     if (message.advice() == null || message.advice().isEmpty()) {
       log.warn("Advice result {} has no advice items", message.taskId());
+      finishTask(adviceTask, AdviceTaskStatus.FAILED);
       return;
     }
 
-    Long userId = adviceService.decodeUserId(message.taskId());
-    if (userId == null) {
-      log.error("Failed to decode userId from taskId: {}", message.taskId());
-      return;
-    }
-
+    Long userId = adviceTask.getUserId();
     User user = userRepository.findById(userId).orElse(null);
     if (user == null) {
       log.error("User with id {} not found for advice task {}", userId, message.taskId());
+      finishTask(adviceTask, AdviceTaskStatus.FAILED);
       return;
     }
 
@@ -73,8 +90,9 @@ public class AdviceResultsListener {
     Advice advice =
         Advice.builder()
             .user(user)
-            .taskId(message.taskId())
-            .goal(message.goal())
+            .taskId(adviceTask.getTaskId().toString())
+            .goal(message.goal() != null ? message.goal() : adviceTask.getGoal())
+            .targetDate(adviceTask.getTargetDate())
             .items(new ArrayList<>())
             .build();
 
@@ -93,6 +111,7 @@ public class AdviceResultsListener {
 
     advice.setItems(items);
     adviceRepository.save(advice);
+    finishTask(adviceTask, AdviceTaskStatus.COMPLETED);
 
     log.info(
         "Advice saved successfully: taskId={}, userId={}, adviceItems={}",
@@ -100,4 +119,34 @@ public class AdviceResultsListener {
         userId,
         items.size());
   }
+
+  private AdviceTask findAdviceTask(String taskIdStr) {
+    UUID taskId;
+    try {
+      taskId = UUID.fromString(taskIdStr);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      log.error("Invalid task_id format: {}", taskIdStr);
+      return null;
+    }
+
+    AdviceTask adviceTask = adviceTaskRepository.findById(taskId).orElse(null);
+    if (adviceTask == null) {
+      log.error("Advice task {} not found in database", taskId);
+    }
+    return adviceTask;
+  }
+
+  private void finishTask(AdviceTask adviceTask, AdviceTaskStatus status) {
+    LocalDateTime completedAt = LocalDateTime.now();
+    adviceTask.setStatus(status);
+    adviceTask.setCompletedAt(completedAt);
+    adviceTaskRepository.save(adviceTask);
+
+    log.info(
+        "Advice task finished: taskId={}, userId={}, status={}, latencyMs={}",
+        adviceTask.getTaskId(),
+        adviceTask.getUserId(),
+        status,
+        Duration.between(adviceTask.getCreatedAt(), completedAt).toMillis());
+  }
 }
@@ -1,35 +1,41 @@
 package ru.nsu.spendsphere.services;
 
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
 import ru.nsu.spendsphere.models.dto.AdviceItemDTO;
 import ru.nsu.spendsphere.models.dto.AdviceRequestDTO;
 import ru.nsu.spendsphere.models.dto.AdviceResponseDTO;
+import ru.nsu.spendsphere.models.entities.Advice;
 import ru.nsu.spendsphere.models.entities.AdviceItem;
+import ru.nsu.spendsphere.models.entities.AdviceTask;
 import ru.nsu.spendsphere.models.entities.Transaction;
 import ru.nsu.spendsphere.models.entities.TransactionType;
 import ru.nsu.spendsphere.models.messaging.AdviceGoal;
 import ru.nsu.spendsphere.models.messaging.AdviceTaskMessage;
 import ru.nsu.spendsphere.models.messaging.MonthlyStats;
 import ru.nsu.spendsphere.repositories.AdviceRepository;
+import ru.nsu.spendsphere.repositories.AdviceTaskRepository;
 import ru.nsu.spendsphere.repositories.TransactionRepository;
-import ru.nsu.spendsphere.repositories.UserRepository;
 
 /** Сервис для работы с финансовыми советами. */
 @Service
@@ -38,10 +44,12 @@ public class AdviceService {
 
   private static final Logger log = LoggerFactory.getLogger(AdviceService.class);
   private static final int MAX_MONTHS_FOR_STATS = 3;
+  private static final int MAX_RECENT_PAGE_SIZE = 50;
 
   private final RabbitTemplate rabbitTemplate;
   private final AdviceRepository adviceRepository;
-  private final UserRepository userRepository;
+  private final AdviceTaskRepository adviceTaskRepository;
+  private final UserAccessService userAccessService;
   private final TransactionRepository transactionRepository;
 
   @Value("${app.rabbit.queues.advice-tasks}")
@@ -54,17 +62,24 @@ public class AdviceService {
    * @param requestDTO данные запроса
    */
   public void requestAdvice(Long userId, AdviceRequestDTO requestDTO) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
+
+    UUID taskId = UUID.randomUUID();
 
-    String taskId = generateTaskId(userId);
+    AdviceTask adviceTask =
+        AdviceTask.builder()
+            .taskId(taskId)
+            .userId(userId)
+            .goal(requestDTO.goal())
+            .targetDate(requestDTO.targetDate())
+            .build();
+    adviceTaskRepository.save(adviceTask);
 
     Map<String, MonthlyStats> monthlyStats = collectMonthlyStats(userId);
 
     AdviceGoal goal = new AdviceGoal(requestDTO.goal(), requestDTO.targetDate());
 
-    AdviceTaskMessage message = new AdviceTaskMessage(taskId, goal, monthlyStats);
+    AdviceTaskMessage message = new AdviceTaskMessage(taskId.toString(), goal, monthlyStats);
 
     log.info(
         "Sending advice task to RabbitMQ: queue={}, taskId={}, userId={}, goal={}",
@@ -79,25 +94,45 @@ public class AdviceService {
   }
 
   /**
-   * Получает советы пользователя за последний месяц.
+   * Получает страницу советов пользователя за последний месяц. Окно дат и размер страницы
+   * применяются в БД: сначала выбираются идентификаторы страницы, затем одним запросом подгружаются
+   * пункты только этих советов.
    *
    * @param userId идентификатор пользователя
-   * @return список советов за последний месяц
+   * @param page номер страницы (с нуля)
+   * @param size размер страницы (1-50)
+   * @return список советов за последний месяц, от новых к старым
    */
-  public List<AdviceResponseDTO> getRecentAdvices(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
+  @Transactional(readOnly = true)
+  public List<AdviceResponseDTO> getRecentAdvices(Long userId, int page, int size) {
+    userAccessService.requireExists(userId);
+    if (page < 0) {
+      throw new BadRequestException("Page must be non-negative");
+    }
+    if (size < 1 || size > MAX_RECENT_PAGE_SIZE) {
+      throw new BadRequestException("Size must be between 1 and " + MAX_RECENT_PAGE_SIZE);
     }
 
-    LocalDate oneMonthAgo = LocalDate.now().minusMonths(1);
+    LocalDateTime since = LocalDate.now().minusMonths(1).plusDays(1).atStartOfDay();
 
-    return adviceRepository.findByUserIdWithItems(userId).stream()
-        .filter(advice -> advice.getCreatedAt().toLocalDate().isAfter(oneMonthAgo))
+    List<Long> ids =
+        adviceRepository.findIdsByUserIdCreatedSince(userId, since, PageRequest.of(page, size));
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, Advice> advicesById =
+        adviceRepository.findAllWithItemsByIdIn(ids).stream()
+            .collect(Collectors.toMap(Advice::getId, Function.identity()));
+
+    return ids.stream()
+        .map(advicesById::get)
+        .filter(Objects::nonNull)
         .map(this::toResponseDTO)
         .collect(Collectors.toList());
   }
 
-  private AdviceResponseDTO toResponseDTO(ru.nsu.spendsphere.models.entities.Advice advice) {
+  private AdviceResponseDTO toResponseDTO(Advice advice) {
     List<AdviceItemDTO> items =
         advice.getItems().stream()
             .sorted(Comparator.comparing(AdviceItem::getItemOrder))
@@ -119,33 +154,6 @@ public class AdviceService {
         advice.getCreatedAt());
   }
 
-  private String generateTaskId(Long userId) {
-    String userIdStr = "user_" + userId + "_" + System.currentTimeMillis();
-    return Base64.getUrlEncoder()
-        .withoutPadding()
-        .encodeToString(userIdStr.getBytes(StandardCharsets.UTF_8));
-  }
-
-  /**
-   * Декодирует userId из taskId.
-   *
-   * @param taskId идентификатор задачи
-   * @return идентификатор пользователя
-   */
-  public Long decodeUserId(String taskId) {
-    try {
-      byte[] decoded = Base64.getUrlDecoder().decode(taskId);
-      String decodedStr = new String(decoded, StandardCharsets.UTF_8);
-      String[] parts = decodedStr.split("_");
-      if (parts.length >= 2 && "user".equals(parts[0])) {
-        return Long.parseLong(parts[1]);
-      }
-    } catch (Exception e) {
-      log.error("Failed to decode userId from taskId: {}", taskId, e);
-    }
-    return null;
-  }
-
   private Map<String, MonthlyStats> collectMonthlyStats(Long userId) {
     LocalDate endDate = LocalDate.now();
     LocalDate startDate = endDate.minusMonths(MAX_MONTHS_FOR_STATS);
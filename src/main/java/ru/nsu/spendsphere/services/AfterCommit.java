@@ -0,0 +1,30 @@
+package ru.nsu.spendsphere.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Выполнение действий после успешного коммита текущей транзакции. */
+public final class AfterCommit {
+
+  private AfterCommit() {}
+
+  /**
+   * Выполняет действие после коммита текущей транзакции или сразу, если транзакции нет. При откате
+   * транзакции действие не выполняется.
+   *
+   * @param action действие
+   */
+  public static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
@@ -0,0 +1,45 @@
+package ru.nsu.spendsphere.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.nsu.spendsphere.models.messaging.CacheInvalidationMessage;
+import ru.nsu.spendsphere.models.messaging.ResourceVersionMessage;
+
+/**
+ * Listener сообщений о сбросе второго уровня кэша и о повышении версий списков пользователей.
+ * Каждый узел слушает собственную временную очередь, привязанную к fanout-обмену, и получает
+ * сообщения всех узлов.
+ *
+ * <p>Пока соединения с брокером нет, сообщения других узлов теряются, поэтому при каждом новом
+ * соединении все версии списков сбрасываются.
+ */
+@Service
+@ConditionalOnProperty(value = "app.rabbit.enabled", havingValue = "true")
+@RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+  private final EntityCacheInvalidator entityCacheInvalidator;
+  private final ResourceVersionRegistry resourceVersions;
+  private final ConnectionFactory connectionFactory;
+
+  @PostConstruct
+  void registerConnectionListener() {
+    connectionFactory.addConnectionListener(connection -> resourceVersions.invalidateAll());
+  }
+
+  @RabbitHandler
+  public void handleInvalidation(CacheInvalidationMessage message) {
+    entityCacheInvalidator.onRemoteInvalidation(message);
+  }
+
+  @RabbitHandler
+  public void handleVersionBump(ResourceVersionMessage message) {
+    resourceVersions.onRemoteBump(message);
+  }
+}
@@ -0,0 +1,110 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
+import ru.nsu.spendsphere.models.entities.Category;
+import ru.nsu.spendsphere.models.mappers.CategoryMapper;
+
+/**
+ * Неизменяемый словарь категорий, доступных пользователю: дефолтные и пользовательские категории с
+ * поиском по идентификатору и по названию без учета регистра.
+ */
+public final class CategoryDictionary {
+
+  private final List<CategoryDTO> defaults;
+  private final List<CategoryDTO> categories;
+  private final Map<Long, CategoryDTO> byId;
+  private final Map<String, Long> idsByName;
+  private final CategoryNameIndex nameIndex;
+
+  private CategoryDictionary(
+      List<CategoryDTO> defaults,
+      List<CategoryDTO> categories,
+      Map<Long, CategoryDTO> byId,
+      Map<String, Long> idsByName) {
+    this.defaults = defaults;
+    this.categories = categories;
+    this.byId = byId;
+    this.idsByName = idsByName;
+    this.nameIndex = CategoryNameIndex.of(categories);
+  }
+
+  /**
+   * Строит словарь. При совпадении названий приоритет у дефолтной категории.
+   *
+   * @param defaults снимок дефолтных категорий
+   * @param custom пользовательские категории
+   * @return словарь категорий
+   */
+  static CategoryDictionary of(List<CategoryDTO> defaults, List<Category> custom) {
+    List<CategoryDTO> categories = new ArrayList<>(defaults.size() + custom.size());
+    categories.addAll(defaults);
+    custom.forEach(c -> categories.add(CategoryMapper.toDto(c)));
+
+    Map<Long, CategoryDTO> byId = new HashMap<>();
+    Map<String, Long> idsByName = new HashMap<>();
+    for (CategoryDTO category : categories) {
+      byId.put(category.id(), category);
+      if (category.name() != null) {
+        idsByName.putIfAbsent(category.name().toLowerCase(), category.id());
+      }
+    }
+    return new CategoryDictionary(
+        defaults, List.copyOf(categories), Map.copyOf(byId), Map.copyOf(idsByName));
+  }
+
+  /**
+   * Возвращает все категории: сначала дефолтные, затем пользовательские.
+   *
+   * @return неизменяемый список категорий
+   */
+  public List<CategoryDTO> categories() {
+    return categories;
+  }
+
+  /**
+   * Ищет категорию по идентификатору.
+   *
+   * @param categoryId идентификатор категории
+   * @return Optional с категорией, если она доступна пользователю
+   */
+  public Optional<CategoryDTO> findById(Long categoryId) {
+    return Optional.ofNullable(byId.get(categoryId));
+  }
+
+  /**
+   * Ищет идентификатор категории по названию без учета регистра.
+   *
+   * @param name название категории
+   * @return идентификатор категории или null, если категория не найдена
+   */
+  public Long findIdByName(String name) {
+    return name == null ? null : idsByName.get(name.toLowerCase());
+  }
+
+  /**
+   * Ищет идентификатор категории по названию: сначала точное совпадение без учета регистра, затем
+   * ближайшее название по триграммам.
+   *
+   * @param name название категории, например распознанное в чеке
+   * @param threshold минимальная близость названий для нечеткого совпадения (0..1)
+   * @return идентификатор категории или null, если подходящей категории нет
+   */
+  public Long matchIdByName(String name, double threshold) {
+    Long exact = findIdByName(name);
+    if (exact != null) {
+      return exact;
+    }
+    CategoryNameIndex.Match match = nameIndex.match(name, threshold);
+    return match != null ? match.categoryId() : null;
+  }
+
+  /** Проверяет, что словарь построен на указанном снимке дефолтных категорий. */
+  boolean isBuiltFrom(List<CategoryDTO> defaultsSnapshot) {
+    return defaults == defaultsSnapshot;
+  }
+}
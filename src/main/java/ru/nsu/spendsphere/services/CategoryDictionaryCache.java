@@ -0,0 +1,89 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
+import ru.nsu.spendsphere.repositories.CategoryRepository;
+
+/**
+ * Кэш словарей категорий по пользователям. Размер ограничен настройкой
+ * app.categories.dictionary-max-users: при переполнении вытесняются давно не использованные
+ * словари (см. {@link LruEviction}).
+ *
+ * <p>Записи неизменяемы и хранятся в {@link ConcurrentHashMap}, поэтому чтение не берет общих
+ * блокировок. У каждой записи есть версия, которая меняется при изменении категорий пользователя;
+ * загруженный словарь кладется в кэш, только если запись за время загрузки не заменили, поэтому
+ * параллельная загрузка не может вернуть в кэш устаревшие данные. Словарь также перестраивается,
+ * когда обновился снимок дефолтных категорий.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryDictionaryCache {
+
+  private final CategoryRepository categoryRepository;
+  private final DefaultCategoryCache defaultCategoryCache;
+
+  @Value("${app.categories.dictionary-max-users}")
+  private int maxUsers;
+
+  private final AtomicLong versionSequence = new AtomicLong();
+  private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+  private final LruEviction eviction = new LruEviction();
+
+  /**
+   * Возвращает словарь категорий пользователя, загружая его при отсутствии в кэше.
+   *
+   * @param userId идентификатор пользователя
+   * @return словарь категорий
+   */
+  public CategoryDictionary get(Long userId) {
+    List<CategoryDTO> defaults = defaultCategoryCache.get();
+    Slot slot = slots.get(userId);
+    if (slot == null) {
+      Slot created = new Slot(versionSequence.incrementAndGet(), null);
+      slot = slots.putIfAbsent(userId, created);
+      if (slot == null) {
+        slot = created;
+        eviction.evictIfFull(slots, maxUsers, entry -> entry.lastUsedNanos);
+      }
+    }
+    slot.lastUsedNanos = System.nanoTime();
+    if (slot.dictionary != null && slot.dictionary.isBuiltFrom(defaults)) {
+      return slot.dictionary;
+    }
+
+    CategoryDictionary loaded =
+        CategoryDictionary.of(defaults, categoryRepository.findByUserIdAndIsDefaultFalse(userId));
+    slots.replace(userId, slot, new Slot(slot.version, loaded));
+    return loaded;
+  }
+
+  /**
+   * Меняет версию словаря пользователя. Вызывается после изменения его категорий.
+   *
+   * @param userId идентификатор пользователя
+   */
+  public void invalidate(Long userId) {
+    slots.computeIfPresent(userId, (id, slot) -> new Slot(versionSequence.incrementAndGet(), null));
+  }
+
+  /**
+   * Запись кэша. Версия и словарь не меняются: при загрузке или сбросе запись заменяется целиком,
+   * поэтому записи сравниваются по ссылке.
+   */
+  private static final class Slot {
+    private final long version;
+    private final CategoryDictionary dictionary;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private Slot(long version, CategoryDictionary dictionary) {
+      this.version = version;
+      this.dictionary = dictionary;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
+
+/**
+ * Триграммный индекс названий категорий для нечеткого сопоставления. Названия разбиваются на
+ * триграммы так же, как в pg_trgm (каждое слово дополняется двумя пробелами слева и одним справа),
+ * а близость оценивается коэффициентом Дайса по общим триграммам.
+ *
+ * <p>Кроме полного названия индексируется каждое его слово от трех символов: близость категории —
+ * максимум из близости к полному названию и к отдельным словам. Так запрос «кафе» находит категорию
+ * «Кафе и рестораны», хотя с полным названием у него мало общих триграмм.
+ *
+ * <p>Индекс неизменяемый: для каждой триграммы хранится массив позиций вариантов названий, поэтому
+ * поиск проходит только по вариантам, у которых есть хотя бы одна общая триграмма с запросом.
+ */
+final class CategoryNameIndex {
+
+  private static final int MIN_WORD_LENGTH = 3;
+
+  private final long[] categoryIds;
+  private final int[] entryCategories;
+  private final int[] trigramCounts;
+  private final Map<String, int[]> postings;
+
+  private CategoryNameIndex(
+      long[] categoryIds, int[] entryCategories, int[] trigramCounts, Map<String, int[]> postings) {
+    this.categoryIds = categoryIds;
+    this.entryCategories = entryCategories;
+    this.trigramCounts = trigramCounts;
+    this.postings = postings;
+  }
+
+  /**
+   * Строит индекс по списку категорий.
+   *
+   * @param categories категории в порядке приоритета (при равной близости выигрывает более ранняя)
+   * @return индекс названий
+   */
+  static CategoryNameIndex of(List<CategoryDTO> categories) {
+    long[] ids = new long[categories.size()];
+    List<Integer> owners = new ArrayList<>();
+    List<Integer> counts = new ArrayList<>();
+    Map<String, List<Integer>> lists = new HashMap<>();
+    for (int i = 0; i < categories.size(); i++) {
+      CategoryDTO category = categories.get(i);
+      ids[i] = category.id();
+      for (Set<String> trigrams : variants(category.name())) {
+        int entry = owners.size();
+        owners.add(i);
+        counts.add(trigrams.size());
+        for (String trigram : trigrams) {
+          lists.computeIfAbsent(trigram, t -> new ArrayList<>()).add(entry);
+        }
+      }
+    }
+    Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+    lists.forEach(
+        (trigram, positions) ->
+            postings.put(trigram, positions.stream().mapToInt(Integer::intValue).toArray()));
+    return new CategoryNameIndex(
+        ids,
+        owners.stream().mapToInt(Integer::intValue).toArray(),
+        counts.stream().mapToInt(Integer::intValue).toArray(),
+        Map.copyOf(postings));
+  }
+
+  /**
+   * Находит наиболее близкую по названию категорию.
+   *
+   * @param name название из внешнего источника (например, из чека)
+   * @param threshold минимальная близость в диапазоне 0..1
+   * @return найденная категория или null, если близость ниже порога
+   */
+  Match match(String name, double threshold) {
+    Set<String> query = trigrams(name);
+    if (query.isEmpty()) {
+      return null;
+    }
+    int[] shared = new int[entryCategories.length];
+    for (String trigram : query) {
+      int[] positions = postings.get(trigram);
+      if (positions != null) {
+        for (int position : positions) {
+          shared[position]++;
+        }
+      }
+    }
+
+    int best = -1;
+    double bestScore = 0;
+    for (int i = 0; i < shared.length; i++) {
+      if (shared[i] == 0) {
+        continue;
+      }
+      double score = 2.0 * shared[i] / (query.size() + trigramCounts[i]);
+      // Варианты идут в порядке категорий, поэтому при равной близости остается более ранняя
+      if (score > bestScore) {
+        best = entryCategories[i];
+        bestScore = score;
+      }
+    }
+    return best >= 0 && bestScore >= threshold ? new Match(categoryIds[best], bestScore) : null;
+  }
+
+  /** Триграммы полного названия, а для названий из нескольких слов — и каждого слова. */
+  private static List<Set<String>> variants(String name) {
+    List<Set<String>> result = new ArrayList<>();
+    Set<String> full = trigrams(name);
+    result.add(full);
+    for (String word : words(name)) {
+      Set<String> trigrams = trigrams(word);
+      if (word.length() >= MIN_WORD_LENGTH && !trigrams.equals(full)) {
+        result.add(trigrams);
+      }
+    }
+    return result;
+  }
+
+  static Set<String> trigrams(String name) {
+    Set<String> result = new LinkedHashSet<>();
+    for (String word : words(name)) {
+      String padded = "  " + word + " ";
+      for (int i = 0; i + 3 <= padded.length(); i++) {
+        result.add(padded.substring(i, i + 3));
+      }
+    }
+    return result;
+  }
+
+  private static List<String> words(String name) {
+    if (name == null) {
+      return List.of();
+    }
+    String normalized =
+        name.toLowerCase(Locale.ROOT).replace('ё', 'е').replaceAll("[^\\p{L}\\p{N}]+", " ");
+    return Arrays.stream(normalized.trim().split(" ")).filter(w -> !w.isEmpty()).toList();
+  }
+
+  /**
+   * Результат сопоставления.
+   *
+   * @param categoryId идентификатор категории
+   * @param score близость названий (0..1)
+   */
+  record Match(long categoryId, double score) {}
+}
@@ -4,14 +4,16 @@ import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
 import ru.nsu.spendsphere.models.dto.CategoryDTO;
 import ru.nsu.spendsphere.models.dto.CategoryInputDTO;
 import ru.nsu.spendsphere.models.entities.Category;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.models.mappers.CategoryMapper;
 import ru.nsu.spendsphere.repositories.CategoryRepository;
-import ru.nsu.spendsphere.repositories.UserRepository;
+import ru.nsu.spendsphere.repositories.SyncTombstoneRepository;
 
 /**
  * Сервис для управления категориями расходов и доходов. Предоставляет бизнес-логику для работы с
@@ -21,7 +23,11 @@ import ru.nsu.spendsphere.repositories.UserRepository;
 @RequiredArgsConstructor
 public class CategoryService {
   private final CategoryRepository categoryRepository;
-  private final UserRepository userRepository;
+  private final UserAccessService userAccessService;
+  private final DefaultCategoryCache defaultCategoryCache;
+  private final CategoryDictionaryCache categoryDictionaryCache;
+  private final SyncTombstoneRepository syncTombstoneRepository;
+  private final ResourceVersionRegistry resourceVersions;
 
   /**
    * Получение всех категорий для пользователя (дефолтные и пользовательские).
@@ -30,13 +36,22 @@ public class CategoryService {
    * @return список всех доступных категорий для пользователя
    * @throws ResourceNotFoundException если пользователь с указанным ID не найден
    */
+  @Transactional(readOnly = true)
   public List<CategoryDTO> getAllByUserIdOrDefault(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
-    return categoryRepository.findAllByUserIdOrDefault(userId).stream()
-        .map(CategoryMapper::toDto)
-        .collect(Collectors.toList());
+    userAccessService.requireExists(userId);
+    return getAvailableCategories(userId);
+  }
+
+  /**
+   * Получение категорий, доступных пользователю, без проверки существования пользователя. Категории
+   * берутся из кэша словарей категорий.
+   *
+   * @param userId идентификатор пользователя
+   * @return дефолтные категории, за которыми следуют пользовательские
+   */
+  @Transactional(readOnly = true)
+  public List<CategoryDTO> getAvailableCategories(Long userId) {
+    return categoryDictionaryCache.get(userId).categories();
   }
 
   /**
@@ -46,10 +61,9 @@ public class CategoryService {
    * @return список пользовательских категорий
    * @throws ResourceNotFoundException если пользователь с указанным ID не найден
    */
+  @Transactional(readOnly = true)
   public List<CategoryDTO> getCustomByUserId(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     return categoryRepository.findByUserIdAndIsDefaultFalse(userId).stream()
         .map(CategoryMapper::toDto)
         .collect(Collectors.toList());
@@ -61,9 +75,16 @@ public class CategoryService {
    * @return список всех дефолтных категорий
    */
   public List<CategoryDTO> getAllDefault() {
-    return categoryRepository.findByIsDefaultTrue().stream()
-        .map(CategoryMapper::toDto)
-        .collect(Collectors.toList());
+    return defaultCategoryCache.get();
+  }
+
+  /**
+   * Получение версии списка дефолтных категорий. Версия меняется только при изменении списка.
+   *
+   * @return версия списка дефолтных категорий
+   */
+  public long getDefaultCategoriesVersion() {
+    return defaultCategoryCache.version();
   }
 
   /**
@@ -75,11 +96,7 @@ public class CategoryService {
    * @throws ResourceNotFoundException если пользователь с указанным ID не найден
    */
   public CategoryDTO createCustomCategory(Long userId, CategoryInputDTO body) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("User with id " + userId + " not found"));
+    User user = userAccessService.getReference(userId);
     Category category =
         Category.builder()
             .name(body.name())
@@ -92,7 +109,10 @@ public class CategoryService {
                     : ru.nsu.spendsphere.models.entities.CategoryType.BOTH)
             .user(user)
             .build();
-    return CategoryMapper.toDto(categoryRepository.save(category));
+    CategoryDTO created = CategoryMapper.toDto(categoryRepository.save(category));
+    categoryDictionaryCache.invalidate(userId);
+    resourceVersions.bumpAfterCommit(userId, VersionedResource.CATEGORIES);
+    return created;
   }
 
   /**
@@ -105,9 +125,7 @@ public class CategoryService {
    * @throws ResourceNotFoundException если пользователь или категория не найдены
    */
   public CategoryDTO updateCustomCategory(Long userId, Long categoryId, CategoryInputDTO body) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     Category category =
         categoryRepository
             .findByIdAndUserIdAndIsDefaultFalse(categoryId, userId)
@@ -126,7 +144,11 @@ public class CategoryService {
     if (body.categoryType() != null) {
       category.setCategoryType(body.categoryType());
     }
-    return CategoryMapper.toDto(categoryRepository.save(category));
+    CategoryDTO updated = CategoryMapper.toDto(categoryRepository.save(category));
+    categoryDictionaryCache.invalidate(userId);
+    resourceVersions.bumpAfterCommit(
+        userId, VersionedResource.CATEGORIES, VersionedResource.TRANSACTIONS);
+    return updated;
   }
 
   /**
@@ -137,12 +159,14 @@ public class CategoryService {
    * @throws ResourceNotFoundException если пользователь или категория не найдены
    */
   public void deleteCustomCategory(Long userId, Long categoryId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     if (!categoryRepository.existsByIdAndUserIdAndIsDefaultFalse(categoryId, userId)) {
       throw new ResourceNotFoundException("Category with id " + categoryId + " not found");
     }
     categoryRepository.deleteById(categoryId);
+    syncTombstoneRepository.recordDeletion(userId, SyncEntityType.CATEGORY, categoryId);
+    categoryDictionaryCache.invalidate(userId);
+    resourceVersions.bumpAfterCommit(
+        userId, VersionedResource.CATEGORIES, VersionedResource.TRANSACTIONS);
   }
 }
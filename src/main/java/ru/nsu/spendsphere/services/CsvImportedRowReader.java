@@ -0,0 +1,155 @@
+package ru.nsu.spendsphere.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+
+/**
+ * Потоковое чтение CSV с заголовком. Колонки определяются по названиям в заголовке (date, type,
+ * amount, account, transfer_account, category, description), разделитель — запятая или точка с
+ * запятой. Поля в кавычках могут содержать разделители, удвоенные кавычки и переводы строк.
+ */
+final class CsvImportedRowReader implements ImportedRowReader {
+
+  private final BufferedReader reader;
+  private final Map<String, Integer> columns = new HashMap<>();
+  private char delimiter;
+  private long line;
+
+  CsvImportedRowReader(Reader reader) throws IOException {
+    this.reader = new BufferedReader(reader);
+    readHeader();
+  }
+
+  @Override
+  public ImportedRow next() throws IOException {
+    while (true) {
+      long recordLine = line + 1;
+      List<String> fields = readRecord();
+      if (fields == null) {
+        return null;
+      }
+      if (fields.size() == 1 && fields.get(0).isBlank()) {
+        continue;
+      }
+      return new ImportedRow(
+          recordLine,
+          field(fields, "date"),
+          field(fields, "type"),
+          field(fields, "amount"),
+          field(fields, "account"),
+          field(fields, "transfer_account"),
+          field(fields, "category"),
+          field(fields, "description"));
+    }
+  }
+
+  private void readHeader() throws IOException {
+    String header = reader.readLine();
+    if (header == null) {
+      throw new BadRequestException("CSV file is empty");
+    }
+    line++;
+    if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+      header = header.substring(1);
+    }
+    delimiter = count(header, ';') > count(header, ',') ? ';' : ',';
+
+    List<String> names = split(header);
+    for (int i = 0; i < names.size(); i++) {
+      columns.putIfAbsent(names.get(i).trim().toLowerCase(), i);
+    }
+    if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+      throw new BadRequestException("CSV header must contain date and amount columns");
+    }
+  }
+
+  private List<String> readRecord() throws IOException {
+    String current = reader.readLine();
+    if (current == null) {
+      return null;
+    }
+    line++;
+
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    int i = 0;
+    while (true) {
+      if (i == current.length()) {
+        if (!quoted) {
+          break;
+        }
+        String continuation = reader.readLine();
+        if (continuation == null) {
+          break;
+        }
+        line++;
+        field.append('\n');
+        current = continuation;
+        i = 0;
+        continue;
+      }
+      char c = current.charAt(i++);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i < current.length() && current.charAt(i) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == delimiter) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private List<String> split(String header) {
+    List<String> names = new ArrayList<>();
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < header.length(); i++) {
+      char c = header.charAt(i);
+      if (c == delimiter) {
+        names.add(name.toString());
+        name.setLength(0);
+      } else if (c != '"') {
+        name.append(c);
+      }
+    }
+    names.add(name.toString());
+    return names;
+  }
+
+  private String field(List<String> fields, String column) {
+    Integer index = columns.get(column);
+    if (index == null || index >= fields.size()) {
+      return null;
+    }
+    String value = fields.get(index).trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  private static int count(String s, char c) {
+    int count = 0;
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) == c) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
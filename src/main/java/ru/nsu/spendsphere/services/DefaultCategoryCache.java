@@ -0,0 +1,95 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
+import ru.nsu.spendsphere.models.mappers.CategoryMapper;
+import ru.nsu.spendsphere.repositories.CategoryRepository;
+
+/**
+ * Кэш дефолтных категорий в памяти процесса. Дефолтные категории общие для всех пользователей и
+ * почти не меняются, поэтому хранятся неизменяемым снимком, который целиком заменяется при
+ * перезагрузке. Читатели не берут блокировок и всегда видят согласованный список.
+ *
+ * <p>Снимок перечитывается из БД по истечении {@code app.categories.defaults-ttl-ms} или после
+ * {@link #invalidate()}. Версия снимка меняется, только если список категорий изменился; она
+ * используется в ETag списков категорий.
+ *
+ * <p>Перезагрузка идет под {@link ReentrantLock}, а не под {@code synchronized}: в Java 21 запрос к
+ * БД внутри монитора закрепляет виртуальный поток за потоком-носителем.
+ */
+@Component
+@RequiredArgsConstructor
+public class DefaultCategoryCache {
+
+  private final CategoryRepository categoryRepository;
+
+  @Value("${app.categories.defaults-ttl-ms}")
+  private long ttlMillis;
+
+  private final ReentrantLock reloadLock = new ReentrantLock();
+
+  private volatile Snapshot snapshot;
+  private long generation;
+
+  /**
+   * Возвращает дефолтные категории.
+   *
+   * @return неизменяемый список дефолтных категорий
+   */
+  public List<CategoryDTO> get() {
+    return current().categories();
+  }
+
+  /**
+   * Возвращает версию текущего снимка дефолтных категорий.
+   *
+   * @return версия снимка
+   */
+  public long version() {
+    return current().version();
+  }
+
+  /** Сбрасывает снимок; следующее обращение перечитает дефолтные категории из БД. */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null || current.isExpired(ttlMillis)) {
+      current = reload();
+    }
+    return current;
+  }
+
+  private Snapshot reload() {
+    reloadLock.lock();
+    try {
+      Snapshot current = snapshot;
+      if (current != null && !current.isExpired(ttlMillis)) {
+        return current;
+      }
+      List<CategoryDTO> categories =
+          categoryRepository.findByIsDefaultTrue().stream().map(CategoryMapper::toDto).toList();
+      long version =
+          current != null && current.categories().equals(categories)
+              ? current.version()
+              : ++generation;
+      current = new Snapshot(categories, version, System.nanoTime());
+      snapshot = current;
+      return current;
+    } finally {
+      reloadLock.unlock();
+    }
+  }
+
+  private record Snapshot(List<CategoryDTO> categories, long version, long loadedAtNanos) {
+    boolean isExpired(long ttlMillis) {
+      return System.nanoTime() - loadedAtNanos >= ttlMillis * 1_000_000L;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package ru.nsu.spendsphere.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.models.messaging.CacheInvalidationMessage;
+
+/**
+ * Согласование второго уровня кэша Hibernate между узлами. Кэш у каждого узла свой: изменения через
+ * JPA Hibernate применяет к локальному кэшу сам, а этот компонент после коммита рассылает
+ * идентификаторы измененных кэшируемых сущностей через fanout-обмен RabbitMQ, и остальные узлы
+ * вытесняют их у себя.
+ *
+ * <p>Изменения в обход Hibernate (пакетные обновления балансов через JDBC) нужно явно передавать в
+ * {@link #evictAfterCommit(Class, Collection)}. Если RabbitMQ отключен или недоступен, устаревание
+ * на других узлах ограничено TTL регионов, а запись устаревшего счета отклоняется по его версии.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator
+    implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+  private static final Logger log = LoggerFactory.getLogger(EntityCacheInvalidator.class);
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final RabbitTemplate rabbitTemplate;
+  private final String origin = UUID.randomUUID().toString();
+
+  @Value("${app.rabbit.enabled}")
+  private boolean rabbitEnabled;
+
+  @Value("${app.rabbit.exchanges.cache-invalidation}")
+  private String exchangeName;
+
+  @PostConstruct
+  void registerListeners() {
+    EventListenerRegistry registry =
+        sessionFactory().getServiceRegistry().getService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  /**
+   * Вытесняет сущности из кэша этого и остальных узлов после коммита текущей транзакции.
+   * Используется после изменений в обход Hibernate.
+   *
+   * @param entityClass класс сущности
+   * @param ids идентификаторы измененных сущностей
+   */
+  public void evictAfterCommit(Class<?> entityClass, Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    String entityName = entityClass.getName();
+    List<Long> evicted = List.copyOf(ids);
+    AfterCommit.run(
+        () -> {
+          evictLocally(entityName, evicted);
+          publish(entityName, evicted);
+        });
+  }
+
+  /**
+   * Применяет сообщение о сбросе, полученное от другого узла.
+   *
+   * @param message сообщение о сбросе
+   */
+  public void onRemoteInvalidation(CacheInvalidationMessage message) {
+    if (origin.equals(message.origin())) {
+      return;
+    }
+    evictLocally(message.entityName(), message.ids());
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    publish(event.getPersister(), event.getId());
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    publish(event.getPersister(), event.getId());
+  }
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return rabbitEnabled && persister.canWriteToCache();
+  }
+
+  private void publish(EntityPersister persister, Object id) {
+    if (persister.canWriteToCache() && id instanceof Long entityId) {
+      publish(persister.getEntityName(), List.of(entityId));
+    }
+  }
+
+  private void publish(String entityName, List<Long> ids) {
+    if (!rabbitEnabled) {
+      return;
+    }
+    try {
+      rabbitTemplate.convertAndSend(
+          exchangeName, "", new CacheInvalidationMessage(origin, entityName, ids));
+    } catch (AmqpException e) {
+      log.warn("Failed to publish cache invalidation for {} {}: {}", entityName, ids, e.toString());
+    }
+  }
+
+  private void evictLocally(String entityName, Collection<Long> ids) {
+    CacheImplementor cache = sessionFactory().getCache();
+    for (Long id : ids) {
+      cache.evictEntityData(entityName, id);
+    }
+    if (User.class.getName().equals(entityName)) {
+      cache.evictNaturalIdData(entityName);
+    }
+  }
+
+  private SessionFactoryImplementor sessionFactory() {
+    return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+  }
+}
@@ -0,0 +1,103 @@
+package ru.nsu.spendsphere.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.models.entities.FxRate;
+import ru.nsu.spendsphere.repositories.FxRateRepository;
+
+/**
+ * Загрузка курсов валют из файла при старте приложения. Файл задается настройкой app.fx.rates-file
+ * (например, {@code classpath:fx-rates.csv} или {@code file:/etc/spendsphere/fx-rates.csv}); пустое
+ * значение отключает загрузку, и курсы берутся только из таблицы fx_rates.
+ *
+ * <p>Формат файла: строки {@code ВАЛЮТА;КУРС_К_РУБЛЮ}, пустые строки и строки с {@code #}
+ * пропускаются. Курсы из файла записываются в таблицу поверх существующих.
+ */
+@Component
+@RequiredArgsConstructor
+public class FxRateFileLoader {
+
+  private static final Logger log = LoggerFactory.getLogger(FxRateFileLoader.class);
+
+  private final FxRateRepository fxRateRepository;
+  private final FxRates fxRates;
+  private final ResourceLoader resourceLoader;
+
+  @Value("${app.fx.rates-file:}")
+  private String ratesFile;
+
+  /**
+   * Загружает курсы из файла в таблицу fx_rates и обновляет снимок курсов после коммита.
+   *
+   * @throws IOException если файл не удалось прочитать
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void loadOnStartup() throws IOException {
+    if (ratesFile.isBlank()) {
+      return;
+    }
+    Resource resource = resourceLoader.getResource(ratesFile);
+    if (!resource.exists()) {
+      log.warn("FX rates file not found: {}", ratesFile);
+      return;
+    }
+
+    Map<Currency, BigDecimal> rates = read(resource);
+    for (Map.Entry<Currency, BigDecimal> entry : rates.entrySet()) {
+      FxRate rate =
+          fxRateRepository
+              .findByCurrency(entry.getKey())
+              .orElseGet(() -> FxRate.builder().currency(entry.getKey()).build());
+      rate.setRateToRub(entry.getValue());
+      fxRateRepository.save(rate);
+    }
+    log.info("FX rates imported from {}: currencies={}", ratesFile, rates.size());
+    AfterCommit.run(fxRates::refresh);
+  }
+
+  private static Map<Currency, BigDecimal> read(Resource resource) throws IOException {
+    Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.strip();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] parts = line.split(";");
+        if (parts.length != 2) {
+          throw new IOException("Malformed FX rate line: " + line);
+        }
+        try {
+          BigDecimal rate = new BigDecimal(parts[1].strip());
+          if (rate.signum() <= 0) {
+            throw new IOException("FX rate must be positive: " + line);
+          }
+          rates.put(Currency.valueOf(parts[0].strip()), rate);
+        } catch (IllegalArgumentException e) {
+          throw new IOException("Malformed FX rate line: " + line, e);
+        }
+      }
+    }
+    return rates;
+  }
+}
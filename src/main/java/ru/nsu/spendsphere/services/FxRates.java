@@ -0,0 +1,119 @@
+package ru.nsu.spendsphere.services;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.models.entities.FxRate;
+import ru.nsu.spendsphere.repositories.FxRateRepository;
+
+/**
+ * Курсы валют в памяти процесса. Курсы хранятся неизменяемым снимком с заранее вычисленной матрицей
+ * кросс-курсов; снимок целиком заменяется при обновлении, поэтому читатели не берут блокировок, а
+ * пересчет суммы стоит одного умножения.
+ *
+ * <p>Снимок перечитывается из таблицы fx_rates раз в {@code app.fx.refresh-ms} и после загрузки
+ * курсов из файла. Версия снимка меняется, только если курсы изменились; она используется в ETag
+ * ответов с пересчитанными суммами.
+ */
+@Component
+@RequiredArgsConstructor
+public class FxRates {
+
+  private static final Logger log = LoggerFactory.getLogger(FxRates.class);
+
+  private static final Currency[] CURRENCIES = Currency.values();
+
+  private final FxRateRepository fxRateRepository;
+
+  private volatile Snapshot snapshot;
+  private long generation;
+
+  /**
+   * Пересчитывает сумму в другую валюту с округлением до копеек.
+   *
+   * @param amount сумма
+   * @param from валюта суммы
+   * @param to валюта результата
+   * @return пересчитанная сумма или {@code null}, если курс одной из валют неизвестен
+   */
+  public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
+    if (from == to) {
+      return amount;
+    }
+    BigDecimal rate = current().cross[from.ordinal()][to.ordinal()];
+    if (rate == null) {
+      return null;
+    }
+    return amount.multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
+  }
+
+  /**
+   * Возвращает версию текущего снимка курсов.
+   *
+   * @return версия снимка
+   */
+  public long version() {
+    return current().version;
+  }
+
+  /** Перечитывает курсы из БД и атомарно заменяет снимок. */
+  @Scheduled(fixedDelayString = "${app.fx.refresh-ms}", initialDelayString = "${app.fx.refresh-ms}")
+  public void refresh() {
+    BigDecimal[] toRub = new BigDecimal[CURRENCIES.length];
+    toRub[Currency.RUB.ordinal()] = BigDecimal.ONE;
+    List<FxRate> rates = fxRateRepository.findAll();
+    for (FxRate rate : rates) {
+      if (rate.getRateToRub().signum() > 0) {
+        toRub[rate.getCurrency().ordinal()] = rate.getRateToRub();
+      }
+    }
+
+    synchronized (this) {
+      Snapshot current = snapshot;
+      if (current != null && Arrays.equals(current.toRub, toRub)) {
+        return;
+      }
+      snapshot = new Snapshot(toRub, ++generation);
+    }
+    log.info("FX rates loaded: currencies={}", rates.size());
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      refresh();
+      current = snapshot;
+    }
+    return current;
+  }
+
+  /** Неизменяемый снимок: курсы к рублю и матрица кросс-курсов {@code cross[from][to]}. */
+  private static final class Snapshot {
+    private final BigDecimal[] toRub;
+    private final BigDecimal[][] cross;
+    private final long version;
+
+    private Snapshot(BigDecimal[] toRub, long version) {
+      this.toRub = toRub;
+      this.version = version;
+      this.cross = new BigDecimal[toRub.length][toRub.length];
+      for (int from = 0; from < toRub.length; from++) {
+        for (int to = 0; to < toRub.length; to++) {
+          if (from == to) {
+            cross[from][to] = BigDecimal.ONE;
+          } else if (toRub[from] != null && toRub[to] != null) {
+            cross[from][to] = toRub[from].divide(toRub[to], MathContext.DECIMAL64);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package ru.nsu.spendsphere.services;
+
+/**
+ * Строка импортируемого файла до проверки и преобразования. Пустые значения представлены null.
+ *
+ * @param line номер строки файла, с которой начинается запись
+ * @param date дата транзакции
+ * @param type тип транзакции (если не указан, определяется по знаку суммы)
+ * @param amount сумма транзакции
+ * @param account идентификатор или название счета
+ * @param transferAccount идентификатор или название счета зачисления для переводов
+ * @param category идентификатор или название категории
+ * @param description описание транзакции
+ */
+record ImportedRow(
+    long line,
+    String date,
+    String type,
+    String amount,
+    String account,
+    String transferAccount,
+    String category,
+    String description) {}
@@ -0,0 +1,15 @@
+package ru.nsu.spendsphere.services;
+
+import java.io.IOException;
+
+/** Потоковое чтение записей импортируемого файла: записи читаются по одной, без загрузки файла. */
+interface ImportedRowReader {
+
+  /**
+   * Читает следующую запись.
+   *
+   * @return запись или null, если файл закончился
+   * @throws IOException при ошибке чтения
+   */
+  ImportedRow next() throws IOException;
+}
@@ -0,0 +1,49 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Вытеснение давно не использованных записей из ограниченных кэшей в памяти, построенных на {@link
+ * java.util.concurrent.ConcurrentHashMap}. Когда размер превышает предел, удаляются записи с самым
+ * старым временем последнего обращения — с запасом в десятую часть предела, чтобы не сортировать
+ * записи на каждой вставке.
+ *
+ * <p>Вытеснение выполняет один поток под {@link ReentrantLock}; остальные в это время его не ждут и
+ * продолжают работать с картой.
+ */
+final class LruEviction {
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Вытесняет записи, если карта больше предела.
+   *
+   * @param map карта кэша
+   * @param maxSize предельный размер
+   * @param lastUsed время последнего обращения к записи
+   * @param <K> тип ключа
+   * @param <V> тип записи
+   */
+  <K, V> void evictIfFull(Map<K, V> map, int maxSize, ToLongFunction<V> lastUsed) {
+    if (map.size() <= maxSize || !lock.tryLock()) {
+      return;
+    }
+    try {
+      int excess = map.size() - maxSize;
+      if (excess <= 0) {
+        return;
+      }
+      map.entrySet().stream()
+          .map(e -> Map.entry(e.getKey(), lastUsed.applyAsLong(e.getValue())))
+          .sorted(Map.Entry.comparingByValue())
+          .limit(excess + maxSize / 10L)
+          .map(Map.Entry::getKey)
+          .toList()
+          .forEach(map::remove);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
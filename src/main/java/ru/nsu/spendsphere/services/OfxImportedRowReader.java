@@ -0,0 +1,133 @@
+package ru.nsu.spendsphere.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Потоковое чтение банковских выписок OFX (как SGML 1.x без закрывающих тегов, так и XML 2.x).
+ * Каждый блок {@code <STMTTRN>} становится записью: дата из DTPOSTED, сумма из TRNAMT, описание из
+ * NAME и MEMO. Тип не заполняется и определяется по знаку суммы.
+ */
+final class OfxImportedRowReader implements ImportedRowReader {
+
+  private final BufferedReader reader;
+  private int pushedBack = -1;
+  private long line = 1;
+  private Map<String, String> current;
+  private long currentLine;
+
+  OfxImportedRowReader(Reader reader) {
+    this.reader = new BufferedReader(reader);
+  }
+
+  @Override
+  public ImportedRow next() throws IOException {
+    while (true) {
+      String tag = nextTag();
+      if (tag == null) {
+        return finish();
+      }
+      if (tag.equals("STMTTRN")) {
+        ImportedRow done = finish();
+        current = new HashMap<>();
+        currentLine = line;
+        if (done != null) {
+          return done;
+        }
+      } else if (tag.equals("/STMTTRN") || tag.equals("/BANKTRANLIST")) {
+        ImportedRow done = finish();
+        if (done != null) {
+          return done;
+        }
+      } else if (current != null && !tag.startsWith("/")) {
+        current.put(tag, readText().trim());
+      }
+    }
+  }
+
+  private ImportedRow finish() {
+    Map<String, String> fields = current;
+    current = null;
+    if (fields == null) {
+      return null;
+    }
+    String posted = emptyToNull(fields.get("DTPOSTED"));
+    String date =
+        posted != null && posted.length() >= 8
+            ? posted.substring(0, 4) + "-" + posted.substring(4, 6) + "-" + posted.substring(6, 8)
+            : posted;
+    String name = emptyToNull(fields.get("NAME"));
+    String memo = emptyToNull(fields.get("MEMO"));
+    String description = name == null ? memo : memo == null ? name : name + " — " + memo;
+    return new ImportedRow(
+        currentLine,
+        date,
+        null,
+        emptyToNull(fields.get("TRNAMT")),
+        null,
+        null,
+        null,
+        description);
+  }
+
+  /** Пропускает текст до следующего тега и возвращает его имя в верхнем регистре. */
+  private String nextTag() throws IOException {
+    int c;
+    while ((c = read()) != -1 && c != '<') {
+      // текст вне транзакций не нужен
+    }
+    if (c == -1) {
+      return null;
+    }
+    StringBuilder name = new StringBuilder();
+    while ((c = read()) != -1 && c != '>') {
+      name.append((char) c);
+    }
+    return name.toString().trim().toUpperCase();
+  }
+
+  /** Читает значение тега до следующего тега, не поглощая его. */
+  private String readText() throws IOException {
+    StringBuilder text = new StringBuilder();
+    int c;
+    while ((c = read()) != -1) {
+      if (c == '<') {
+        pushedBack = c;
+        break;
+      }
+      text.append((char) c);
+    }
+    return decodeEntities(text.toString());
+  }
+
+  private int read() throws IOException {
+    if (pushedBack != -1) {
+      int c = pushedBack;
+      pushedBack = -1;
+      return c;
+    }
+    int c = reader.read();
+    if (c == '\n') {
+      line++;
+    }
+    return c;
+  }
+
+  private static String decodeEntities(String s) {
+    if (s.indexOf('&') < 0) {
+      return s;
+    }
+    return s.replace("&lt;", "<")
+        .replace("&gt;", ">")
+        .replace("&quot;", "\"")
+        .replace("&apos;", "'")
+        .replace("&amp;", "&");
+  }
+
+  private static String emptyToNull(String s) {
+    return s == null || s.isEmpty() ? null : s;
+  }
+}
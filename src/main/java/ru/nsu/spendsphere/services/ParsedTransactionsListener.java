@@ -1,5 +1,8 @@
 package ru.nsu.spendsphere.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -10,12 +13,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
-import ru.nsu.spendsphere.models.entities.Category;
 import ru.nsu.spendsphere.models.entities.OcrTask;
 import ru.nsu.spendsphere.models.entities.TransactionType;
 import ru.nsu.spendsphere.models.messaging.OcrResultItem;
 import ru.nsu.spendsphere.models.messaging.OcrResultMessage;
-import ru.nsu.spendsphere.repositories.CategoryRepository;
 import ru.nsu.spendsphere.repositories.OcrTaskRepository;
 
 @Service
@@ -27,11 +28,25 @@ public class ParsedTransactionsListener {
 
   private final TransactionService transactionService;
   private final OcrTaskRepository ocrTaskRepository;
-  private final CategoryRepository categoryRepository;
+  private final CategoryDictionaryCache categoryDictionaryCache;
+  private final MeterRegistry meterRegistry;
 
   @Value("${app.rabbit.queues.parsed}")
   private String parsedResultsQueueName;
 
+  @Value("${app.ocr.category-match-threshold}")
+  private double categoryMatchThreshold;
+
+  private Timer categoryMatchTimer;
+
+  @PostConstruct
+  void init() {
+    categoryMatchTimer =
+        Timer.builder("ocr.category.match")
+            .description("Time to match an OCR item category against the user's categories")
+            .register(meterRegistry);
+  }
+
   @RabbitListener(queues = "${app.rabbit.queues.parsed}")
   public void handleParsedTransactions(OcrResultMessage message) {
     log.info(
@@ -99,13 +114,14 @@ public class ParsedTransactionsListener {
         accountId,
         message.data().items().size());
 
-    var userCategories = loadUserCategories(userId);
+    CategoryDictionary userCategories = categoryDictionaryCache.get(userId);
 
     int processed = 0;
     int skipped = 0;
 
     for (OcrResultItem item : message.data().items()) {
-      if (createTransactionFromItem(item, userId, accountId, userCategories)) {
+      Long categoryId = categoryMatchTimer.record(() -> resolveCategoryId(item, userCategories));
+      if (createTransactionFromItem(item, userId, accountId, categoryId)) {
         processed++;
       } else {
         skipped++;
@@ -121,24 +137,18 @@ public class ParsedTransactionsListener {
         skipped);
   }
 
-  private java.util.Map<String, Long> loadUserCategories(Long userId) {
-    return categoryRepository.findAllByUserIdOrDefault(userId).stream()
-        .collect(
-            java.util.stream.Collectors.toMap(
-                c -> c.getName().toLowerCase(),
-                Category::getId,
-                (existing, replacement) -> existing));
+  private Long resolveCategoryId(OcrResultItem item, CategoryDictionary userCategories) {
+    if (item.category() == null || item.category().isEmpty()) {
+      return null;
+    }
+    return userCategories.matchIdByName(item.category(), categoryMatchThreshold);
   }
 
   private boolean createTransactionFromItem(
-      OcrResultItem item, Long userId, Long accountId, java.util.Map<String, Long> userCategories) {
+      OcrResultItem item, Long userId, Long accountId, Long categoryId) {
     if (item.price().equals(BigDecimal.ZERO)) {
       return false;
     }
-    Long categoryId = null;
-    if (item.category() != null && !item.category().isEmpty()) {
-      categoryId = userCategories.get(item.category().toLowerCase());
-    }
 
     TransactionType type = parseTransactionType(item);
 
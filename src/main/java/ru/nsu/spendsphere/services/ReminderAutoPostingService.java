@@ -0,0 +1,167 @@
+package ru.nsu.spendsphere.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.Reminder;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.repositories.ReminderRepository;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter.NewTransaction;
+
+/**
+ * Автопроведение напоминаний. Раз в сутки создает расходные транзакции по наступившим датам
+ * срабатывания напоминаний с включенным автопроведением.
+ *
+ * <p>Напоминания читаются пачками, а каждое проводится в собственной транзакции БД: ошибка одного
+ * напоминания не откатывает остальные. Внутри транзакции строки вставляются пакетно, а баланс
+ * обновляется одним запросом на счет. Повторный запуск не создает дубликатов: отметка проведённых
+ * дат переносится условным обновлением до вставки, а пара (reminder_id, reminder_occurrence_date)
+ * уникальна в таблице транзакций.
+ *
+ * <p>Проводятся только срабатывания за последние {@code max-catch-up-days} дней; более ранние
+ * пропускаются с предупреждением в журнале.
+ */
+@Service
+@ConditionalOnProperty(value = "app.reminders.auto-post.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReminderAutoPostingService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReminderAutoPostingService.class);
+
+  private static final String CLAIM_SQL =
+      "UPDATE reminders SET auto_posted_through = ? WHERE id = ? AND auto_posted_through = ?";
+
+  private final ReminderRepository reminderRepository;
+  private final ReminderOccurrenceCalculator occurrenceCalculator;
+  private final TransactionBatchWriter batchWriter;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AccountBalanceCache accountBalanceCache;
+  private final EntityCacheInvalidator entityCacheInvalidator;
+
+  @Value("${app.reminders.auto-post.batch-size}")
+  private int batchSize;
+
+  @Value("${app.reminders.auto-post.max-catch-up-days}")
+  private int maxCatchUpDays;
+
+  /** Ночной запуск автопроведения. */
+  @Scheduled(cron = "${app.reminders.auto-post.cron}")
+  public void postDueRemindersNightly() {
+    postDueReminders(LocalDate.now());
+  }
+
+  /**
+   * Проводит все непроведённые срабатывания напоминаний по указанную дату включительно.
+   *
+   * @param today дата, по которую проводятся срабатывания
+   * @return количество созданных транзакций
+   */
+  public int postDueReminders(LocalDate today) {
+    long afterId = 0;
+    int reminders = 0;
+    int posted = 0;
+    int failed = 0;
+
+    while (true) {
+      List<Reminder> page =
+          reminderRepository.findAutoPostDue(today, afterId, PageRequest.of(0, batchSize));
+      for (Reminder reminder : page) {
+        try {
+          Integer count = transactionTemplate.execute(status -> postReminder(reminder, today));
+          posted += count != null ? count : 0;
+          reminders++;
+        } catch (DuplicateKeyException e) {
+          failed++;
+          log.warn(
+              "Reminder {} auto-posting skipped: occurrence already posted ({})",
+              reminder.getId(),
+              e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+          failed++;
+          log.error("Reminder {} auto-posting failed: {}", reminder.getId(), e.toString());
+        }
+      }
+      if (page.size() < batchSize) {
+        break;
+      }
+      afterId = page.get(page.size() - 1).getId();
+    }
+
+    log.info(
+        "Reminder auto-posting finished: date={}, reminders={}, transactions={}, failed={}",
+        today,
+        reminders,
+        posted,
+        failed);
+    return posted;
+  }
+
+  /**
+   * Проводит срабатывания одного напоминания. Напоминание, отметку которого за это время изменил
+   * другой узел или пользователь, пропускается.
+   */
+  private int postReminder(Reminder reminder, LocalDate today) {
+    LocalDate postedThrough = reminder.getAutoPostedThrough();
+    if (jdbcTemplate.update(CLAIM_SQL, today, reminder.getId(), postedThrough) == 0) {
+      return 0;
+    }
+
+    LocalDate from = postedThrough.plusDays(1);
+    LocalDate earliest = today.minusDays(maxCatchUpDays - 1L);
+    if (from.isBefore(earliest)) {
+      log.warn(
+          "Reminder {} auto-posting skips occurrences {}..{}: older than {} days",
+          reminder.getId(),
+          from,
+          earliest.minusDays(1),
+          maxCatchUpDays);
+      from = earliest;
+    }
+
+    List<NewTransaction> rows = new ArrayList<>();
+    Map<Long, BigDecimal> deltas = new HashMap<>();
+    for (LocalDate date : occurrenceCalculator.occurrencesBetween(reminder, from, today)) {
+      NewTransaction row =
+          new NewTransaction(
+              reminder.getUser().getId(),
+              TransactionType.EXPENSE,
+              null,
+              reminder.getAccount().getId(),
+              null,
+              reminder.getAmount(),
+              reminder.getTitle(),
+              date,
+              reminder.getId(),
+              date);
+      rows.add(row);
+      TransactionBatchWriter.accumulateDelta(deltas, row);
+    }
+    if (rows.isEmpty()) {
+      return 0;
+    }
+
+    batchWriter.insertAll(rows);
+    batchWriter.applyBalanceDeltas(deltas);
+    entityCacheInvalidator.evictAfterCommit(Account.class, deltas.keySet());
+    accountBalanceCache.bumpAfterBalanceUpdate(
+        reminder.getUser().getId(), deltas.keySet(), VersionedResource.TRANSACTIONS);
+    return rows.size();
+  }
+}
@@ -0,0 +1,214 @@
+package ru.nsu.spendsphere.services;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.nsu.spendsphere.models.entities.Reminder;
+import ru.nsu.spendsphere.models.messaging.ReminderNotificationMessage;
+import ru.nsu.spendsphere.repositories.ReminderRepository;
+
+/**
+ * Диспетчер напоминаний. Периодически подгружает из БД наступившие напоминания своего шарда
+ * (user_id % nodeCount == nodeIndex) постранично по индексу next_occurrence, планирует их в очереди
+ * с приоритетом по времени срабатывания и публикует уведомления в RabbitMQ.
+ *
+ * <p>В очереди хранятся только идентификаторы. При срабатывании строка перечитывается под
+ * блокировкой, и решение принимается по текущему правилу напоминания; параллельная обработка или
+ * редактирование не приводят к дублирующим уведомлениям. Отправка отмечается в last_notified_on, а
+ * next_occurrence остается датой срабатывания до конца дня и переносится на следующую дату уже
+ * после ее наступления. Пропущенные за время простоя срабатывания объединяются в одно уведомление.
+ */
+@Service
+@ConditionalOnProperty(
+    value = {"app.rabbit.enabled", "app.reminders.dispatch.enabled"},
+    havingValue = "true")
+@RequiredArgsConstructor
+public class ReminderDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+  private final ReminderRepository reminderRepository;
+  private final ReminderOccurrenceCalculator occurrenceCalculator;
+  private final RabbitTemplate rabbitTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  private final PriorityBlockingQueue<ScheduledReminder> schedule =
+      new PriorityBlockingQueue<>(
+          64,
+          Comparator.comparing(ScheduledReminder::fireAt)
+              .thenComparingLong(ScheduledReminder::reminderId));
+  private final Set<Long> scheduledIds = ConcurrentHashMap.newKeySet();
+
+  @Value("${app.rabbit.queues.reminder-notifications}")
+  private String notificationsQueueName;
+
+  @Value("${app.reminders.dispatch.node-count}")
+  private int nodeCount;
+
+  @Value("${app.reminders.dispatch.node-index}")
+  private int nodeIndex;
+
+  @Value("${app.reminders.dispatch.batch-size}")
+  private int batchSize;
+
+  @Value("${app.reminders.dispatch.max-queued}")
+  private int maxQueued;
+
+  @Value("${app.reminders.dispatch.fire-time}")
+  private String fireTimeProperty;
+
+  private LocalTime fireTime;
+
+  @PostConstruct
+  void init() {
+    fireTime = LocalTime.parse(fireTimeProperty);
+    if (nodeCount < 1 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+      throw new IllegalStateException(
+          "Invalid reminder dispatch shard: node-index=" + nodeIndex + ", node-count=" + nodeCount);
+    }
+    log.info("Reminder dispatcher started: shard {}/{}", nodeIndex, nodeCount);
+  }
+
+  /** Подгружает наступившие напоминания шарда в очередь планировщика. */
+  @Scheduled(
+      fixedDelayString = "${app.reminders.dispatch.load-interval-ms}",
+      initialDelayString = "${app.reminders.dispatch.tick-interval-ms}")
+  public void loadDueReminders() {
+    LocalDate upTo = LocalDate.now();
+    LocalDate afterDate = LocalDate.EPOCH;
+    long afterId = 0;
+    int loaded = 0;
+
+    while (schedule.size() < maxQueued) {
+      List<Reminder> page =
+          reminderRepository.findDueForShard(
+              upTo, afterDate, afterId, nodeCount, nodeIndex, PageRequest.of(0, batchSize));
+      for (Reminder reminder : page) {
+        if (enqueue(reminder.getId(), reminder.getNextOccurrence())) {
+          loaded++;
+        }
+      }
+      if (page.size() < batchSize) {
+        break;
+      }
+      Reminder last = page.get(page.size() - 1);
+      afterDate = last.getNextOccurrence();
+      afterId = last.getId();
+    }
+
+    if (loaded > 0) {
+      log.info(
+          "Reminders scheduled: shard={}/{}, loaded={}, queued={}",
+          nodeIndex,
+          nodeCount,
+          loaded,
+          schedule.size());
+    }
+  }
+
+  /** Публикует уведомления для напоминаний, время срабатывания которых наступило. */
+  @Scheduled(fixedDelayString = "${app.reminders.dispatch.tick-interval-ms}")
+  public void dispatchDueReminders() {
+    LocalDateTime now = LocalDateTime.now();
+    ScheduledReminder head;
+    while ((head = schedule.peek()) != null && !head.fireAt().isAfter(now)) {
+      ScheduledReminder polled = schedule.poll();
+      if (polled == null) {
+        break;
+      }
+      scheduledIds.remove(polled.reminderId());
+      try {
+        dispatch(polled.reminderId(), now);
+      } catch (Exception e) {
+        log.error("Failed to dispatch reminder {}: {}", polled.reminderId(), e.toString());
+      }
+    }
+  }
+
+  private boolean enqueue(long reminderId, LocalDate date) {
+    if (!scheduledIds.add(reminderId)) {
+      return false;
+    }
+    schedule.add(new ScheduledReminder(date.atTime(fireTime), reminderId));
+    return true;
+  }
+
+  /**
+   * Обрабатывает наступившее напоминание в транзакции. Уведомление публикуется до коммита: если
+   * публикация не удалась, отметка откатывается и напоминание будет подгружено снова.
+   */
+  private void dispatch(long reminderId, LocalDateTime now) {
+    LocalDate today = now.toLocalDate();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          Reminder reminder = reminderRepository.findByIdForUpdate(reminderId).orElse(null);
+          if (reminder == null
+              || !Boolean.TRUE.equals(reminder.getIsActive())
+              || reminder.getNextOccurrence() == null) {
+            return;
+          }
+          LocalDate due = reminder.getNextOccurrence();
+          LocalDate notifiedOn = reminder.getLastNotifiedOn();
+          if (due.isAfter(today) || (notifiedOn != null && !notifiedOn.isBefore(today))) {
+            log.debug("Reminder {} changed since it was scheduled, skipping", reminderId);
+            return;
+          }
+
+          if (due.isBefore(today)) {
+            LocalDate next = occurrenceCalculator.nextOccurrence(reminder, today).orElse(null);
+            reminder.setNextOccurrence(next);
+            if (notifiedOn == null || notifiedOn.isBefore(due)) {
+              publish(reminder, due);
+              reminder.setLastNotifiedOn(today.minusDays(1));
+            }
+            if (today.equals(next)) {
+              enqueue(reminderId, today);
+            }
+            return;
+          }
+
+          if (now.isBefore(today.atTime(fireTime))) {
+            return;
+          }
+          publish(reminder, today);
+          reminder.setLastNotifiedOn(today);
+        });
+  }
+
+  private void publish(Reminder reminder, LocalDate dueDate) {
+    ReminderNotificationMessage message =
+        new ReminderNotificationMessage(
+            reminder.getId(),
+            reminder.getUser().getId(),
+            reminder.getAccount() != null ? reminder.getAccount().getId() : null,
+            reminder.getTitle(),
+            reminder.getDescription(),
+            reminder.getAmount(),
+            dueDate);
+    rabbitTemplate.convertAndSend(notificationsQueueName, message);
+    log.info(
+        "Reminder notification sent: queue={}, reminderId={}, userId={}, dueDate={}",
+        notificationsQueueName,
+        reminder.getId(),
+        message.userId(),
+        dueDate);
+  }
+
+  private record ScheduledReminder(LocalDateTime fireAt, long reminderId) {}
+}
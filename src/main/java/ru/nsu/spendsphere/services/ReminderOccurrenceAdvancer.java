@@ -0,0 +1,78 @@
+package ru.nsu.spendsphere.services;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.nsu.spendsphere.models.entities.Reminder;
+import ru.nsu.spendsphere.repositories.ReminderRepository;
+
+/**
+ * Переносит прошедшие даты срабатывания напоминаний на ближайшую будущую. Работает всегда, вне
+ * зависимости от рассылки уведомлений, поэтому next_occurrence остается актуальным и выборка
+ * ближайших напоминаний идет по индексу, а не по всем активным напоминаниям пользователя.
+ *
+ * <p>Если хотя бы один узел рассылает уведомления (app.reminders.advance.wait-for-notification),
+ * переносятся только даты, уведомление о которых уже отправлено: пропущенные за время простоя
+ * срабатывания диспетчер объединяет в одно уведомление сам. Дата переносится условным обновлением,
+ * поэтому параллельное редактирование напоминания или запуск на другом узле не затираются.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReminderOccurrenceAdvancer {
+
+  private static final Logger log = LoggerFactory.getLogger(ReminderOccurrenceAdvancer.class);
+
+  private final ReminderRepository reminderRepository;
+  private final ReminderOccurrenceCalculator occurrenceCalculator;
+
+  @Value("${app.reminders.advance.batch-size}")
+  private int batchSize;
+
+  @Value("${app.reminders.advance.wait-for-notification}")
+  private boolean waitForNotification;
+
+  /** Ночной перенос прошедших дат. */
+  @Scheduled(cron = "${app.reminders.advance.cron}")
+  public void advancePassedNightly() {
+    advancePassed(LocalDate.now());
+  }
+
+  /**
+   * Переносит даты срабатывания, оставшиеся в прошлом относительно указанной даты.
+   *
+   * @param today текущая дата
+   * @return количество перенесенных дат
+   */
+  public int advancePassed(LocalDate today) {
+    LocalDate afterDate = LocalDate.EPOCH;
+    long afterId = 0;
+    int moved = 0;
+
+    while (true) {
+      List<Reminder> page =
+          reminderRepository.findPassed(
+              today, waitForNotification, afterDate, afterId, PageRequest.of(0, batchSize));
+      for (Reminder reminder : page) {
+        LocalDate next = occurrenceCalculator.nextOccurrence(reminder, today).orElse(null);
+        moved +=
+            reminderRepository.moveNextOccurrence(
+                reminder.getId(), reminder.getNextOccurrence(), next);
+      }
+      if (page.size() < batchSize) {
+        break;
+      }
+      Reminder last = page.get(page.size() - 1);
+      afterDate = last.getNextOccurrence();
+      afterId = last.getId();
+    }
+
+    log.info("Reminder occurrences advanced: date={}, moved={}", today, moved);
+    return moved;
+  }
+}
@@ -0,0 +1,91 @@
+package ru.nsu.spendsphere.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.entities.Reminder;
+
+/**
+ * Вычисляет даты срабатывания напоминаний по их правилу периодичности. Каждая следующая дата
+ * находится арифметически за O(1), без перебора дней.
+ */
+@Component
+public class ReminderOccurrenceCalculator {
+
+  /**
+   * Находит ближайшую дату срабатывания напоминания, не раньше указанной.
+   *
+   * @param reminder напоминание
+   * @param from дата, начиная с которой ищется срабатывание (включительно)
+   * @return ближайшая дата срабатывания или пустой Optional, если правило неполное
+   */
+  public Optional<LocalDate> nextOccurrence(Reminder reminder, LocalDate from) {
+    if (reminder.getRecurrenceType() == null) {
+      return Optional.empty();
+    }
+    switch (reminder.getRecurrenceType()) {
+      case DAILY:
+        return Optional.of(from);
+      case WEEKLY:
+        DayOfWeek dayOfWeek = reminder.getWeeklyDayOfWeek();
+        if (dayOfWeek == null) {
+          return Optional.empty();
+        }
+        return Optional.of(from.with(TemporalAdjusters.nextOrSame(dayOfWeek)));
+      case MONTHLY:
+        boolean useLastDay = Boolean.TRUE.equals(reminder.getMonthlyUseLastDay());
+        Integer dayOfMonth = reminder.getMonthlyDayOfMonth();
+        if (!useLastDay && dayOfMonth == null) {
+          return Optional.empty();
+        }
+        YearMonth month = YearMonth.from(from);
+        LocalDate candidate = monthlyOccurrence(month, dayOfMonth, useLastDay);
+        if (candidate.isBefore(from)) {
+          candidate = monthlyOccurrence(month.plusMonths(1), dayOfMonth, useLastDay);
+        }
+        return Optional.of(candidate);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Возвращает все даты срабатывания напоминания в заданном периоде.
+   *
+   * @param reminder напоминание
+   * @param from начало периода (включительно)
+   * @param to конец периода (включительно)
+   * @return даты срабатывания в порядке возрастания
+   */
+  public List<LocalDate> occurrencesBetween(Reminder reminder, LocalDate from, LocalDate to) {
+    List<LocalDate> result = new ArrayList<>();
+    Optional<LocalDate> next = nextOccurrence(reminder, from);
+    while (next.isPresent() && !next.get().isAfter(to)) {
+      result.add(next.get());
+      next = nextOccurrence(reminder, next.get().plusDays(1));
+    }
+    return result;
+  }
+
+  /**
+   * Проверяет, срабатывает ли напоминание хотя бы раз в заданном периоде.
+   *
+   * @param reminder напоминание
+   * @param from начало периода (включительно)
+   * @param to конец периода (включительно)
+   * @return true, если есть хотя бы одна дата срабатывания в периоде
+   */
+  public boolean occursBetween(Reminder reminder, LocalDate from, LocalDate to) {
+    return nextOccurrence(reminder, from).filter(date -> !date.isAfter(to)).isPresent();
+  }
+
+  private LocalDate monthlyOccurrence(YearMonth month, Integer dayOfMonth, boolean useLastDay) {
+    int lastDay = month.lengthOfMonth();
+    return month.atDay(useLastDay ? lastDay : Math.min(dayOfMonth, lastDay));
+  }
+}
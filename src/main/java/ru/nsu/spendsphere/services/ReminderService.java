@@ -1,14 +1,15 @@
 package ru.nsu.spendsphere.services;
 
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
 import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
 import ru.nsu.spendsphere.models.dto.ReminderCreateDTO;
 import ru.nsu.spendsphere.models.dto.ReminderDTO;
@@ -16,30 +17,35 @@ import ru.nsu.spendsphere.models.dto.ReminderUpdateDTO;
 import ru.nsu.spendsphere.models.entities.Account;
 import ru.nsu.spendsphere.models.entities.RecurrenceType;
 import ru.nsu.spendsphere.models.entities.Reminder;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.models.mappers.ReminderMapper;
 import ru.nsu.spendsphere.repositories.AccountRepository;
 import ru.nsu.spendsphere.repositories.ReminderRepository;
-import ru.nsu.spendsphere.repositories.UserRepository;
+import ru.nsu.spendsphere.repositories.SyncTombstoneRepository;
 
 @Service
 @RequiredArgsConstructor
 public class ReminderService {
 
   private final ReminderRepository reminderRepository;
-  private final UserRepository userRepository;
+  private final UserAccessService userAccessService;
   private final AccountRepository accountRepository;
   private final ReminderMapper reminderMapper;
+  private final ReminderOccurrenceCalculator occurrenceCalculator;
+  private final SyncTombstoneRepository syncTombstoneRepository;
 
+  @Transactional(readOnly = true)
   public List<ReminderDTO> getAll(Long userId) {
-    ensureUserExists(userId);
+    userAccessService.requireExists(userId);
     return reminderRepository.findByUserId(userId).stream()
         .map(reminderMapper::toReminderDTO)
         .collect(Collectors.toList());
   }
 
+  @Transactional(readOnly = true)
   public ReminderDTO getById(Long userId, Long reminderId) {
-    ensureUserExists(userId);
+    userAccessService.requireExists(userId);
     Reminder reminder =
         reminderRepository
             .findByIdWithRelations(reminderId)
@@ -53,11 +59,7 @@ public class ReminderService {
 
   @Transactional
   public ReminderDTO create(Long userId, @Valid ReminderCreateDTO dto) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("User with id " + userId + " not found"));
+    User user = userAccessService.getReference(userId);
     Account account = null;
     if (dto.accountId() != null) {
       account =
@@ -88,13 +90,15 @@ public class ReminderService {
             .monthlyUseLastDay(Boolean.TRUE.equals(dto.monthlyUseLastDay()))
             .isActive(dto.isActive() == null || dto.isActive())
             .build();
+    refreshNextOccurrence(reminder, LocalDate.now());
+    applyAutoPost(reminder, dto.autoPost());
 
     return reminderMapper.toReminderDTO(reminderRepository.save(reminder));
   }
 
   @Transactional
   public ReminderDTO update(Long userId, Long reminderId, @Valid ReminderUpdateDTO dto) {
-    ensureUserExists(userId);
+    userAccessService.requireExists(userId);
     Reminder reminder =
         reminderRepository
             .findByIdWithRelations(reminderId)
@@ -103,6 +107,7 @@ public class ReminderService {
                 () ->
                     new ResourceNotFoundException(
                         "Reminder with id " + reminderId + " not found for user " + userId));
+    PostingTerms termsBefore = PostingTerms.of(reminder);
 
     if (dto.title() != null) reminder.setTitle(dto.title());
     if (dto.description() != null) reminder.setDescription(dto.description());
@@ -130,13 +135,19 @@ public class ReminderService {
         reminder.getWeeklyDayOfWeek(),
         reminder.getMonthlyDayOfMonth(),
         reminder.getMonthlyUseLastDay());
+    refreshNextOccurrence(reminder, LocalDate.now());
+    applyAutoPost(reminder, dto.autoPost());
+    if (Boolean.TRUE.equals(reminder.getAutoPost())
+        && !termsBefore.equals(PostingTerms.of(reminder))) {
+      skipPassedAutoPosts(reminder);
+    }
 
     return reminderMapper.toReminderDTO(reminderRepository.save(reminder));
   }
 
   @Transactional
   public void delete(Long userId, Long reminderId) {
-    ensureUserExists(userId);
+    userAccessService.requireExists(userId);
     Reminder reminder =
         reminderRepository
             .findByIdWithRelations(reminderId)
@@ -146,62 +157,85 @@ public class ReminderService {
                     new ResourceNotFoundException(
                         "Reminder with id " + reminderId + " not found for user " + userId));
     reminderRepository.delete(reminder);
+    syncTombstoneRepository.recordDeletion(userId, SyncEntityType.REMINDER, reminderId);
   }
 
+  @Transactional(readOnly = true)
   public List<ReminderDTO> getUpcoming(Long userId, int days) {
-    ensureUserExists(userId);
+    userAccessService.requireExists(userId);
     LocalDate today = LocalDate.now();
     LocalDate end = today.plusDays(days);
-    List<Reminder> reminders = reminderRepository.findActiveByUserId(userId);
-    List<Reminder> upcoming = new ArrayList<>();
-    for (Reminder r : reminders) {
-      if (occursBetween(r, today, end)) {
-        upcoming.add(r);
-      }
+    // До ночного переноса сохраненная дата может быть в прошлом: ближайшая считается без записи
+    return reminderRepository.findActiveDueByUserId(userId, end).stream()
+        .filter(
+            r ->
+                !r.getNextOccurrence().isBefore(today)
+                    || occurrenceCalculator.occursBetween(r, today, end))
+        .map(reminderMapper::toReminderDTO)
+        .collect(Collectors.toList());
+  }
+
+  private void refreshNextOccurrence(Reminder reminder, LocalDate from) {
+    reminder.setNextOccurrence(occurrenceCalculator.nextOccurrence(reminder, from).orElse(null));
+  }
+
+  /**
+   * Включает или выключает автопроведение. При включении отметка проведённых дат ставится на вчера,
+   * чтобы прошедшие срабатывания не проводились задним числом.
+   */
+  private void applyAutoPost(Reminder reminder, Boolean autoPost) {
+    if (autoPost == null) {
+      return;
+    }
+    if (autoPost && reminder.getAccount() == null) {
+      throw new BadRequestException("accountId is required for auto-posted reminders");
+    }
+    if (autoPost && !Boolean.TRUE.equals(reminder.getAutoPost())) {
+      skipPassedAutoPosts(reminder);
+    }
+    reminder.setAutoPost(autoPost);
+  }
+
+  /**
+   * Передвигает отметку проведённых дат на вчера, если она раньше. Срабатывания, пропущенные пока
+   * напоминание было выключено или действовало по старым условиям, не проводятся, а уже
+   * проведённое сегодня не проводится повторно.
+   */
+  private void skipPassedAutoPosts(Reminder reminder) {
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    LocalDate postedThrough = reminder.getAutoPostedThrough();
+    if (postedThrough == null || postedThrough.isBefore(yesterday)) {
+      reminder.setAutoPostedThrough(yesterday);
     }
-    return upcoming.stream().map(reminderMapper::toReminderDTO).collect(Collectors.toList());
   }
 
-  private boolean occursBetween(Reminder r, LocalDate from, LocalDate to) {
-    switch (r.getRecurrenceType()) {
-      case DAILY:
-        return true;
-      case WEEKLY:
-        if (r.getWeeklyDayOfWeek() == null) {
-          return false;
-        }
-        LocalDate cursor = from;
-        while (!cursor.isAfter(to)) {
-          if (cursor.getDayOfWeek() == r.getWeeklyDayOfWeek()) {
-            return true;
-          }
-          cursor = cursor.plusDays(1);
-        }
-        return false;
-      case MONTHLY:
-        Integer dom = r.getMonthlyDayOfMonth();
-        boolean useLast = Boolean.TRUE.equals(r.getMonthlyUseLastDay());
-        LocalDate m = from;
-        while (!m.isAfter(to)) {
-          YearMonth ym = YearMonth.from(m);
-          int lastDay = ym.lengthOfMonth();
-          int targetDay = useLast ? lastDay : dom != null ? Math.min(dom, lastDay) : -1;
-          if (targetDay != -1) {
-            LocalDate candidate = ym.atDay(targetDay);
-            if (!candidate.isBefore(from) && !candidate.isAfter(to)) {
-              return true;
-            }
-          }
-          m = m.plusDays(1);
-        }
-        return false;
-      default:
-        return false;
+  /**
+   * Условия, по которым проводятся срабатывания напоминания: активность, расписание, сумма и счет.
+   * Их изменение начинает автопроведение заново с сегодняшнего дня.
+   */
+  private record PostingTerms(
+      Boolean active,
+      RecurrenceType recurrenceType,
+      DayOfWeek weeklyDayOfWeek,
+      Integer monthlyDayOfMonth,
+      Boolean monthlyUseLastDay,
+      BigDecimal amount,
+      Long accountId) {
+
+    private static PostingTerms of(Reminder reminder) {
+      return new PostingTerms(
+          reminder.getIsActive(),
+          reminder.getRecurrenceType(),
+          reminder.getWeeklyDayOfWeek(),
+          reminder.getMonthlyDayOfMonth(),
+          reminder.getMonthlyUseLastDay(),
+          reminder.getAmount() != null ? reminder.getAmount().stripTrailingZeros() : null,
+          reminder.getAccount() != null ? reminder.getAccount().getId() : null);
     }
   }
 
   private void validateRecurrence(
-      RecurrenceType type, java.time.DayOfWeek weekly, Integer monthlyDom, Boolean monthlyLast) {
+      RecurrenceType type, DayOfWeek weekly, Integer monthlyDom, Boolean monthlyLast) {
     if (type == RecurrenceType.WEEKLY) {
       if (weekly == null) {
         throw new IllegalArgumentException("weeklyDayOfWeek is required for WEEKLY reminders");
@@ -217,10 +251,4 @@ public class ReminderService {
       }
     }
   }
-
-  private void ensureUserExists(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
-  }
 }
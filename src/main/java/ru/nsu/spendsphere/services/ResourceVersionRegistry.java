@@ -0,0 +1,289 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.models.messaging.ResourceVersionMessage;
+
+/**
+ * Версии списков пользователя для условных GET-запросов. Сервисы повышают версию после коммита
+ * изменений, контроллеры сравнивают ETag из {@code If-None-Match} с текущей версией и отвечают 304,
+ * не обращаясь к БД.
+ *
+ * <p>Версии хранятся в памяти процесса в {@link ConcurrentHashMap}: запись пользователя неизменяема
+ * и при повышении версий заменяется целиком, поэтому чтение не берет общих блокировок. Число
+ * пользователей ограничено настройкой app.http.etag.max-users, давно не запрашиваемые записи
+ * вытесняются (см. {@link LruEviction}). Версия новой или вытесненной записи берется из общего
+ * счетчика, поэтому никогда не совпадает с выданной ранее. Идентификатор запуска в ETag отсекает
+ * значения, выданные до перезапуска приложения.
+ *
+ * <p>Каждый узел ведет свои версии, а повышение версии рассылается остальным узлам через
+ * fanout-обмен сброса кэша: получив сообщение, узел повышает версии у себя, поэтому ETag, выданный
+ * им раньше, после изменения на другом узле перестает совпадать. Сообщения, потерянные за время
+ * разрыва соединения с RabbitMQ, восполняются сбросом всех версий при переподключении ({@link
+ * #invalidateAll()}). Без RabbitMQ версии согласованы только в пределах одного узла.
+ *
+ * <p>ETag вычисляется до чтения данных: если изменение закоммитится между вычислением ETag и
+ * чтением, клиент получит новые данные со старым ETag и просто перечитает их при следующем запросе.
+ *
+ * <p>Реестр также помнит время последнего изменения данных пользователя, в том числе на другом
+ * узле: пока оно недавнее, чтения пользователя идут на основную БД, а не на реплику, чтобы под
+ * новой версией не оказались отстающие данные.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(ResourceVersionRegistry.class);
+
+  private static final int RESOURCE_COUNT = VersionedResource.values().length;
+  private static final long NEVER = Long.MIN_VALUE;
+
+  private final String bootId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+  private final AtomicLong clock = new AtomicLong();
+  private final String origin = UUID.randomUUID().toString();
+  private final RabbitTemplate rabbitTemplate;
+
+  @Value("${app.http.etag.max-users}")
+  private int maxUsers;
+
+  @Value("${app.rabbit.enabled}")
+  private boolean rabbitEnabled;
+
+  @Value("${app.rabbit.exchanges.cache-invalidation}")
+  private String exchangeName;
+
+  private final Map<Long, Versions> versions = new ConcurrentHashMap<>();
+  private final LruEviction eviction = new LruEviction();
+
+  /**
+   * Возвращает ETag списка пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @param resource список
+   * @return строгий ETag в кавычках
+   */
+  public String etag(long userId, VersionedResource resource) {
+    return "\"" + bootId + "." + version(userId, resource) + "\"";
+  }
+
+  /**
+   * Возвращает ETag списка пользователя, который зависит также от внешней версии, например от
+   * версии снимка дефолтных категорий.
+   *
+   * @param userId идентификатор пользователя
+   * @param resource список
+   * @param externalVersion внешняя версия
+   * @return строгий ETag в кавычках
+   */
+  public String etag(long userId, VersionedResource resource, long externalVersion) {
+    return "\"" + bootId + "." + version(userId, resource) + "." + externalVersion + "\"";
+  }
+
+  /**
+   * Возвращает ETag варианта списка пользователя, который зависит от внешней версии и от параметра
+   * запроса, например от базовой валюты сводки балансов.
+   *
+   * @param userId идентификатор пользователя
+   * @param resource список
+   * @param externalVersion внешняя версия
+   * @param variant вариант представления
+   * @return строгий ETag в кавычках
+   */
+  public String etag(
+      long userId, VersionedResource resource, long externalVersion, String variant) {
+    return "\""
+        + bootId
+        + "."
+        + version(userId, resource)
+        + "."
+        + externalVersion
+        + "."
+        + variant
+        + "\"";
+  }
+
+  /**
+   * Возвращает ETag общих для всех пользователей данных с указанной версией.
+   *
+   * @param version версия данных
+   * @return строгий ETag в кавычках
+   */
+  public String etag(long version) {
+    return "\"" + bootId + ".g" + version + "\"";
+  }
+
+  /**
+   * Повышает версии списков пользователя после коммита текущей транзакции или сразу, если
+   * транзакции нет.
+   *
+   * @param userId идентификатор пользователя
+   * @param resources измененные списки
+   */
+  public void bumpAfterCommit(long userId, VersionedResource... resources) {
+    AfterCommit.run(() -> bump(userId, resources));
+  }
+
+  /**
+   * Повышает версии списков пользователя на этом и остальных узлах и запоминает время изменения.
+   * Пользователь, которого не было в реестре, получает новые версии всех списков.
+   *
+   * @param userId идентификатор пользователя
+   * @param resources измененные списки
+   */
+  public void bump(long userId, VersionedResource... resources) {
+    advance(userId, null, resources);
+    publish(userId, resources);
+  }
+
+  /**
+   * Повышает версии списков пользователя так же, как {@link #bump}, и возвращает версию списка
+   * {@code tracked} до и после повышения. Обе версии берутся атомарно, поэтому кэш, помеченный
+   * прежней версией, может перейти на новую, применив только это изменение.
+   *
+   * @param userId идентификатор пользователя
+   * @param tracked список, изменение версии которого возвращается
+   * @param others остальные измененные списки
+   * @return прежняя и новая версии списка {@code tracked}; прежняя версия равна 0, если
+   *     пользователя не было в реестре
+   */
+  public VersionChange bumpTracking(
+      long userId, VersionedResource tracked, VersionedResource... others) {
+    VersionedResource[] resources = Arrays.copyOf(others, others.length + 1);
+    resources[others.length] = tracked;
+    Versions[] previous = new Versions[1];
+    Versions current = advance(userId, previous, resources);
+    publish(userId, resources);
+    long before = previous[0] != null ? previous[0].values[tracked.ordinal()] : 0L;
+    return new VersionChange(before, current.values[tracked.ordinal()]);
+  }
+
+  /**
+   * Применяет повышение версий, полученное от другого узла.
+   *
+   * @param message сообщение о повышении версий
+   */
+  public void onRemoteBump(ResourceVersionMessage message) {
+    if (origin.equals(message.origin())) {
+      return;
+    }
+    advance(
+        message.userId(),
+        null,
+        message.resources().stream()
+            .map(VersionedResource::valueOf)
+            .toArray(VersionedResource[]::new));
+  }
+
+  /**
+   * Выдает новые версии всех списков всех пользователей и считает их данные только что измененными.
+   * Вызывается, когда сообщения других узлов могли быть потеряны.
+   */
+  public void invalidateAll() {
+    long now = System.nanoTime();
+    versions.replaceAll((id, current) -> new Versions(newValues(), now));
+  }
+
+  private Versions advance(long userId, Versions[] previous, VersionedResource... resources) {
+    Versions updated =
+        versions.compute(
+            userId,
+            (id, current) -> {
+              if (previous != null) {
+                previous[0] = current;
+              }
+              long[] values = current != null ? current.values.clone() : newValues();
+              for (VersionedResource resource : resources) {
+                values[resource.ordinal()] = clock.incrementAndGet();
+              }
+              return new Versions(values, System.nanoTime());
+            });
+    eviction.evictIfFull(versions, maxUsers, entry -> entry.lastUsedNanos);
+    return updated;
+  }
+
+  /**
+   * Проверяет, менял ли пользователь свои данные за последние {@code millis} миллисекунд. Для
+   * вытесненных из реестра пользователей возвращает false.
+   *
+   * @param userId идентификатор пользователя
+   * @param millis длительность окна
+   * @return true, если последнее изменение попадает в окно
+   */
+  public boolean changedWithin(long userId, long millis) {
+    Versions current = versions.get(userId);
+    return current != null
+        && current.changedAtNanos != NEVER
+        && System.nanoTime() - current.changedAtNanos < millis * 1_000_000L;
+  }
+
+  /**
+   * Возвращает текущую версию списка пользователя. Версия также служит ключом актуальности кэшей,
+   * построенных по этому списку.
+   *
+   * @param userId идентификатор пользователя
+   * @param resource список
+   * @return версия
+   */
+  public long version(long userId, VersionedResource resource) {
+    Versions current = versions.get(userId);
+    if (current == null) {
+      current = versions.computeIfAbsent(userId, id -> new Versions(newValues(), NEVER));
+      eviction.evictIfFull(versions, maxUsers, entry -> entry.lastUsedNanos);
+    }
+    current.lastUsedNanos = System.nanoTime();
+    return current.values[resource.ordinal()];
+  }
+
+  private void publish(long userId, VersionedResource... resources) {
+    if (!rabbitEnabled) {
+      return;
+    }
+    List<String> names = Arrays.stream(resources).map(VersionedResource::name).toList();
+    try {
+      rabbitTemplate.convertAndSend(
+          exchangeName, "", new ResourceVersionMessage(origin, userId, names));
+    } catch (AmqpException e) {
+      log.warn("Failed to publish version bump for user {} {}: {}", userId, names, e.toString());
+    }
+  }
+
+  private long[] newValues() {
+    long[] values = new long[RESOURCE_COUNT];
+    for (int i = 0; i < RESOURCE_COUNT; i++) {
+      values[i] = clock.incrementAndGet();
+    }
+    return values;
+  }
+
+  /**
+   * Версия списка до и после повышения.
+   *
+   * @param previous прежняя версия
+   * @param current новая версия
+   */
+  public record VersionChange(long previous, long current) {}
+
+  /** Версии списков пользователя и время их последнего изменения; массив версий не меняется. */
+  private static final class Versions {
+    private final long[] values;
+    private final long changedAtNanos;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private Versions(long[] values, long changedAtNanos) {
+      this.values = values;
+      this.changedAtNanos = changedAtNanos;
+    }
+  }
+}
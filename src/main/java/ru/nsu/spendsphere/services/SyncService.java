@@ -0,0 +1,134 @@
+package ru.nsu.spendsphere.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
+import ru.nsu.spendsphere.models.dto.SyncDTO;
+import ru.nsu.spendsphere.models.dto.SyncTombstoneDTO;
+import ru.nsu.spendsphere.models.mappers.AccountMapper;
+import ru.nsu.spendsphere.models.mappers.CategoryMapper;
+import ru.nsu.spendsphere.models.mappers.ReminderMapper;
+import ru.nsu.spendsphere.models.mappers.TransactionMapper;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.CategoryRepository;
+import ru.nsu.spendsphere.repositories.ReminderRepository;
+import ru.nsu.spendsphere.repositories.SyncTombstoneRepository;
+import ru.nsu.spendsphere.repositories.TransactionRepository;
+
+/**
+ * Разностная синхронизация данных пользователя для офлайн-клиентов.
+ *
+ * <p>Клиент передает токен предыдущей синхронизации и получает только сущности, измененные после
+ * него, и отметки об удалениях. Токен — время сервера в миллисекундах, уменьшенное на допуск
+ * {@code app.sync.clock-skew-ms}: изменение, записанное незадолго до синхронизации, но
+ * закоммиченное позже нее, попадет в следующий ответ. Поэтому одна и та же сущность может прийти
+ * повторно, и клиент должен применять изменения идемпотентно. Если токена нет или он старше срока
+ * хранения отметок об удалении, возвращается полный снимок.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+  private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+  private final UserAccessService userAccessService;
+  private final TransactionRepository transactionRepository;
+  private final AccountRepository accountRepository;
+  private final CategoryRepository categoryRepository;
+  private final ReminderRepository reminderRepository;
+  private final SyncTombstoneRepository syncTombstoneRepository;
+  private final CategoryDictionaryCache categoryDictionaryCache;
+  private final TransactionMapper transactionMapper;
+  private final AccountMapper accountMapper;
+  private final ReminderMapper reminderMapper;
+
+  @Value("${app.sync.clock-skew-ms}")
+  private long clockSkewMs;
+
+  @Value("${app.sync.tombstone-retention-days}")
+  private int tombstoneRetentionDays;
+
+  /**
+   * Возвращает изменения данных пользователя после указанного токена.
+   *
+   * @param userId идентификатор пользователя
+   * @param since токен предыдущей синхронизации (может быть null)
+   * @return изменения и токен для следующей синхронизации
+   * @throws ResourceNotFoundException если пользователь не найден
+   */
+  @Transactional(readOnly = true)
+  public SyncDTO sync(Long userId, Long since) {
+    userAccessService.requireExists(userId);
+    LocalDateTime now = LocalDateTime.now();
+    long token = toToken(now.minusNanos(clockSkewMs * 1_000_000));
+
+    if (since == null || fromToken(since).isBefore(now.minusDays(tombstoneRetentionDays))) {
+      return new SyncDTO(
+          token,
+          true,
+          transactionRepository.findByUserIdOrderByDateDescCreatedAtDesc(userId).stream()
+              .map(transactionMapper::toTransactionDTO)
+              .toList(),
+          accountRepository.findByUserId(userId).stream().map(accountMapper::toAccountDTO).toList(),
+          categoryDictionaryCache.get(userId).categories(),
+          reminderRepository.findByUserId(userId).stream()
+              .map(reminderMapper::toReminderDTO)
+              .toList(),
+          List.of());
+    }
+
+    LocalDateTime from = fromToken(since);
+    List<CategoryDTO> categories = new ArrayList<>();
+    categoryRepository.findByIsDefaultTrueAndUpdatedAtAfter(from).stream()
+        .map(CategoryMapper::toDto)
+        .forEach(categories::add);
+    categoryRepository.findByUserIdAndIsDefaultFalseAndUpdatedAtAfter(userId, from).stream()
+        .map(CategoryMapper::toDto)
+        .forEach(categories::add);
+
+    return new SyncDTO(
+        Math.max(token, since),
+        false,
+        transactionRepository.findByUserIdUpdatedAfter(userId, from).stream()
+            .map(transactionMapper::toTransactionDTO)
+            .toList(),
+        accountRepository.findByUserIdUpdatedAfter(userId, from).stream()
+            .map(accountMapper::toAccountDTO)
+            .toList(),
+        categories,
+        reminderRepository.findByUserIdUpdatedAfter(userId, from).stream()
+            .map(reminderMapper::toReminderDTO)
+            .toList(),
+        syncTombstoneRepository.findByUserIdAndDeletedAtAfterOrderByDeletedAt(userId, from).stream()
+            .map(t -> new SyncTombstoneDTO(t.getEntityType(), t.getEntityId(), t.getDeletedAt()))
+            .toList());
+  }
+
+  /** Удаляет отметки об удалении старше срока хранения. */
+  @Scheduled(cron = "${app.sync.tombstone-purge-cron}")
+  public void purgeExpiredTombstones() {
+    int purged =
+        syncTombstoneRepository.deleteOlderThan(
+            LocalDateTime.now().minusDays(tombstoneRetentionDays));
+    log.info("Purged {} expired sync tombstones", purged);
+  }
+
+  private static long toToken(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private static LocalDateTime fromToken(long token) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(token), ZoneId.systemDefault());
+  }
+}
@@ -0,0 +1,340 @@
+package ru.nsu.spendsphere.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.TransactionBatchItemResultDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchItemStatus;
+import ru.nsu.spendsphere.models.dto.TransactionBatchOperationDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchResultDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter.NewTransaction;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter.StoredTransaction;
+
+/**
+ * Пакетное создание, изменение и удаление транзакций, например при синхронизации офлайн-правок.
+ *
+ * <p>Счета и изменяемые транзакции проверяются несколькими запросами с IN по всем операциям сразу,
+ * категории — по кешированному словарю. Операции выполняются по порядку в одной транзакции БД:
+ * некорректная операция отклоняется и не мешает остальным, изменения пишутся пакетами через JDBC, а
+ * балансы обновляются одним запросом на счет.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+
+  private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+  private final UserAccessService userAccessService;
+  private final AccountRepository accountRepository;
+  private final CategoryDictionaryCache categoryDictionaryCache;
+  private final TransactionCategoryClassifier categoryClassifier;
+  private final TransactionBatchWriter batchWriter;
+  private final AccountBalanceCache accountBalanceCache;
+  private final EntityCacheInvalidator entityCacheInvalidator;
+
+  /**
+   * Выполняет пакет операций над транзакциями пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @param operations операции в порядке выполнения
+   * @return результат каждой операции
+   * @throws ResourceNotFoundException если пользователь не найден
+   */
+  @Transactional
+  public TransactionBatchResultDTO applyBatch(
+      Long userId, List<TransactionBatchOperationDTO> operations) {
+    userAccessService.requireExists(userId);
+
+    Set<Long> accountIds = new HashSet<>();
+    Set<Long> transactionIds = new HashSet<>();
+    for (TransactionBatchOperationDTO op : operations) {
+      addIfPresent(accountIds, op.accountId());
+      addIfPresent(accountIds, op.transferAccountId());
+      addIfPresent(transactionIds, op.transactionId());
+    }
+    BatchContext context =
+        new BatchContext(
+            userId,
+            accountIds.isEmpty()
+                ? Set.of()
+                : accountRepository.findIdsByUserIdAndIdIn(userId, accountIds),
+            batchWriter.findForUpdate(userId, transactionIds),
+            categoryDictionaryCache.get(userId));
+
+    TransactionBatchItemResultDTO[] results = new TransactionBatchItemResultDTO[operations.size()];
+    for (int i = 0; i < operations.size(); i++) {
+      TransactionBatchOperationDTO op = operations.get(i);
+      try {
+        results[i] = apply(i, op, context);
+      } catch (ResourceNotFoundException e) {
+        results[i] =
+            new TransactionBatchItemResultDTO(
+                i, TransactionBatchItemStatus.NOT_FOUND, op.transactionId(), e.getMessage());
+      } catch (BadRequestException e) {
+        results[i] =
+            new TransactionBatchItemResultDTO(
+                i, TransactionBatchItemStatus.INVALID, op.transactionId(), e.getMessage());
+      }
+    }
+
+    List<Long> createdIds = batchWriter.insertAllReturningIds(context.created);
+    for (int k = 0; k < createdIds.size(); k++) {
+      int index = context.createdIndexes.get(k);
+      results[index] =
+          new TransactionBatchItemResultDTO(
+              index, TransactionBatchItemStatus.CREATED, createdIds.get(k), null);
+    }
+    batchWriter.updateAll(context.updated.values());
+    batchWriter.deleteAll(userId, context.deleted);
+    batchWriter.applyBalanceDeltas(context.balanceDeltas);
+    entityCacheInvalidator.evictAfterCommit(Account.class, context.balanceDeltas.keySet());
+    accountBalanceCache.bumpAfterBalanceUpdate(
+        userId, context.balanceDeltas.keySet(), VersionedResource.TRANSACTIONS);
+
+    List<Runnable> classifierUpdates = context.classifierUpdates;
+    if (!classifierUpdates.isEmpty()) {
+      AfterCommit.run(() -> classifierUpdates.forEach(Runnable::run));
+    }
+
+    int failed = 0;
+    for (TransactionBatchItemResultDTO result : results) {
+      if (result.status() == TransactionBatchItemStatus.NOT_FOUND
+          || result.status() == TransactionBatchItemStatus.INVALID) {
+        failed++;
+      }
+    }
+    return new TransactionBatchResultDTO(results.length - failed, failed, List.of(results));
+  }
+
+  private TransactionBatchItemResultDTO apply(
+      int index, TransactionBatchOperationDTO op, BatchContext context) {
+    switch (op.operation()) {
+      case CREATE:
+        create(index, op, context);
+        return null;
+      case UPDATE:
+        update(op, context);
+        return new TransactionBatchItemResultDTO(
+            index, TransactionBatchItemStatus.UPDATED, op.transactionId(), null);
+      case DELETE:
+        delete(op, context);
+        return new TransactionBatchItemResultDTO(
+            index, TransactionBatchItemStatus.DELETED, op.transactionId(), null);
+      default:
+        throw new BadRequestException("Unsupported operation " + op.operation());
+    }
+  }
+
+  private void create(int index, TransactionBatchOperationDTO op, BatchContext context) {
+    if (op.type() == null || op.accountId() == null || op.amount() == null || op.date() == null) {
+      throw new BadRequestException("type, accountId, amount and date are required for CREATE");
+    }
+    requirePositive(op.amount());
+    requireDescriptionLength(op.description());
+    context.requireAccount(op.accountId(), "Account");
+
+    Long transferAccountId = null;
+    if (op.type() == TransactionType.TRANSFER) {
+      transferAccountId = op.transferAccountId();
+      requireTransferAccount(op.accountId(), transferAccountId);
+      context.requireAccount(transferAccountId, "Transfer account");
+    }
+    if (op.categoryId() != null) {
+      context.requireCategory(op.categoryId());
+    }
+
+    NewTransaction row =
+        new NewTransaction(
+            context.userId,
+            op.type(),
+            op.categoryId(),
+            op.accountId(),
+            transferAccountId,
+            op.amount(),
+            op.description(),
+            op.date(),
+            null,
+            null);
+    context.created.add(row);
+    context.createdIndexes.add(index);
+    TransactionBatchWriter.accumulateDelta(context.balanceDeltas, row);
+
+    if (op.categoryId() != null && op.description() != null) {
+      long categoryId = op.categoryId();
+      context.classifierUpdates.add(
+          () -> categoryClassifier.learn(context.userId, op.description(), categoryId));
+    }
+  }
+
+  private void update(TransactionBatchOperationDTO op, BatchContext context) {
+    StoredTransaction old = context.requireTransaction(op.transactionId());
+
+    TransactionType type = op.type() != null ? op.type() : old.type();
+    if (op.accountId() != null) {
+      context.requireAccount(op.accountId(), "Account");
+    }
+    long accountId = op.accountId() != null ? op.accountId() : old.accountId();
+
+    Long transferAccountId = old.transferAccountId();
+    if (op.transferAccountId() != null) {
+      if (type != TransactionType.TRANSFER) {
+        throw new BadRequestException("Transfer account can only be set for TRANSFER transactions");
+      }
+      context.requireAccount(op.transferAccountId(), "Transfer account");
+      transferAccountId = op.transferAccountId();
+    }
+    if (type == TransactionType.TRANSFER) {
+      requireTransferAccount(accountId, transferAccountId);
+    }
+
+    if (op.categoryId() != null) {
+      context.requireCategory(op.categoryId());
+    }
+    if (op.amount() != null) {
+      requirePositive(op.amount());
+    }
+    requireDescriptionLength(op.description());
+
+    StoredTransaction updated =
+        new StoredTransaction(
+            old.id(),
+            type,
+            op.categoryId() != null ? op.categoryId() : old.categoryId(),
+            accountId,
+            transferAccountId,
+            op.amount() != null ? op.amount() : old.amount(),
+            op.description() != null ? op.description() : old.description(),
+            op.date() != null ? op.date() : old.date());
+
+    revert(context.balanceDeltas, old);
+    TransactionBatchWriter.accumulateDelta(
+        context.balanceDeltas,
+        updated.type(),
+        updated.accountId(),
+        updated.transferAccountId(),
+        updated.amount());
+    context.stored.put(updated.id(), updated);
+    context.updated.put(updated.id(), updated);
+
+    if (!Objects.equals(old.description(), updated.description())
+        || !Objects.equals(old.categoryId(), updated.categoryId())) {
+      context.classifierUpdates.add(
+          () -> {
+            if (old.categoryId() != null) {
+              categoryClassifier.unlearn(context.userId, old.description(), old.categoryId());
+            }
+            if (updated.categoryId() != null) {
+              categoryClassifier.learn(context.userId, updated.description(), updated.categoryId());
+            }
+          });
+    }
+  }
+
+  private void delete(TransactionBatchOperationDTO op, BatchContext context) {
+    StoredTransaction old = context.requireTransaction(op.transactionId());
+    revert(context.balanceDeltas, old);
+    context.stored.remove(old.id());
+    context.updated.remove(old.id());
+    context.deleted.add(old.id());
+  }
+
+  private static void revert(Map<Long, BigDecimal> deltas, StoredTransaction row) {
+    TransactionBatchWriter.accumulateDelta(
+        deltas, row.type(), row.accountId(), row.transferAccountId(), row.amount().negate());
+  }
+
+  private static void requireTransferAccount(long accountId, Long transferAccountId) {
+    if (transferAccountId == null) {
+      throw new BadRequestException("Transfer account is required for TRANSFER transaction");
+    }
+    if (transferAccountId == accountId) {
+      throw new BadRequestException("Transfer account must be different from source account");
+    }
+  }
+
+  private static void requirePositive(BigDecimal amount) {
+    if (amount.signum() <= 0) {
+      throw new BadRequestException("Amount must be positive");
+    }
+  }
+
+  private static void requireDescriptionLength(String description) {
+    if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+      throw new BadRequestException(
+          "Description must not exceed " + MAX_DESCRIPTION_LENGTH + " characters");
+    }
+  }
+
+  private static void addIfPresent(Set<Long> ids, Long id) {
+    if (id != null) {
+      ids.add(id);
+    }
+  }
+
+  /** Состояние выполнения пакета: справочники и накопленные изменения. */
+  private static final class BatchContext {
+
+    private final long userId;
+    private final Set<Long> accountIds;
+    private final Map<Long, StoredTransaction> stored;
+    private final CategoryDictionary categories;
+    private final List<NewTransaction> created = new ArrayList<>();
+    private final List<Integer> createdIndexes = new ArrayList<>();
+    private final Map<Long, StoredTransaction> updated = new LinkedHashMap<>();
+    private final Set<Long> deleted = new LinkedHashSet<>();
+    private final Map<Long, BigDecimal> balanceDeltas = new HashMap<>();
+    private final List<Runnable> classifierUpdates = new ArrayList<>();
+
+    private BatchContext(
+        long userId,
+        Set<Long> accountIds,
+        Map<Long, StoredTransaction> stored,
+        CategoryDictionary categories) {
+      this.userId = userId;
+      this.accountIds = accountIds;
+      this.stored = stored;
+      this.categories = categories;
+    }
+
+    private void requireAccount(long accountId, String label) {
+      if (!accountIds.contains(accountId)) {
+        throw new ResourceNotFoundException(
+            label + " with id " + accountId + " not found for user " + userId);
+      }
+    }
+
+    private void requireCategory(long categoryId) {
+      if (categories.findById(categoryId).isEmpty()) {
+        throw new ResourceNotFoundException("Category with id " + categoryId + " not found");
+      }
+    }
+
+    private StoredTransaction requireTransaction(Long transactionId) {
+      if (transactionId == null) {
+        throw new BadRequestException("transactionId is required");
+      }
+      StoredTransaction row = stored.get(transactionId);
+      if (row == null) {
+        throw new ResourceNotFoundException(
+            "Transaction with id " + transactionId + " not found for user " + userId);
+      }
+      return row;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package ru.nsu.spendsphere.services;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.nsu.spendsphere.repositories.CategoryTokenStatsStore;
+import ru.nsu.spendsphere.repositories.CategoryTokenStatsStore.LabeledDescription;
+import ru.nsu.spendsphere.repositories.CategoryTokenStatsStore.TokenStat;
+
+/**
+ * Классификатор категорий транзакций по описанию, обучаемый на истории пользователя.
+ *
+ * <p>Модели пользователей хранятся в памяти, число моделей ограничено настройкой
+ * app.classifier.max-users, давно не использованные вытесняются. Измененные модели периодически
+ * сохраняются в таблицу category_token_stats. Модель пользователя, которой нет в памяти,
+ * загружается из снимка, а при его отсутствии обучается на последних категоризированных
+ * транзакциях.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionCategoryClassifier {
+
+  private static final Logger log = LoggerFactory.getLogger(TransactionCategoryClassifier.class);
+
+  private static final int MAX_TOKENS = 32;
+  private static final int MAX_TOKEN_LENGTH = 64;
+
+  private final CategoryTokenStatsStore statsStore;
+
+  @Value("${app.classifier.max-users}")
+  private int maxUsers;
+
+  @Value("${app.classifier.bootstrap-limit}")
+  private int bootstrapLimit;
+
+  private final Map<Long, UserCategoryModel> evictedDirty = new ConcurrentHashMap<>();
+
+  private final Map<Long, UserCategoryModel> models =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserCategoryModel> eldest) {
+          if (size() <= maxUsers) {
+            return false;
+          }
+          if (eldest.getValue().isDirty()) {
+            evictedDirty.put(eldest.getKey(), eldest.getValue());
+          }
+          return true;
+        }
+      };
+
+  /**
+   * Предсказывает категорию по описанию транзакции.
+   *
+   * @param userId идентификатор пользователя
+   * @param description описание транзакции
+   * @return идентификатор категории или null, если предсказать нельзя
+   */
+  public Long predict(Long userId, String description) {
+    List<String> tokens = tokenize(description);
+    if (tokens.isEmpty()) {
+      return null;
+    }
+    return model(userId).predict(tokens);
+  }
+
+  /**
+   * Учитывает категоризированную транзакцию в модели пользователя.
+   *
+   * @param userId идентификатор пользователя
+   * @param description описание транзакции
+   * @param categoryId категория транзакции
+   */
+  public void learn(Long userId, String description, long categoryId) {
+    update(userId, description, categoryId, 1);
+  }
+
+  /**
+   * Отменяет учет транзакции в модели пользователя (например, при смене категории).
+   *
+   * @param userId идентификатор пользователя
+   * @param description прежнее описание транзакции
+   * @param categoryId прежняя категория транзакции
+   */
+  public void unlearn(Long userId, String description, long categoryId) {
+    update(userId, description, categoryId, -1);
+  }
+
+  /** Сохраняет снимки измененных моделей. */
+  @Scheduled(fixedDelayString = "${app.classifier.flush-interval-ms}")
+  @PreDestroy
+  public void flush() {
+    Map<Long, UserCategoryModel> toFlush = new LinkedHashMap<>();
+    for (Long userId : List.copyOf(evictedDirty.keySet())) {
+      UserCategoryModel model = evictedDirty.remove(userId);
+      if (model != null) {
+        toFlush.put(userId, model);
+      }
+    }
+    synchronized (models) {
+      models.forEach(
+          (userId, model) -> {
+            if (model.isDirty()) {
+              toFlush.put(userId, model);
+            }
+          });
+    }
+
+    toFlush.forEach(
+        (userId, model) -> {
+          List<TokenStat> snapshot = model.takeSnapshotIfDirty();
+          if (snapshot == null) {
+            return;
+          }
+          try {
+            statsStore.replaceUser(userId, snapshot);
+          } catch (RuntimeException e) {
+            model.markDirty();
+            log.warn("Failed to save classifier snapshot for user {}: {}", userId, e.toString());
+          }
+        });
+  }
+
+  private void update(Long userId, String description, long categoryId, int delta) {
+    List<String> tokens = tokenize(description);
+    if (!tokens.isEmpty()) {
+      model(userId).add(tokens, categoryId, delta);
+    }
+  }
+
+  private UserCategoryModel model(Long userId) {
+    synchronized (models) {
+      UserCategoryModel model = models.get(userId);
+      if (model != null) {
+        return model;
+      }
+    }
+
+    UserCategoryModel loaded = evictedDirty.remove(userId);
+    if (loaded == null) {
+      loaded = load(userId);
+    }
+
+    synchronized (models) {
+      UserCategoryModel existing = models.get(userId);
+      if (existing != null) {
+        return existing;
+      }
+      models.put(userId, loaded);
+      return loaded;
+    }
+  }
+
+  private UserCategoryModel load(Long userId) {
+    UserCategoryModel model = new UserCategoryModel();
+    List<TokenStat> stats = statsStore.findByUserId(userId);
+    if (!stats.isEmpty()) {
+      model.load(stats);
+      return model;
+    }
+    List<LabeledDescription> history = statsStore.findLabeledHistory(userId, bootstrapLimit);
+    for (LabeledDescription labeled : history) {
+      List<String> tokens = tokenize(labeled.description());
+      if (!tokens.isEmpty()) {
+        model.add(tokens, labeled.categoryId(), 1);
+      }
+    }
+    log.debug("Classifier model bootstrapped: userId={}, transactions={}", userId, history.size());
+    return model;
+  }
+
+  static List<String> tokenize(String description) {
+    if (description == null || description.isBlank()) {
+      return List.of();
+    }
+    String normalized = description.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    Set<String> tokens = new LinkedHashSet<>();
+    for (String token : normalized.split("[^\\p{L}]+")) {
+      if (token.length() < 2) {
+        continue;
+      }
+      tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+      if (tokens.size() == MAX_TOKENS) {
+        break;
+      }
+    }
+    return new ArrayList<>(tokens);
+  }
+}
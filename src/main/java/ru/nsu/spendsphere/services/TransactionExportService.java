@@ -0,0 +1,156 @@
+package ru.nsu.spendsphere.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.TransactionExportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionExportRowDTO;
+import ru.nsu.spendsphere.repositories.TransactionRepository;
+
+/**
+ * Потоковый экспорт транзакций в CSV и NDJSON.
+ *
+ * <p>Строки читаются курсором БД внутри транзакции только для чтения и сразу пишутся в ответ, без
+ * загрузки сущностей и списков, поэтому потребление памяти не зависит от объема истории. CSV
+ * использует те же колонки, что и импорт.
+ */
+@Service
+public class TransactionExportService {
+
+  private static final String CSV_HEADER =
+      "id,date,type,amount,account,transfer_account,category,description";
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+  private final UserAccessService userAccessService;
+  private final TransactionRepository transactionRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectWriter rowWriter;
+
+  public TransactionExportService(
+      UserAccessService userAccessService,
+      TransactionRepository transactionRepository,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper) {
+    this.userAccessService = userAccessService;
+    this.transactionRepository = transactionRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.rowWriter = objectMapper.writerFor(TransactionExportRowDTO.class);
+  }
+
+  /**
+   * Готовит экспорт транзакций пользователя. Пользователь и период проверяются сразу, а строки
+   * читаются из БД только при записи тела ответа.
+   *
+   * @param userId идентификатор пользователя
+   * @param format формат экспорта
+   * @param dateFrom дата начала периода (опционально)
+   * @param dateTo дата окончания периода (опционально)
+   * @return тело ответа, записывающее транзакции в выходной поток
+   * @throws ResourceNotFoundException если пользователь не найден
+   * @throws BadRequestException если дата начала периода позже даты окончания
+   */
+  public StreamingResponseBody export(
+      Long userId, TransactionExportFormat format, LocalDate dateFrom, LocalDate dateTo) {
+    userAccessService.requireExists(userId);
+    if (dateFrom != null && dateTo != null && dateFrom.isAfter(dateTo)) {
+      throw new BadRequestException("dateFrom must not be after dateTo");
+    }
+    return out -> write(userId, format, dateFrom, dateTo, out);
+  }
+
+  private void write(
+      Long userId,
+      TransactionExportFormat format,
+      LocalDate dateFrom,
+      LocalDate dateTo,
+      OutputStream out)
+      throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    try {
+      readOnlyTransaction.executeWithoutResult(
+          status -> {
+            try (Stream<TransactionExportRowDTO> rows =
+                transactionRepository.streamForExport(userId, dateFrom, dateTo)) {
+              if (format == TransactionExportFormat.NDJSON) {
+                writeNdjson(rows.iterator(), writer);
+              } else {
+                writeCsv(rows.iterator(), writer);
+              }
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+  }
+
+  private void writeNdjson(Iterator<TransactionExportRowDTO> rows, Writer writer)
+      throws IOException {
+    while (rows.hasNext()) {
+      writer.write(rowWriter.writeValueAsString(rows.next()));
+      writer.write('\n');
+    }
+  }
+
+  private static void writeCsv(Iterator<TransactionExportRowDTO> rows, Writer writer)
+      throws IOException {
+    writer.write(CSV_HEADER);
+    writer.write('\n');
+    while (rows.hasNext()) {
+      TransactionExportRowDTO row = rows.next();
+      writer.write(String.valueOf(row.id()));
+      writer.write(',');
+      writer.write(row.date().toString());
+      writer.write(',');
+      writer.write(row.type().name());
+      writer.write(',');
+      writer.write(row.amount().toPlainString());
+      writer.write(',');
+      writeCsvField(row.account(), writer);
+      writer.write(',');
+      writeCsvField(row.transferAccount(), writer);
+      writer.write(',');
+      writeCsvField(row.category(), writer);
+      writer.write(',');
+      writeCsvField(row.description(), writer);
+      writer.write('\n');
+    }
+  }
+
+  private static void writeCsvField(String value, Writer writer) throws IOException {
+    if (value == null) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -9,10 +9,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import ru.nsu.spendsphere.models.entities.Category;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
 import ru.nsu.spendsphere.models.entities.OcrTask;
 import ru.nsu.spendsphere.models.messaging.OcrTaskMessage;
-import ru.nsu.spendsphere.repositories.CategoryRepository;
 import ru.nsu.spendsphere.repositories.OcrTaskRepository;
 
 @Service
@@ -22,7 +21,7 @@ public class TransactionImageService {
   private static final Logger log = LoggerFactory.getLogger(TransactionImageService.class);
 
   private final RabbitTemplate rabbitTemplate;
-  private final CategoryRepository categoryRepository;
+  private final CategoryService categoryService;
   private final OcrTaskRepository ocrTaskRepository;
 
   @Value("${app.rabbit.queues.image}")
@@ -36,9 +35,7 @@ public class TransactionImageService {
     ocrTaskRepository.save(ocrTask);
 
     List<String> categories =
-        categoryRepository.findAllByUserIdOrDefault(userId).stream()
-            .map(Category::getName)
-            .toList();
+        categoryService.getAvailableCategories(userId).stream().map(CategoryDTO::name).toList();
 
     String imageB64 = Base64.getEncoder().encodeToString(data);
 
@@ -0,0 +1,317 @@
+package ru.nsu.spendsphere.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.TransactionImportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportResultDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter.NewTransaction;
+
+/**
+ * Массовый импорт транзакций из файлов CSV и OFX.
+ *
+ * <p>Файл читается потоково, по одной записи. Счета пользователя загружаются один раз, категории
+ * берутся из кешированного словаря. Строки разбираются и проверяются вне транзакции и копятся в
+ * пачки по {@code app.import.batch-size}; каждая пачка вставляется через JDBC и обновляет балансы
+ * своих счетов в отдельной короткой транзакции. Некорректные строки пропускаются и попадают в
+ * список ошибок.
+ *
+ * <p>Импорт не атомарен: если чтение файла прервалось после нескольких пачек, уже записанные пачки
+ * остаются, незаконченная пачка отбрасывается, а в ответе указывается количество записанных строк
+ * и ошибка чтения.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+  private static final int MAX_REPORTED_ERRORS = 100;
+  private static final int MAX_DESCRIPTION_LENGTH = 1000;
+  private static final DateTimeFormatter DOTTED_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+  private final UserAccessService userAccessService;
+  private final AccountRepository accountRepository;
+  private final CategoryDictionaryCache categoryDictionaryCache;
+  private final TransactionBatchWriter batchWriter;
+  private final AccountBalanceCache accountBalanceCache;
+  private final EntityCacheInvalidator entityCacheInvalidator;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${app.import.batch-size}")
+  private int batchSize;
+
+  @Value("${app.ocr.category-match-threshold}")
+  private double categoryMatchThreshold;
+
+  /**
+   * Импортирует транзакции пользователя из файла.
+   *
+   * @param userId идентификатор пользователя
+   * @param defaultAccountId счет для строк, в которых счет не указан (может быть null)
+   * @param format формат файла
+   * @param charset кодировка файла
+   * @param body содержимое файла
+   * @return количество импортированных и пропущенных строк и ошибки разбора
+   * @throws ResourceNotFoundException если пользователь или счет по умолчанию не найдены
+   * @throws BadRequestException если файл не удалось прочитать до записи первой пачки
+   */
+  public TransactionImportResultDTO importTransactions(
+      Long userId,
+      Long defaultAccountId,
+      TransactionImportFormat format,
+      Charset charset,
+      InputStream body) {
+    userAccessService.requireExists(userId);
+    long startedAt = System.nanoTime();
+    ImportContext context = new ImportContext(userId, accountRepository.findByUserId(userId));
+    if (defaultAccountId != null && !context.accountsById.containsKey(defaultAccountId)) {
+      throw new ResourceNotFoundException(
+          "Account with id " + defaultAccountId + " not found for user " + userId);
+    }
+    context.defaultAccountId = defaultAccountId;
+    context.categories = categoryDictionaryCache.get(userId);
+
+    List<NewTransaction> batch = new ArrayList<>(batchSize);
+    int imported = 0;
+    int skipped = 0;
+    List<String> errors = new ArrayList<>();
+
+    try {
+      Reader reader = new InputStreamReader(body, charset);
+      ImportedRowReader rows =
+          format == TransactionImportFormat.OFX
+              ? new OfxImportedRowReader(reader)
+              : new CsvImportedRowReader(reader);
+      ImportedRow row;
+      while ((row = rows.next()) != null) {
+        try {
+          batch.add(toTransaction(row, context));
+        } catch (BadRequestException e) {
+          skipped++;
+          if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + row.line() + ": " + e.getMessage());
+          }
+          continue;
+        }
+        if (batch.size() >= batchSize) {
+          imported += writeBatch(userId, batch);
+          batch.clear();
+          log.info(
+              "Import progress: userId={}, imported={}, skipped={}", userId, imported, skipped);
+        }
+      }
+    } catch (IOException e) {
+      if (imported == 0) {
+        throw new BadRequestException("Failed to read import file: " + e.getMessage());
+      }
+      errors.add("failed to read import file: " + e.getMessage());
+      batch.clear();
+    }
+    imported += writeBatch(userId, batch);
+
+    long durationMs = (System.nanoTime() - startedAt) / 1_000_000;
+    log.info(
+        "Import finished: userId={}, format={}, imported={}, skipped={}, durationMs={}",
+        userId,
+        format,
+        imported,
+        skipped,
+        durationMs);
+    return new TransactionImportResultDTO(imported, skipped, errors, durationMs);
+  }
+
+  /** Записывает пачку и изменения балансов ее счетов в отдельной транзакции. */
+  private int writeBatch(long userId, List<NewTransaction> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    Map<Long, BigDecimal> balanceDeltas = new HashMap<>();
+    for (NewTransaction transaction : batch) {
+      TransactionBatchWriter.accumulateDelta(balanceDeltas, transaction);
+    }
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          batchWriter.insertAll(batch);
+          batchWriter.applyBalanceDeltas(balanceDeltas);
+          entityCacheInvalidator.evictAfterCommit(Account.class, balanceDeltas.keySet());
+          accountBalanceCache.bumpAfterBalanceUpdate(
+              userId, balanceDeltas.keySet(), VersionedResource.TRANSACTIONS);
+        });
+    return batch.size();
+  }
+
+  private NewTransaction toTransaction(ImportedRow row, ImportContext context) {
+    LocalDate date = parseDate(row.date());
+    BigDecimal signedAmount = parseAmount(row.amount());
+    TransactionType type = parseType(row.type(), signedAmount);
+    BigDecimal amount = signedAmount.abs();
+    if (amount.signum() == 0) {
+      throw new BadRequestException("amount must be non-zero");
+    }
+
+    Long accountId = row.account() != null ? context.resolveAccount(row.account()) : null;
+    if (accountId == null) {
+      if (row.account() != null) {
+        throw new BadRequestException("account '" + row.account() + "' not found");
+      }
+      if (context.defaultAccountId == null) {
+        throw new BadRequestException("account is required");
+      }
+      accountId = context.defaultAccountId;
+    }
+
+    Long transferAccountId = null;
+    Long categoryId = null;
+    if (type == TransactionType.TRANSFER) {
+      if (row.transferAccount() == null) {
+        throw new BadRequestException("transfer account is required for TRANSFER");
+      }
+      transferAccountId = context.resolveAccount(row.transferAccount());
+      if (transferAccountId == null) {
+        throw new BadRequestException("transfer account '" + row.transferAccount() + "' not found");
+      }
+      if (transferAccountId.equals(accountId)) {
+        throw new BadRequestException("transfer account must differ from source account");
+      }
+    } else if (row.category() != null) {
+      categoryId = resolveCategory(row.category(), context.categories);
+    }
+
+    String description = row.description();
+    if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+      description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+    }
+    return new NewTransaction(
+        context.userId,
+        type,
+        categoryId,
+        accountId,
+        transferAccountId,
+        amount,
+        description,
+        date,
+        null,
+        null);
+  }
+
+  /** Категория по идентификатору или по названию; неизвестная категория не мешает импорту. */
+  private Long resolveCategory(String value, CategoryDictionary categories) {
+    Long id = parseId(value);
+    if (id != null && categories.findById(id).isPresent()) {
+      return id;
+    }
+    return categories.matchIdByName(value, categoryMatchThreshold);
+  }
+
+  private static LocalDate parseDate(String value) {
+    if (value == null) {
+      throw new BadRequestException("date is required");
+    }
+    try {
+      return value.indexOf('.') > 0 ? LocalDate.parse(value, DOTTED_DATE) : LocalDate.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("invalid date '" + value + "'");
+    }
+  }
+
+  /** Сумма со знаком; допускаются пробелы между разрядами и запятая как десятичный разделитель. */
+  private static BigDecimal parseAmount(String value) {
+    if (value == null) {
+      throw new BadRequestException("amount is required");
+    }
+    StringBuilder normalized = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',') {
+        normalized.append('.');
+      } else if (!Character.isWhitespace(c) && !Character.isSpaceChar(c)) {
+        normalized.append(c);
+      }
+    }
+    try {
+      BigDecimal amount = new BigDecimal(normalized.toString());
+      if (amount.scale() > 2) {
+        throw new BadRequestException("amount must have at most 2 decimal places");
+      }
+      return amount;
+    } catch (NumberFormatException e) {
+      throw new BadRequestException("invalid amount '" + value + "'");
+    }
+  }
+
+  private static TransactionType parseType(String value, BigDecimal signedAmount) {
+    if (value == null) {
+      return signedAmount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+    }
+    try {
+      return TransactionType.valueOf(value.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("invalid type '" + value + "'");
+    }
+  }
+
+  private static Long parseId(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (!Character.isDigit(value.charAt(i))) {
+        return null;
+      }
+    }
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** Справочники, загружаемые один раз на импорт. */
+  private static final class ImportContext {
+
+    private final long userId;
+    private final Map<Long, Long> accountsById = new HashMap<>();
+    private final Map<String, Long> accountsByName = new HashMap<>();
+    private Long defaultAccountId;
+    private CategoryDictionary categories;
+
+    private ImportContext(long userId, List<Account> accounts) {
+      this.userId = userId;
+      for (Account account : accounts) {
+        accountsById.put(account.getId(), account.getId());
+        if (account.getName() != null) {
+          accountsByName.putIfAbsent(account.getName().trim().toLowerCase(), account.getId());
+        }
+      }
+    }
+
+    /** Счет по идентификатору или по названию без учета регистра. */
+    private Long resolveAccount(String value) {
+      Long id = parseId(value);
+      if (id != null && accountsById.containsKey(id)) {
+        return id;
+      }
+      return accountsByName.get(value.trim().toLowerCase());
+    }
+  }
+}
@@ -6,15 +6,19 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.nsu.spendsphere.exceptions.BadRequestException;
 import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
 import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
 import ru.nsu.spendsphere.models.dto.TransactionDTO;
 import ru.nsu.spendsphere.models.dto.TransactionStatisticsDTO;
@@ -23,15 +27,17 @@ import ru.nsu.spendsphere.models.dto.TransactionStatisticsDTO.MaxExpensePerCateg
 import ru.nsu.spendsphere.models.dto.TransactionStatisticsDTO.MaxExpensePerDayDTO;
 import ru.nsu.spendsphere.models.dto.TransactionUpdateDTO;
 import ru.nsu.spendsphere.models.entities.Account;
-import ru.nsu.spendsphere.models.entities.Category;
+import ru.nsu.spendsphere.models.entities.CategoryType;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
 import ru.nsu.spendsphere.models.entities.Transaction;
 import ru.nsu.spendsphere.models.entities.TransactionType;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.models.mappers.TransactionMapper;
 import ru.nsu.spendsphere.repositories.AccountRepository;
 import ru.nsu.spendsphere.repositories.CategoryRepository;
+import ru.nsu.spendsphere.repositories.SyncTombstoneRepository;
 import ru.nsu.spendsphere.repositories.TransactionRepository;
-import ru.nsu.spendsphere.repositories.UserRepository;
 
 /**
  * Сервис для управления транзакциями пользователей. Предоставляет бизнес-логику для работы с
@@ -42,10 +48,15 @@ import ru.nsu.spendsphere.repositories.UserRepository;
 public class TransactionService {
 
   private final TransactionRepository transactionRepository;
-  private final UserRepository userRepository;
+  private final UserAccessService userAccessService;
   private final AccountRepository accountRepository;
   private final CategoryRepository categoryRepository;
   private final TransactionMapper transactionMapper;
+  private final CategoryDictionaryCache categoryDictionaryCache;
+  private final TransactionCategoryClassifier categoryClassifier;
+  private final SyncTombstoneRepository syncTombstoneRepository;
+  private final AccountBalanceCache accountBalanceCache;
+  private final FxRates fxRates;
 
   /**
    * Получение всех транзакций пользователя.
@@ -54,10 +65,9 @@ public class TransactionService {
    * @return список DTO транзакций пользователя
    * @throws ResourceNotFoundException если пользователь не найден
    */
+  @Transactional(readOnly = true)
   public List<TransactionDTO> getAllTransactions(Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     return transactionRepository.findByUserIdOrderByDateDescCreatedAtDesc(userId).stream()
         .map(transactionMapper::toTransactionDTO)
         .collect(Collectors.toList());
@@ -71,10 +81,9 @@ public class TransactionService {
    * @return DTO транзакции
    * @throws ResourceNotFoundException если транзакция не найдена или не принадлежит пользователю
    */
+  @Transactional(readOnly = true)
   public TransactionDTO getTransactionById(Long transactionId, Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     Transaction transaction =
         transactionRepository
             .findByIdAndUserId(transactionId, userId)
@@ -97,6 +106,7 @@ public class TransactionService {
    * @return список DTO транзакций
    * @throws ResourceNotFoundException если пользователь не найден
    */
+  @Transactional(readOnly = true)
   public List<TransactionDTO> getTransactionsWithFilters(
       Long userId,
       TransactionType type,
@@ -104,9 +114,7 @@ public class TransactionService {
       Long categoryId,
       LocalDate dateFrom,
       LocalDate dateTo) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     return transactionRepository
         .findByUserIdWithFilters(userId, type, accountId, categoryId, dateFrom, dateTo)
         .stream()
@@ -125,15 +133,11 @@ public class TransactionService {
    */
   @Transactional
   public TransactionDTO createTransaction(Long userId, TransactionCreateDTO createDTO) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("User with id " + userId + " not found"));
+    User user = userAccessService.getReference(userId);
 
     Account account =
         accountRepository
-            .findByIdAndUserId(createDTO.accountId(), userId)
+            .findForUpdateByIdAndUserId(createDTO.accountId(), userId)
             .orElseThrow(
                 () ->
                     new ResourceNotFoundException(
@@ -152,7 +156,7 @@ public class TransactionService {
       }
       transferAccount =
           accountRepository
-              .findByIdAndUserId(createDTO.transferAccountId(), userId)
+              .findForUpdateByIdAndUserId(createDTO.transferAccountId(), userId)
               .orElseThrow(
                   () ->
                       new ResourceNotFoundException(
@@ -162,22 +166,25 @@ public class TransactionService {
                               + userId));
     }
 
-    Category category = null;
+    CategoryDictionary categories = categoryDictionaryCache.get(userId);
+    CategoryDTO category = null;
     if (createDTO.categoryId() != null) {
       category =
-          categoryRepository
-              .findByIdAndIsDefaultTrueOrUserId(createDTO.categoryId(), userId)
+          categories
+              .findById(createDTO.categoryId())
               .orElseThrow(
                   () ->
                       new ResourceNotFoundException(
                           "Category with id " + createDTO.categoryId() + " not found"));
+    } else if (createDTO.type() != TransactionType.TRANSFER) {
+      category = predictCategory(userId, createDTO, categories);
     }
 
     Transaction transaction =
         Transaction.builder()
             .user(user)
             .type(createDTO.type())
-            .category(category)
+            .category(category != null ? categoryRepository.getReferenceById(category.id()) : null)
             .account(account)
             .transferAccount(transferAccount)
             .amount(createDTO.amount())
@@ -192,8 +199,43 @@ public class TransactionService {
     if (transferAccount != null) {
       accountRepository.save(transferAccount);
     }
+    Account savedTransferAccount = transferAccount;
+    accountBalanceCache.bumpAfterCommit(
+        userId,
+        () -> AccountBalanceCache.snapshotsOf(account, savedTransferAccount),
+        VersionedResource.TRANSACTIONS);
+
+    if (createDTO.categoryId() != null && createDTO.description() != null) {
+      long categoryId = createDTO.categoryId();
+      AfterCommit.run(() -> categoryClassifier.learn(userId, createDTO.description(), categoryId));
+    }
+
+    return transactionMapper.toTransactionDTO(savedTransaction, category);
+  }
 
-    return transactionMapper.toTransactionDTO(savedTransaction);
+  /**
+   * Подбирает категорию по описанию транзакции с помощью классификатора. Категория используется,
+   * только если она доступна пользователю и подходит по типу транзакции.
+   *
+   * @param userId идентификатор пользователя
+   * @param createDTO DTO создаваемой транзакции
+   * @param categories словарь категорий пользователя
+   * @return DTO категории или null, если подобрать не удалось
+   */
+  private CategoryDTO predictCategory(
+      Long userId, TransactionCreateDTO createDTO, CategoryDictionary categories) {
+    Long predicted = categoryClassifier.predict(userId, createDTO.description());
+    if (predicted == null) {
+      return null;
+    }
+    return categories
+        .findById(predicted)
+        .filter(
+            c ->
+                c.categoryType() == null
+                    || c.categoryType() == CategoryType.BOTH
+                    || c.categoryType().name().equals(createDTO.type().name()))
+        .orElse(null);
   }
 
   /**
@@ -209,9 +251,7 @@ public class TransactionService {
   @Transactional
   public TransactionDTO updateTransaction(
       Long transactionId, Long userId, TransactionUpdateDTO updateDTO) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
 
     Transaction transaction =
         transactionRepository
@@ -225,6 +265,9 @@ public class TransactionService {
     BigDecimal oldAmount = transaction.getAmount();
     Account oldAccount = transaction.getAccount();
     Account oldTransferAccount = transaction.getTransferAccount();
+    String oldDescription = transaction.getDescription();
+    Long oldCategoryId =
+        transaction.getCategory() != null ? transaction.getCategory().getId() : null;
 
     revertTransactionFromBalance(oldAccount, oldTransferAccount, oldType, oldAmount);
 
@@ -237,10 +280,49 @@ public class TransactionService {
         transaction.getAmount());
 
     saveUpdatedAccounts(oldAccount, oldTransferAccount, transaction);
+    retrainClassifier(userId, oldDescription, oldCategoryId, transaction);
+    accountBalanceCache.bumpAfterCommit(
+        userId,
+        () ->
+            AccountBalanceCache.snapshotsOf(
+                oldAccount,
+                oldTransferAccount,
+                transaction.getAccount(),
+                transaction.getTransferAccount()),
+        VersionedResource.TRANSACTIONS);
 
     return transactionMapper.toTransactionDTO(transactionRepository.save(transaction));
   }
 
+  /**
+   * Переобучает классификатор категорий после коммита, если у транзакции изменились описание или
+   * категория.
+   *
+   * @param userId идентификатор пользователя
+   * @param oldDescription прежнее описание
+   * @param oldCategoryId прежняя категория
+   * @param transaction обновленная транзакция
+   */
+  private void retrainClassifier(
+      Long userId, String oldDescription, Long oldCategoryId, Transaction transaction) {
+    String newDescription = transaction.getDescription();
+    Long newCategoryId =
+        transaction.getCategory() != null ? transaction.getCategory().getId() : null;
+    if (Objects.equals(oldDescription, newDescription)
+        && Objects.equals(oldCategoryId, newCategoryId)) {
+      return;
+    }
+    AfterCommit.run(
+        () -> {
+          if (oldCategoryId != null) {
+            categoryClassifier.unlearn(userId, oldDescription, oldCategoryId);
+          }
+          if (newCategoryId != null) {
+            categoryClassifier.learn(userId, newDescription, newCategoryId);
+          }
+        });
+  }
+
   /**
    * Обновляет поля транзакции согласно DTO.
    *
@@ -257,7 +339,7 @@ public class TransactionService {
     if (updateDTO.accountId() != null) {
       Account account =
           accountRepository
-              .findByIdAndUserId(updateDTO.accountId(), userId)
+              .findForUpdateByIdAndUserId(updateDTO.accountId(), userId)
               .orElseThrow(
                   () ->
                       new ResourceNotFoundException(
@@ -275,7 +357,7 @@ public class TransactionService {
       }
       Account transferAccount =
           accountRepository
-              .findByIdAndUserId(updateDTO.transferAccountId(), userId)
+              .findForUpdateByIdAndUserId(updateDTO.transferAccountId(), userId)
               .orElseThrow(
                   () ->
                       new ResourceNotFoundException(
@@ -287,14 +369,15 @@ public class TransactionService {
     }
 
     if (updateDTO.categoryId() != null) {
-      Category category =
-          categoryRepository
-              .findByIdAndIsDefaultTrueOrUserId(updateDTO.categoryId(), userId)
+      CategoryDTO category =
+          categoryDictionaryCache
+              .get(userId)
+              .findById(updateDTO.categoryId())
               .orElseThrow(
                   () ->
                       new ResourceNotFoundException(
                           "Category with id " + updateDTO.categoryId() + " not found"));
-      transaction.setCategory(category);
+      transaction.setCategory(categoryRepository.getReferenceById(category.id()));
     }
 
     if (updateDTO.amount() != null) {
@@ -341,9 +424,7 @@ public class TransactionService {
    */
   @Transactional
   public void deleteTransaction(Long transactionId, Long userId) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+    userAccessService.requireExists(userId);
     Transaction transaction =
         transactionRepository
             .findByIdAndUserId(transactionId, userId)
@@ -364,6 +445,13 @@ public class TransactionService {
     }
 
     transactionRepository.delete(transaction);
+    syncTombstoneRepository.recordDeletion(userId, SyncEntityType.TRANSACTION, transactionId);
+    Account account = transaction.getAccount();
+    Account transferAccount = transaction.getTransferAccount();
+    accountBalanceCache.bumpAfterCommit(
+        userId,
+        () -> AccountBalanceCache.snapshotsOf(account, transferAccount),
+        VersionedResource.TRANSACTIONS);
   }
 
   /**
@@ -423,14 +511,17 @@ public class TransactionService {
    *
    * @param userId идентификатор пользователя
    * @param months количество месяцев для анализа (1, 3, 6 или 12)
+   * @param baseCurrency валюта, в которую пересчитываются суммы; {@code null} — суммы берутся как
+   *     есть, без учета валют счетов
    * @return DTO со статистикой транзакций
    * @throws ResourceNotFoundException если пользователь не найден
-   * @throws BadRequestException если указано некорректное количество месяцев
+   * @throws BadRequestException если указано некорректное количество месяцев или неизвестен курс
+   *     валюты одного из счетов
    */
-  public TransactionStatisticsDTO getTransactionStatistics(Long userId, Integer months) {
-    if (!userRepository.existsById(userId)) {
-      throw new ResourceNotFoundException("User with id " + userId + " not found");
-    }
+  @Transactional(readOnly = true)
+  public TransactionStatisticsDTO getTransactionStatistics(
+      Long userId, Integer months, Currency baseCurrency) {
+    userAccessService.requireExists(userId);
 
     if (months == null || (months != 1 && months != 3 && months != 6 && months != 12)) {
       throw new BadRequestException("Months parameter must be 1, 3, 6, or 12");
@@ -442,19 +533,53 @@ public class TransactionService {
     List<Transaction> transactions =
         transactionRepository.findByUserIdWithFilters(userId, null, null, null, startDate, endDate);
 
-    return buildStatistics(transactions, startDate, endDate);
+    Function<Transaction, BigDecimal> amountOf =
+        baseCurrency == null
+            ? Transaction::getAmount
+            : convertedAmounts(transactions, baseCurrency);
+    return buildStatistics(transactions, amountOf, baseCurrency, startDate, endDate);
+  }
+
+  /**
+   * Пересчитывает суммы транзакций в базовую валюту. Каждая сумма пересчитывается один раз, суммы в
+   * базовой валюте не копируются.
+   *
+   * @param transactions транзакции с загруженными счетами
+   * @param baseCurrency базовая валюта
+   * @return функция, возвращающая пересчитанную сумму транзакции
+   * @throws BadRequestException если курс валюты одного из счетов неизвестен
+   */
+  private Function<Transaction, BigDecimal> convertedAmounts(
+      List<Transaction> transactions, Currency baseCurrency) {
+    Map<Transaction, BigDecimal> converted = new IdentityHashMap<>(transactions.size());
+    for (Transaction transaction : transactions) {
+      Currency currency = transaction.getAccount().getCurrency();
+      BigDecimal amount = fxRates.convert(transaction.getAmount(), currency, baseCurrency);
+      if (amount == null) {
+        throw new BadRequestException(
+            "Exchange rate " + currency + "/" + baseCurrency + " is not available");
+      }
+      converted.put(transaction, amount);
+    }
+    return converted::get;
   }
 
   /**
    * Построение статистики на основе списка транзакций.
    *
    * @param transactions список транзакций
+   * @param amountOf сумма транзакции в валюте статистики
+   * @param baseCurrency валюта статистики или {@code null}, если суммы не пересчитывались
    * @param startDate дата начала периода
    * @param endDate дата окончания периода
    * @return DTO со статистикой
    */
   private TransactionStatisticsDTO buildStatistics(
-      List<Transaction> transactions, LocalDate startDate, LocalDate endDate) {
+      List<Transaction> transactions,
+      Function<Transaction, BigDecimal> amountOf,
+      Currency baseCurrency,
+      LocalDate startDate,
+      LocalDate endDate) {
 
     List<Transaction> expenses =
         transactions.stream()
@@ -466,20 +591,21 @@ public class TransactionService {
             .filter(t -> t.getType() == TransactionType.INCOME)
             .collect(Collectors.toList());
 
-    Map<String, BigDecimal> expensesByCategory = calculateExpensesByCategory(expenses);
-    Map<String, BigDecimal> incomeByCategory = calculateIncomeByCategory(incomes);
+    Map<String, BigDecimal> expensesByCategory = calculateExpensesByCategory(expenses, amountOf);
+    Map<String, BigDecimal> incomeByCategory = calculateIncomeByCategory(incomes, amountOf);
 
-    Map<String, BigDecimal> monthlyExpenses = calculateMonthlyExpenses(expenses);
-    Map<String, BigDecimal> monthlyIncome = calculateMonthlyIncome(incomes);
+    Map<String, BigDecimal> monthlyExpenses = calculateMonthlyExpenses(expenses, amountOf);
+    Map<String, BigDecimal> monthlyIncome = calculateMonthlyIncome(incomes, amountOf);
 
-    List<CategoryTimeSeriesDTO> avgExpensesByCategory = calculateAvgByCategory(expenses);
-    List<CategoryTimeSeriesDTO> avgIncomeByCategory = calculateAvgByCategory(incomes);
+    List<CategoryTimeSeriesDTO> avgExpensesByCategory = calculateAvgByCategory(expenses, amountOf);
+    List<CategoryTimeSeriesDTO> avgIncomeByCategory = calculateAvgByCategory(incomes, amountOf);
 
-    MaxExpensePerDayDTO maxExpensePerDay = calculateMaxExpensePerDay(expenses);
-    MaxExpensePerCategoryDTO maxExpensePerCategory = calculateMaxExpensePerCategory(expenses);
+    MaxExpensePerDayDTO maxExpensePerDay = calculateMaxExpensePerDay(expenses, amountOf);
+    MaxExpensePerCategoryDTO maxExpensePerCategory =
+        calculateMaxExpensePerCategory(expenses, amountOf);
 
-    BigDecimal averageExpense = calculateAverage(expenses);
-    BigDecimal averageIncome = calculateAverage(incomes);
+    BigDecimal averageExpense = calculateAverage(expenses, amountOf);
+    BigDecimal averageIncome = calculateAverage(incomes, amountOf);
 
     return new TransactionStatisticsDTO(
         expensesByCategory,
@@ -492,6 +618,7 @@ public class TransactionService {
         maxExpensePerCategory,
         averageExpense,
         averageIncome,
+        baseCurrency,
         startDate,
         endDate);
   }
@@ -500,45 +627,51 @@ public class TransactionService {
    * Вычисляет расходы по категориям.
    *
    * @param expenses список расходных транзакций
+   * @param amountOf сумма транзакции
    * @return Map с названиями категорий и суммами расходов
    */
-  private Map<String, BigDecimal> calculateExpensesByCategory(List<Transaction> expenses) {
+  private Map<String, BigDecimal> calculateExpensesByCategory(
+      List<Transaction> expenses, Function<Transaction, BigDecimal> amountOf) {
     return expenses.stream()
         .filter(t -> t.getCategory() != null)
         .collect(
             Collectors.groupingBy(
                 t -> t.getCategory().getName(),
-                Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+                Collectors.reducing(BigDecimal.ZERO, amountOf, BigDecimal::add)));
   }
 
   /**
    * Вычисляет доходы по категориям.
    *
    * @param incomes список доходных транзакций
+   * @param amountOf сумма транзакции
    * @return Map с названиями категорий и суммами доходов
    */
-  private Map<String, BigDecimal> calculateIncomeByCategory(List<Transaction> incomes) {
+  private Map<String, BigDecimal> calculateIncomeByCategory(
+      List<Transaction> incomes, Function<Transaction, BigDecimal> amountOf) {
     return incomes.stream()
         .filter(t -> t.getCategory() != null)
         .collect(
             Collectors.groupingBy(
                 t -> t.getCategory().getName(),
-                Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+                Collectors.reducing(BigDecimal.ZERO, amountOf, BigDecimal::add)));
   }
 
   /**
    * Вычисляет суммы расходов по месяцам.
    *
    * @param expenses список расходных транзакций
+   * @param amountOf сумма транзакции
    * @return Map с месяцами (год-месяц) и суммами расходов
    */
-  private Map<String, BigDecimal> calculateMonthlyExpenses(List<Transaction> expenses) {
+  private Map<String, BigDecimal> calculateMonthlyExpenses(
+      List<Transaction> expenses, Function<Transaction, BigDecimal> amountOf) {
     Map<String, BigDecimal> result =
         expenses.stream()
             .collect(
                 Collectors.groupingBy(
                     t -> YearMonth.from(t.getDate()).format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                    Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+                    Collectors.reducing(BigDecimal.ZERO, amountOf, BigDecimal::add)));
 
     return result.entrySet().stream()
         .sorted(Map.Entry.comparingByKey())
@@ -551,15 +684,17 @@ public class TransactionService {
    * Вычисляет суммы доходов по месяцам.
    *
    * @param incomes список доходных транзакций
+   * @param amountOf сумма транзакции
    * @return Map с месяцами (год-месяц) и суммами доходов
    */
-  private Map<String, BigDecimal> calculateMonthlyIncome(List<Transaction> incomes) {
+  private Map<String, BigDecimal> calculateMonthlyIncome(
+      List<Transaction> incomes, Function<Transaction, BigDecimal> amountOf) {
     Map<String, BigDecimal> result =
         incomes.stream()
             .collect(
                 Collectors.groupingBy(
                     t -> YearMonth.from(t.getDate()).format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                    Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+                    Collectors.reducing(BigDecimal.ZERO, amountOf, BigDecimal::add)));
 
     return result.entrySet().stream()
         .sorted(Map.Entry.comparingByKey())
@@ -572,9 +707,11 @@ public class TransactionService {
    * Вычисляет средние значения по категориям во времени.
    *
    * @param transactions список транзакций
+   * @param amountOf сумма транзакции
    * @return список временных рядов по категориям
    */
-  private List<CategoryTimeSeriesDTO> calculateAvgByCategory(List<Transaction> transactions) {
+  private List<CategoryTimeSeriesDTO> calculateAvgByCategory(
+      List<Transaction> transactions, Function<Transaction, BigDecimal> amountOf) {
 
     Map<String, Map<String, List<BigDecimal>>> categoryMonthlyData =
         transactions.stream()
@@ -586,7 +723,7 @@ public class TransactionService {
                         t ->
                             YearMonth.from(t.getDate())
                                 .format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                        Collectors.mapping(Transaction::getAmount, Collectors.toList()))));
+                        Collectors.mapping(amountOf, Collectors.toList()))));
 
     List<CategoryTimeSeriesDTO> result = new ArrayList<>();
     for (Map.Entry<String, Map<String, List<BigDecimal>>> entry : categoryMonthlyData.entrySet()) {
@@ -620,9 +757,11 @@ public class TransactionService {
    * Находит максимальный расход за день.
    *
    * @param expenses список расходных транзакций
+   * @param amountOf сумма транзакции
    * @return DTO с информацией о максимальном расходе за день
    */
-  private MaxExpensePerDayDTO calculateMaxExpensePerDay(List<Transaction> expenses) {
+  private MaxExpensePerDayDTO calculateMaxExpensePerDay(
+      List<Transaction> expenses, Function<Transaction, BigDecimal> amountOf) {
     if (expenses.isEmpty()) {
       return null;
     }
@@ -632,7 +771,7 @@ public class TransactionService {
             .collect(
                 Collectors.groupingBy(
                     Transaction::getDate,
-                    Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+                    Collectors.reducing(BigDecimal.ZERO, amountOf, BigDecimal::add)));
 
     Map.Entry<LocalDate, BigDecimal> maxEntry =
         dailyExpenses.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
@@ -648,9 +787,11 @@ public class TransactionService {
    * Находит максимальный расход по категории.
    *
    * @param expenses список расходных транзакций
+   * @param amountOf сумма транзакции
    * @return DTO с информацией о максимальном расходе по категории
    */
-  private MaxExpensePerCategoryDTO calculateMaxExpensePerCategory(List<Transaction> expenses) {
+  private MaxExpensePerCategoryDTO calculateMaxExpensePerCategory(
+      List<Transaction> expenses, Function<Transaction, BigDecimal> amountOf) {
     if (expenses.isEmpty()) {
       return null;
     }
@@ -661,7 +802,7 @@ public class TransactionService {
             .collect(
                 Collectors.groupingBy(
                     t -> t.getCategory().getName(),
-                    Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+                    Collectors.reducing(BigDecimal.ZERO, amountOf, BigDecimal::add)));
 
     Map.Entry<String, BigDecimal> maxEntry =
         categoryExpenses.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
@@ -677,15 +818,16 @@ public class TransactionService {
    * Вычисляет среднее значение транзакций.
    *
    * @param transactions список транзакций
+   * @param amountOf сумма транзакции
    * @return среднее значение
    */
-  private BigDecimal calculateAverage(List<Transaction> transactions) {
+  private BigDecimal calculateAverage(
+      List<Transaction> transactions, Function<Transaction, BigDecimal> amountOf) {
     if (transactions.isEmpty()) {
       return BigDecimal.ZERO;
     }
 
-    BigDecimal sum =
-        transactions.stream().map(Transaction::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    BigDecimal sum = transactions.stream().map(amountOf).reduce(BigDecimal.ZERO, BigDecimal::add);
 
     return sum.divide(BigDecimal.valueOf(transactions.size()), 2, RoundingMode.HALF_UP);
   }
@@ -0,0 +1,82 @@
+package ru.nsu.spendsphere.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.nsu.spendsphere.configurations.security.AuthenticatedUser;
+import ru.nsu.spendsphere.exceptions.ForbiddenException;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+/**
+ * Проверка пользователя, от имени которого выполняется операция. Пользователь, аутентифицированный
+ * по JWT, уже загружен {@code JwtAuthenticationFilter} в текущем запросе и лежит в контексте
+ * безопасности, поэтому для его идентификатора повторный запрос к БД не нужен. Для остальных
+ * идентификаторов (фоновые задачи, обработчики очередей, запросы без аутентификации)
+ * существование пользователя проверяется в БД.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserAccessService {
+
+  private final UserRepository userRepository;
+
+  /**
+   * Возвращает идентификатор пользователя, аутентифицированного в текущем запросе.
+   *
+   * @return идентификатор пользователя или {@code null}, если запрос не аутентифицирован по JWT
+   */
+  public Long currentUserId() {
+    return AuthenticatedUser.currentId();
+  }
+
+  /**
+   * Проверяет, что пользователь существует.
+   *
+   * @param userId идентификатор пользователя
+   * @throws ResourceNotFoundException если пользователь не найден
+   */
+  public void requireExists(Long userId) {
+    if (!isCurrentUser(userId) && !userRepository.existsById(userId)) {
+      throw new ResourceNotFoundException("User with id " + userId + " not found");
+    }
+  }
+
+  /**
+   * Проверяет, что пользователь существует и что запрос, аутентифицированный другим пользователем,
+   * не обращается к его данным. Вызывается перед ответом 304 на условный запрос, который не читает
+   * данные и поэтому не проходит проверки сервисов.
+   *
+   * @param userId идентификатор пользователя
+   * @throws ForbiddenException если запрос аутентифицирован другим пользователем
+   * @throws ResourceNotFoundException если пользователь не найден
+   */
+  public void requireAccess(Long userId) {
+    Long currentUserId = currentUserId();
+    if (currentUserId != null && !currentUserId.equals(userId)) {
+      throw new ForbiddenException("Access to user " + userId + " is forbidden");
+    }
+    requireExists(userId);
+  }
+
+  /**
+   * Возвращает ссылку на пользователя для связей создаваемых сущностей. Для текущего пользователя
+   * ссылка создается без запроса к БД.
+   *
+   * @param userId идентификатор пользователя
+   * @return пользователь или прокси-ссылка на него
+   * @throws ResourceNotFoundException если пользователь не найден
+   */
+  public User getReference(Long userId) {
+    if (isCurrentUser(userId)) {
+      return userRepository.getReferenceById(userId);
+    }
+    return userRepository
+        .findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User with id " + userId + " not found"));
+  }
+
+  private boolean isCurrentUser(Long userId) {
+    return userId != null && userId.equals(currentUserId());
+  }
+}
@@ -0,0 +1,110 @@
+package ru.nsu.spendsphere.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ru.nsu.spendsphere.repositories.CategoryTokenStatsStore.TokenStat;
+
+/**
+ * Модель классификатора одного пользователя: наивный байесовский классификатор по счетчикам токенов
+ * описаний в разрезе категорий. Все методы синхронизированы на экземпляре модели.
+ */
+final class UserCategoryModel {
+
+  /** Служебный токен, под которым хранится количество обученных транзакций категории. */
+  static final String DOCUMENT_TOKEN = "#";
+
+  private final Map<String, Map<Long, Integer>> counts = new HashMap<>();
+  private final Map<Long, Integer> tokenTotals = new HashMap<>();
+  private boolean dirty;
+
+  /** Учитывает (delta = 1) или отменяет (delta = -1) транзакцию с данной категорией. */
+  synchronized void add(List<String> tokens, long categoryId, int delta) {
+    increment(DOCUMENT_TOKEN, categoryId, delta);
+    for (String token : tokens) {
+      increment(token, categoryId, delta);
+      addCount(tokenTotals, categoryId, delta);
+    }
+    dirty = true;
+  }
+
+  /** Возвращает наиболее вероятную категорию или null, если все токены незнакомы. */
+  synchronized Long predict(List<String> tokens) {
+    Map<Long, Integer> documents = counts.get(DOCUMENT_TOKEN);
+    if (documents == null || tokens.stream().noneMatch(counts::containsKey)) {
+      return null;
+    }
+    int totalDocuments = documents.values().stream().mapToInt(Integer::intValue).sum();
+    int vocabulary = counts.size() - 1;
+
+    Long best = null;
+    double bestScore = Double.NEGATIVE_INFINITY;
+    for (Map.Entry<Long, Integer> category : documents.entrySet()) {
+      long categoryId = category.getKey();
+      double denominator = tokenTotals.getOrDefault(categoryId, 0) + vocabulary + 1.0;
+      double score = Math.log((double) category.getValue() / totalDocuments);
+      for (String token : tokens) {
+        Map<Long, Integer> tokenCounts = counts.get(token);
+        int count = tokenCounts == null ? 0 : tokenCounts.getOrDefault(categoryId, 0);
+        score += Math.log((count + 1.0) / denominator);
+      }
+      if (score > bestScore) {
+        best = categoryId;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  /** Восстанавливает модель из снимка. */
+  synchronized void load(List<TokenStat> stats) {
+    for (TokenStat stat : stats) {
+      counts
+          .computeIfAbsent(stat.token(), t -> new HashMap<>())
+          .put(stat.categoryId(), stat.occurrences());
+      if (!DOCUMENT_TOKEN.equals(stat.token())) {
+        tokenTotals.merge(stat.categoryId(), stat.occurrences(), Integer::sum);
+      }
+    }
+  }
+
+  synchronized boolean isDirty() {
+    return dirty;
+  }
+
+  synchronized void markDirty() {
+    dirty = true;
+  }
+
+  /** Возвращает снимок модели и сбрасывает признак изменений, либо null, если изменений нет. */
+  synchronized List<TokenStat> takeSnapshotIfDirty() {
+    if (!dirty) {
+      return null;
+    }
+    List<TokenStat> snapshot = new ArrayList<>();
+    counts.forEach(
+        (token, byCategory) ->
+            byCategory.forEach(
+                (categoryId, count) -> snapshot.add(new TokenStat(token, categoryId, count))));
+    dirty = false;
+    return snapshot;
+  }
+
+  private void increment(String token, long categoryId, int delta) {
+    Map<Long, Integer> byCategory = counts.computeIfAbsent(token, t -> new HashMap<>());
+    addCount(byCategory, categoryId, delta);
+    if (byCategory.isEmpty()) {
+      counts.remove(token);
+    }
+  }
+
+  private static void addCount(Map<Long, Integer> counts, long categoryId, int delta) {
+    int count = counts.getOrDefault(categoryId, 0) + delta;
+    if (count > 0) {
+      counts.put(categoryId, count);
+    } else {
+      counts.remove(categoryId);
+    }
+  }
+}
@@ -33,6 +33,7 @@ public class UserService {
    * @return DTO с данными профиля пользователя
    * @throws ResourceNotFoundException если пользователь с указанным ID не найден
    */
+  @Transactional(readOnly = true)
   public UserProfileDTO getProfile(Long id) {
     Optional<User> user = userRepository.findById(id);
     if (user.isEmpty()) {
@@ -0,0 +1,8 @@
+package ru.nsu.spendsphere.services;
+
+/** Списки пользователя, для которых ведутся версии и выдаются ETag. */
+public enum VersionedResource {
+  ACCOUNTS,
+  CATEGORIES,
+  TRANSACTIONS
+}
@@ -0,0 +1,4 @@
+-- Reminder notifications are recorded in their own column, so the dispatcher no longer moves
+-- next_occurrence and a reminder due today stays "upcoming" for the whole day.
+
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS last_notified_on DATE;
@@ -0,0 +1,101 @@
+-- Baseline: the upstream schema as Hibernate created it (ddl-auto=update) before versioned
+-- migrations. Existing databases are baselined at this version and skip this script; every later
+-- change to the schema is a separate migration.
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255),
+    name        VARCHAR(255) NOT NULL,
+    surname     VARCHAR(255),
+    birthday    DATE,
+    photo_url   VARCHAR(255),
+    provider    VARCHAR(255),
+    provider_id VARCHAR(255),
+    created_at  TIMESTAMP(6) NOT NULL,
+    is_premium  BOOLEAN      NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE accounts (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT         NOT NULL REFERENCES users (id),
+    account_type     VARCHAR(255)   NOT NULL,
+    balance          NUMERIC(19, 2) NOT NULL,
+    currency         VARCHAR(3)     NOT NULL,
+    name             VARCHAR(255)   NOT NULL,
+    icon_url         VARCHAR(255),
+    credit_limit     NUMERIC(19, 2),
+    is_active        BOOLEAN        NOT NULL,
+    include_in_total BOOLEAN        NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE categories (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id       BIGINT REFERENCES users (id),
+    is_default    BOOLEAN      NOT NULL,
+    icon          VARCHAR(255),
+    color         VARCHAR(255),
+    name          VARCHAR(255) NOT NULL,
+    category_type VARCHAR(255),
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE reminders (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id              BIGINT         NOT NULL REFERENCES users (id),
+    account_id           BIGINT REFERENCES accounts (id),
+    title                VARCHAR(255)   NOT NULL,
+    description          VARCHAR(1000),
+    amount               NUMERIC(19, 2) NOT NULL,
+    recurrence_type      VARCHAR(255)   NOT NULL,
+    weekly_day_of_week   VARCHAR(255),
+    monthly_day_of_month INTEGER,
+    monthly_use_last_day BOOLEAN        NOT NULL,
+    is_active            BOOLEAN        NOT NULL,
+    created_at           TIMESTAMP(6)   NOT NULL,
+    updated_at           TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE transactions (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id             BIGINT         NOT NULL REFERENCES users (id),
+    type                VARCHAR(255)   NOT NULL,
+    category_id         BIGINT REFERENCES categories (id),
+    account_id          BIGINT         NOT NULL REFERENCES accounts (id),
+    transfer_account_id BIGINT REFERENCES accounts (id),
+    amount              NUMERIC(19, 2) NOT NULL,
+    description         VARCHAR(1000),
+    date                DATE           NOT NULL,
+    created_at          TIMESTAMP(6)   NOT NULL,
+    updated_at          TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE advices (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT       NOT NULL REFERENCES users (id),
+    task_id     VARCHAR(255) NOT NULL,
+    goal        VARCHAR(500) NOT NULL,
+    target_date DATE,
+    created_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_advices_task_id UNIQUE (task_id)
+);
+
+CREATE TABLE advice_items (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    advice_id   BIGINT        NOT NULL REFERENCES advices (id),
+    item_order  INTEGER       NOT NULL,
+    title       VARCHAR(200)  NOT NULL,
+    priority    VARCHAR(20)   NOT NULL,
+    description VARCHAR(2000) NOT NULL
+);
+
+CREATE TABLE ocr_tasks (
+    task_id    UUID         PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    account_id BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
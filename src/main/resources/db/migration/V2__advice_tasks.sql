@@ -0,0 +1,13 @@
+-- Stored advice tasks, so advice results are correlated with the request that produced them.
+-- IF NOT EXISTS: databases that ran with ddl-auto=update may already have these objects.
+
+CREATE TABLE IF NOT EXISTS advice_tasks (
+    task_id      UUID         PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    goal         VARCHAR(500) NOT NULL,
+    target_date  DATE,
+    status       VARCHAR(20)  NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_advice_tasks_user_id ON advice_tasks (user_id);
@@ -0,0 +1,12 @@
+-- Reminder scheduling: the materialized next occurrence used by "upcoming" and the dispatcher, and
+-- auto-posting of due occurrences as transactions. A posted transaction references its reminder
+-- and occurrence date. Indexes on these columns, including the unique key that makes auto-posting
+-- idempotent, are built concurrently in V8.
+-- IF NOT EXISTS: databases that ran with ddl-auto=update may already have these columns.
+
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS next_occurrence DATE;
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS auto_post BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS auto_posted_through DATE;
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS reminder_id BIGINT;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS reminder_occurrence_date DATE;
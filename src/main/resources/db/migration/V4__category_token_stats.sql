@@ -0,0 +1,11 @@
+-- Snapshots of the per-user category classifier statistics.
+-- IF NOT EXISTS: databases that ran with ddl-auto=update may already have these objects.
+
+CREATE TABLE IF NOT EXISTS category_token_stats (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT      NOT NULL,
+    token       VARCHAR(64) NOT NULL,
+    category_id BIGINT      NOT NULL,
+    occurrences INTEGER     NOT NULL,
+    CONSTRAINT uk_category_token_stats_user_token_category UNIQUE (user_id, token, category_id)
+);
@@ -0,0 +1,13 @@
+-- Delta sync: deletion tombstones. The (user_id, updated_at) indexes for "changed since" queries
+-- on existing tables are built concurrently in V8.
+-- IF NOT EXISTS: databases that ran with ddl-auto=update may already have these objects.
+
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    entity_type VARCHAR(32)  NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    deleted_at  TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_user_deleted_at
+    ON sync_tombstones (user_id, deleted_at);
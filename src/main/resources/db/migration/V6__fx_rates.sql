@@ -0,0 +1,10 @@
+-- Exchange rates to RUB for base-currency totals.
+-- IF NOT EXISTS: databases that ran with ddl-auto=update may already have these objects.
+
+CREATE TABLE IF NOT EXISTS fx_rates (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    currency    VARCHAR(3)     NOT NULL,
+    rate_to_rub NUMERIC(19, 8) NOT NULL,
+    updated_at  TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT uk_fx_rates_currency UNIQUE (currency)
+);
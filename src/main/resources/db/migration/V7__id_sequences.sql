@@ -0,0 +1,25 @@
+-- Sequence ids with pooled-lo blocks (allocationSize = 50) for transactions, accounts, categories
+-- and reminders. Databases that ran with ddl-auto=update may already have the sequences.
+-- A sequence is moved past MAX(id) only when the largest id cannot belong to a block that was
+-- already handed out; identity columns stay in place and are no longer used by the application.
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS accounts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS categories_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reminders_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('transactions_seq', m.max_id + 1, false)
+FROM (SELECT MAX(id) AS max_id FROM transactions) m, transactions_seq s
+WHERE m.max_id >= s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
+
+SELECT setval('accounts_seq', m.max_id + 1, false)
+FROM (SELECT MAX(id) AS max_id FROM accounts) m, accounts_seq s
+WHERE m.max_id >= s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
+
+SELECT setval('categories_seq', m.max_id + 1, false)
+FROM (SELECT MAX(id) AS max_id FROM categories) m, categories_seq s
+WHERE m.max_id >= s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
+
+SELECT setval('reminders_seq', m.max_id + 1, false)
+FROM (SELECT MAX(id) AS max_id FROM reminders) m, reminders_seq s
+WHERE m.max_id >= s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
@@ -0,0 +1,65 @@
+-- Indexes on the pre-existing tables for repository queries that the baseline does not cover.
+-- Built CONCURRENTLY so the migration does not block writes on large tables; Flyway runs this
+-- script outside a transaction. Lookups by user_id on accounts, categories and reminders are
+-- served by the leading column of the (user_id, updated_at) and (user_id, next_occurrence)
+-- indexes.
+
+-- Delta sync: WHERE user_id = ? AND updated_at > ? ORDER BY updated_at
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_accounts_user_updated_at
+    ON accounts (user_id, updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categories_user_updated_at
+    ON categories (user_id, updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reminders_user_updated_at
+    ON reminders (user_id, updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_updated_at
+    ON transactions (user_id, updated_at);
+
+-- Upcoming reminders of a user and the dispatcher's keyset scan over due reminders
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reminders_user_next_occurrence
+    ON reminders (user_id, next_occurrence);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reminders_next_occurrence_id
+    ON reminders (next_occurrence, id);
+
+-- One auto-posted transaction per reminder occurrence
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_transactions_reminder_occurrence
+    ON transactions (reminder_id, reminder_occurrence_date);
+
+-- Recent advices page: WHERE user_id = ? AND created_at >= ? ORDER BY created_at DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_advices_user_created
+    ON advices (user_id, created_at);
+
+-- Transaction list and filters: WHERE user_id = ? ORDER BY date DESC, created_at DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_date_created
+    ON transactions (user_id, date DESC, created_at DESC);
+
+-- Account filter and foreign key checks when an account is deleted
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_account
+    ON transactions (account_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_transfer_account
+    ON transactions (transfer_account_id) WHERE transfer_account_id IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reminders_account
+    ON reminders (account_id) WHERE account_id IS NOT NULL;
+
+-- Category filter and foreign key checks when a category is deleted
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_category
+    ON transactions (category_id) WHERE category_id IS NOT NULL;
+
+-- Default categories (shared snapshot and delta sync)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categories_default_updated_at
+    ON categories (updated_at) WHERE is_default;
+
+-- Nightly auto-posting: WHERE is_active AND auto_post ... AND id > ? ORDER BY id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reminders_auto_post
+    ON reminders (id) WHERE is_active AND auto_post;
+
+-- Advice items fetched with their advice
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_advice_items_advice
+    ON advice_items (advice_id);
+
+-- Tombstone retention purge: WHERE deleted_at < ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sync_tombstones_deleted_at
+    ON sync_tombstones (deleted_at);
+
+-- OAuth login: WHERE provider = ? AND provider_id = ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_provider
+    ON users (provider, provider_id);
@@ -0,0 +1,3 @@
+-- Optimistic locking for accounts: a node holding a stale cached account cannot overwrite the
+-- balance written by another node. JDBC balance updates increment the version as well.
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,110 @@
+package ru.nsu.spendsphere.configurations;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.models.messaging.ResourceVersionMessage;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.VersionedResource;
+
+class ReplicaRoutingDataSourceTest {
+
+  private static final long USER_ID = 7L;
+
+  private final DataSource primary = mock(DataSource.class);
+  private final DataSource replica = mock(DataSource.class);
+  private final ReplicaLagGuard lagGuard = mock(ReplicaLagGuard.class);
+  private final ResourceVersionRegistry resourceVersions =
+      new ResourceVersionRegistry(mock(RabbitTemplate.class));
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(resourceVersions, "maxUsers", 100);
+    when(primary.getConnection()).thenReturn(mock(Connection.class));
+    when(replica.getConnection()).thenReturn(mock(Connection.class));
+    when(lagGuard.isUsable()).thenReturn(true);
+    dataSource =
+        new ReplicaDataSourceConfig()
+            .dataSource(primary, replica, lagGuard, resourceVersions, 5_000L);
+    clearInvocations(primary);
+
+    User user = User.builder().id(USER_ID).email("me@test.com").build();
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+  }
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void readOnlyTransactionGoesToReplica() throws SQLException {
+    runQuery(true);
+
+    verify(replica).getConnection();
+    verify(primary, never()).getConnection();
+  }
+
+  @Test
+  void readWriteTransactionGoesToPrimary() throws SQLException {
+    runQuery(false);
+
+    verify(primary).getConnection();
+    verify(replica, never()).getConnection();
+  }
+
+  @Test
+  void readAfterOwnWriteGoesToPrimary() throws SQLException {
+    resourceVersions.bump(USER_ID, VersionedResource.TRANSACTIONS);
+
+    runQuery(true);
+
+    verify(primary).getConnection();
+    verify(replica, never()).getConnection();
+  }
+
+  @Test
+  void readAfterWriteOnAnotherNodeGoesToPrimary() throws SQLException {
+    resourceVersions.onRemoteBump(
+        new ResourceVersionMessage("other-node", USER_ID, List.of("TRANSACTIONS")));
+
+    runQuery(true);
+
+    verify(primary).getConnection();
+    verify(replica, never()).getConnection();
+  }
+
+  private void runQuery(boolean readOnly) {
+    TransactionTemplate transactionTemplate =
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    transactionTemplate.setReadOnly(readOnly);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+          } catch (SQLException e) {
+            throw new IllegalStateException(e);
+          }
+        });
+  }
+}
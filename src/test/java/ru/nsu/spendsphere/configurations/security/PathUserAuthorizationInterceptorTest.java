@@ -0,0 +1,63 @@
+package ru.nsu.spendsphere.configurations.security;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+import ru.nsu.spendsphere.exceptions.ForbiddenException;
+import ru.nsu.spendsphere.models.entities.User;
+
+class PathUserAuthorizationInterceptorTest {
+
+  private final PathUserAuthorizationInterceptor interceptor =
+      new PathUserAuthorizationInterceptor();
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void allowsOwnUserIdAndRejectsForeignOne() {
+    User user = User.builder().id(7L).email("me@test.com").build();
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+    assertTrue(interceptor.preHandle(request("7"), new MockHttpServletResponse(), null));
+    assertThrows(
+        ForbiddenException.class,
+        () -> interceptor.preHandle(request("8"), new MockHttpServletResponse(), null));
+  }
+
+  @Test
+  void comparesUserIdsAsNumbers() {
+    User user = User.builder().id(7L).email("me@test.com").build();
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+    assertTrue(interceptor.preHandle(request("007"), new MockHttpServletResponse(), null));
+    assertThrows(
+        BadRequestException.class,
+        () -> interceptor.preHandle(request("abc"), new MockHttpServletResponse(), null));
+  }
+
+  @Test
+  void leavesUnauthenticatedRequestsToSecurityChain() {
+    assertTrue(interceptor.preHandle(request("8"), new MockHttpServletResponse(), null));
+  }
+
+  private static MockHttpServletRequest request(String userId) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", userId));
+    return request;
+  }
+}
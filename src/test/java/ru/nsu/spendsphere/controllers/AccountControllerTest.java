@@ -4,11 +4,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +37,10 @@ import ru.nsu.spendsphere.models.dto.AccountUpdateDTO;
 import ru.nsu.spendsphere.models.entities.AccountType;
 import ru.nsu.spendsphere.models.entities.Currency;
 import ru.nsu.spendsphere.services.AccountService;
+import ru.nsu.spendsphere.services.FxRates;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.UserAccessService;
+import ru.nsu.spendsphere.services.VersionedResource;
 
 /** Юнит-тесты для {@link AccountController}. */
 @WebMvcTest(AccountController.class)
@@ -43,6 +50,9 @@ class AccountControllerTest {
   @Autowired private MockMvc mockMvc;
 
   @MockitoBean private AccountService accountService;
+  @MockitoBean private ResourceVersionRegistry resourceVersions;
+  @MockitoBean private FxRates fxRates;
+  @MockitoBean private UserAccessService userAccessService;
 
   @Autowired private ObjectMapper objectMapper;
 
@@ -379,16 +389,19 @@ class AccountControllerTest {
     balances.put(Currency.RUB, new BigDecimal("5000.00"));
     balances.put(Currency.USD, new BigDecimal("1000.00"));
 
-    AccountBalanceDTO expectedBalance = new AccountBalanceDTO(3, balances);
+    AccountBalanceDTO expectedBalance =
+        new AccountBalanceDTO(3, balances, Currency.RUB, new BigDecimal("86500.00"));
 
-    when(accountService.getUserAccountsBalance(userId)).thenReturn(expectedBalance);
+    when(accountService.getUserAccountsBalance(userId, Currency.RUB)).thenReturn(expectedBalance);
 
     mockMvc
         .perform(get("/api/v1/users/{userId}/accounts/balance", userId))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.totalAccounts").value(3))
         .andExpect(jsonPath("$.balancesByCurrency.RUB").value(5000.00))
-        .andExpect(jsonPath("$.balancesByCurrency.USD").value(1000.00));
+        .andExpect(jsonPath("$.balancesByCurrency.USD").value(1000.00))
+        .andExpect(jsonPath("$.baseCurrency").value("RUB"))
+        .andExpect(jsonPath("$.totalInBaseCurrency").value(86500.00));
   }
 
   /**
@@ -399,11 +412,72 @@ class AccountControllerTest {
   @Test
   void getUserAccountsBalanceUserNotFound() throws Exception {
     Long userId = 999L;
-    when(accountService.getUserAccountsBalance(userId))
+    when(accountService.getUserAccountsBalance(userId, Currency.RUB))
         .thenThrow(new ResourceNotFoundException("User with id " + userId + " not found"));
 
     mockMvc
         .perform(get("/api/v1/users/{userId}/accounts/balance", userId))
         .andExpect(status().isNotFound());
   }
+
+  /**
+   * Тест условного запроса: при совпадении ETag возвращается 304 без обращения к сервису.
+   *
+   * @throws Exception если возникла ошибка при выполнении запроса
+   */
+  @Test
+  void getUserAccountsNotModified() throws Exception {
+    Long userId = 1L;
+    when(resourceVersions.etag(userId, VersionedResource.ACCOUNTS)).thenReturn("\"b.7\"");
+
+    mockMvc
+        .perform(get("/api/v1/users/{userId}/accounts", userId).header("If-None-Match", "\"b.7\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"b.7\""));
+
+    verify(accountService, never()).getUserAccounts(userId);
+  }
+
+  /**
+   * Тест условного запроса для несуществующего пользователя: совпавший ETag не дает ответа 304.
+   *
+   * @throws Exception если возникла ошибка при выполнении запроса
+   */
+  @Test
+  void getUserAccountsNotModifiedChecksUserFirst() throws Exception {
+    Long userId = 999L;
+    when(resourceVersions.etag(userId, VersionedResource.ACCOUNTS)).thenReturn("\"b.7\"");
+    doThrow(new ResourceNotFoundException("User with id " + userId + " not found"))
+        .when(userAccessService)
+        .requireAccess(userId);
+
+    mockMvc
+        .perform(get("/api/v1/users/{userId}/accounts", userId).header("If-None-Match", "\"b.7\""))
+        .andExpect(status().isNotFound());
+  }
+
+  /**
+   * Тест ETag сводки балансов: ETag зависит от базовой валюты.
+   *
+   * @throws Exception если возникла ошибка при выполнении запроса
+   */
+  @Test
+  void getUserAccountsBalanceEtagDependsOnBaseCurrency() throws Exception {
+    Long userId = 1L;
+    when(fxRates.version()).thenReturn(3L);
+    when(resourceVersions.etag(userId, VersionedResource.ACCOUNTS, 3L, "RUB"))
+        .thenReturn("\"b.7.3.RUB\"");
+    when(resourceVersions.etag(userId, VersionedResource.ACCOUNTS, 3L, "USD"))
+        .thenReturn("\"b.7.3.USD\"");
+    when(accountService.getUserAccountsBalance(userId, Currency.USD))
+        .thenReturn(new AccountBalanceDTO(0, Map.of(), Currency.USD, BigDecimal.ZERO));
+
+    mockMvc
+        .perform(
+            get("/api/v1/users/{userId}/accounts/balance", userId)
+                .param("baseCurrency", "USD")
+                .header("If-None-Match", "\"b.7.3.RUB\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"b.7.3.USD\""));
+  }
 }
@@ -27,6 +27,8 @@ import ru.nsu.spendsphere.models.dto.CategoryDTO;
 import ru.nsu.spendsphere.models.dto.CategoryInputDTO;
 import ru.nsu.spendsphere.models.entities.CategoryType;
 import ru.nsu.spendsphere.services.CategoryService;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.UserAccessService;
 
 /** Юнит-тесты для {@link CategoryController}. */
 @WebMvcTest(CategoryController.class)
@@ -36,6 +38,8 @@ class CategoryControllerTest {
   @Autowired private MockMvc mockMvc;
 
   @MockitoBean private CategoryService categoryService;
+  @MockitoBean private ResourceVersionRegistry resourceVersions;
+  @MockitoBean private UserAccessService userAccessService;
 
   @Autowired private ObjectMapper objectMapper;
 
@@ -51,7 +51,8 @@ class ReminderControllerTest {
             null,
             null,
             true,
-            2L);
+            2L,
+            null);
 
     ReminderDTO response =
         new ReminderDTO(
@@ -67,6 +68,7 @@ class ReminderControllerTest {
             true,
             2L,
             "Основная",
+            false,
             LocalDateTime.now(),
             LocalDateTime.now());
 
@@ -100,6 +102,7 @@ class ReminderControllerTest {
             true,
             2L,
             "Основная",
+            false,
             LocalDateTime.now(),
             LocalDateTime.now());
 
@@ -139,7 +142,8 @@ class ReminderControllerTest {
             null,
             null,
             true,
-            2L);
+            2L,
+            null);
 
     ReminderDTO response =
         new ReminderDTO(
@@ -155,6 +159,7 @@ class ReminderControllerTest {
             true,
             2L,
             "Основная",
+            false,
             LocalDateTime.now(),
             LocalDateTime.now());
 
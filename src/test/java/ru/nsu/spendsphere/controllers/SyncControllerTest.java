@@ -0,0 +1,61 @@
+package ru.nsu.spendsphere.controllers;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.dto.SyncDTO;
+import ru.nsu.spendsphere.models.dto.SyncTombstoneDTO;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
+import ru.nsu.spendsphere.services.SyncService;
+
+@WebMvcTest(SyncController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class SyncControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private SyncService syncService;
+
+  @Test
+  void syncReturnsDelta() throws Exception {
+    when(syncService.sync(1L, 1_700_000_000_000L))
+        .thenReturn(
+            new SyncDTO(
+                1_700_000_100_000L,
+                false,
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of(
+                    new SyncTombstoneDTO(
+                        SyncEntityType.TRANSACTION, 42L, LocalDateTime.of(2025, 10, 1, 12, 0)))));
+
+    mockMvc
+        .perform(get("/api/v1/users/{userId}/sync", 1L).param("since", "1700000000000"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.token").value(1_700_000_100_000L))
+        .andExpect(jsonPath("$.fullResync").value(false))
+        .andExpect(jsonPath("$.deleted[0].entityType").value("TRANSACTION"))
+        .andExpect(jsonPath("$.deleted[0].entityId").value(42));
+  }
+
+  @Test
+  void syncUserNotFound() throws Exception {
+    when(syncService.sync(999L, null))
+        .thenThrow(new ResourceNotFoundException("User with id 999 not found"));
+
+    mockMvc.perform(get("/api/v1/users/{userId}/sync", 999L)).andExpect(status().isNotFound());
+  }
+}
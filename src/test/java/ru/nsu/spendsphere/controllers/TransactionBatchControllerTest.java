@@ -0,0 +1,88 @@
+package ru.nsu.spendsphere.controllers;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.nsu.spendsphere.models.dto.TransactionBatchItemResultDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchItemStatus;
+import ru.nsu.spendsphere.models.dto.TransactionBatchOperationDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchOperationType;
+import ru.nsu.spendsphere.models.dto.TransactionBatchRequestDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchResultDTO;
+import ru.nsu.spendsphere.services.TransactionBatchService;
+
+@WebMvcTest(TransactionBatchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TransactionBatchControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+
+  @MockitoBean private TransactionBatchService transactionBatchService;
+
+  @Test
+  void applyBatchReturnsPerItemStatus() throws Exception {
+    when(transactionBatchService.applyBatch(eq(1L), anyList()))
+        .thenReturn(
+            new TransactionBatchResultDTO(
+                1,
+                1,
+                List.of(
+                    new TransactionBatchItemResultDTO(
+                        0, TransactionBatchItemStatus.DELETED, 10L, null),
+                    new TransactionBatchItemResultDTO(
+                        1,
+                        TransactionBatchItemStatus.NOT_FOUND,
+                        11L,
+                        "Transaction with id 11 not found for user 1"))));
+
+    TransactionBatchRequestDTO request =
+        new TransactionBatchRequestDTO(List.of(delete(10L), delete(11L)));
+
+    mockMvc
+        .perform(
+            post("/api/v1/users/{userId}/transactions:batch", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.succeeded").value(1))
+        .andExpect(jsonPath("$.results[0].status").value("DELETED"))
+        .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+  }
+
+  @Test
+  void applyBatchRejectsEmptyBatch() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/users/{userId}/transactions:batch", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\":[]}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static TransactionBatchOperationDTO delete(Long transactionId) {
+    return new TransactionBatchOperationDTO(
+        TransactionBatchOperationType.DELETE,
+        transactionId,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null);
+  }
+}
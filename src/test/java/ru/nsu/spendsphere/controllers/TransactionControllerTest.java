@@ -5,15 +5,20 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -25,14 +30,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.nsu.spendsphere.exceptions.BadRequestException;
 import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
 import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
 import ru.nsu.spendsphere.models.dto.TransactionDTO;
+import ru.nsu.spendsphere.models.dto.TransactionExportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportResultDTO;
 import ru.nsu.spendsphere.models.dto.TransactionUpdateDTO;
 import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.services.ResourceVersionRegistry;
+import ru.nsu.spendsphere.services.TransactionExportService;
 import ru.nsu.spendsphere.services.TransactionImageService;
+import ru.nsu.spendsphere.services.TransactionImportService;
 import ru.nsu.spendsphere.services.TransactionService;
+import ru.nsu.spendsphere.services.UserAccessService;
 
 /** Юнит-тесты для {@link TransactionController}. */
 @WebMvcTest(TransactionController.class)
@@ -43,6 +56,10 @@ class TransactionControllerTest {
 
   @MockitoBean private TransactionService transactionService;
   @MockitoBean private TransactionImageService transactionImageService;
+  @MockitoBean private TransactionImportService transactionImportService;
+  @MockitoBean private TransactionExportService transactionExportService;
+  @MockitoBean private ResourceVersionRegistry resourceVersions;
+  @MockitoBean private UserAccessService userAccessService;
 
   @Autowired private ObjectMapper objectMapper;
 
@@ -501,4 +518,72 @@ class TransactionControllerTest {
             delete("/api/v1/users/{userId}/transactions/{transactionId}", userId, transactionId))
         .andExpect(status().isNotFound());
   }
+
+  /**
+   * Тест импорта транзакций из CSV.
+   *
+   * @throws Exception если возникла ошибка при выполнении запроса
+   */
+  @Test
+  void importTransactionsSuccess() throws Exception {
+    Long userId = 1L;
+    when(transactionImportService.importTransactions(
+            eq(userId),
+            eq(2L),
+            eq(TransactionImportFormat.CSV),
+            eq(StandardCharsets.UTF_8),
+            any()))
+        .thenReturn(new TransactionImportResultDTO(2, 0, List.of(), 5L));
+
+    mockMvc
+        .perform(
+            post("/api/v1/users/{userId}/transactions/import", userId)
+                .param("accountId", "2")
+                .contentType("text/csv")
+                .content("date,amount,description\n2025-10-01,-500.00,Продукты\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.skipped").value(0));
+  }
+
+  /**
+   * Тест импорта с неподдерживаемой кодировкой.
+   *
+   * @throws Exception если возникла ошибка при выполнении запроса
+   */
+  @Test
+  void importTransactionsUnsupportedCharset() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/users/{userId}/transactions/import", 1L)
+                .param("charset", "no-such-charset")
+                .contentType("text/csv")
+                .content("date,amount\n"))
+        .andExpect(status().isBadRequest());
+  }
+
+  /**
+   * Тест потокового экспорта транзакций в CSV.
+   *
+   * @throws Exception если возникла ошибка при выполнении запроса
+   */
+  @Test
+  void exportTransactionsCsv() throws Exception {
+    Long userId = 1L;
+    String csv = "id,date,type,amount,account,transfer_account,category,description\n";
+    when(transactionExportService.export(userId, TransactionExportFormat.CSV, null, null))
+        .thenReturn(out -> out.write(csv.getBytes(StandardCharsets.UTF_8)));
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/api/v1/users/{userId}/transactions/export", userId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+        .andExpect(content().string(csv));
+  }
 }
@@ -0,0 +1,255 @@
+package ru.nsu.spendsphere.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Проверяет, что запросы репозиториев обслуживаются индексами из миграций. Схема создается
+ * миграциями Flyway во встроенном PostgreSQL, последовательное сканирование запрещается ({@code
+ * enable_seqscan = off}), и если в плане запроса все равно остается Seq Scan, значит подходящего
+ * индекса нет.
+ *
+ * <p>SQL повторяет запросы, которые Hibernate строит для методов репозиториев; при добавлении или
+ * изменении запроса в репозитории его нужно добавить сюда.
+ */
+class RepositoryQueryPlanTest {
+
+  private static EmbeddedPostgres postgres;
+  private static DataSource dataSource;
+
+  @BeforeAll
+  static void migrate() throws IOException {
+    postgres = EmbeddedPostgres.start();
+    dataSource = postgres.getPostgresDatabase();
+    Flyway.configure()
+        .dataSource(dataSource)
+        .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+        .load()
+        .migrate();
+  }
+
+  @AfterAll
+  static void stop() throws IOException {
+    postgres.close();
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("queries")
+  void usesIndex(String name, String sql) throws SQLException {
+    String plan = explain(sql);
+    assertFalse(plan.contains("Seq Scan"), () -> name + " uses a sequential scan:\n" + plan);
+  }
+
+  static Stream<Arguments> queries() {
+    return Stream.of(
+        // AccountRepository
+        query(
+            "accounts.findByUserId",
+            "SELECT a.*, u.* FROM accounts a JOIN users u ON u.id = a.user_id WHERE a.user_id = 1"),
+        query(
+            "accounts.findForUpdateByIdAndUserId",
+            "SELECT a.*, u.* FROM accounts a JOIN users u ON u.id = a.user_id"
+                + " WHERE a.id = 1 AND a.user_id = 1"),
+        query(
+            "accounts.findIdsByUserIdAndIdIn",
+            "SELECT a.id FROM accounts a WHERE a.user_id = 1 AND a.id IN (1, 2, 3)"),
+        query(
+            "accounts.findByUserIdUpdatedAfter",
+            "SELECT a.* FROM accounts a WHERE a.user_id = 1 AND a.updated_at > now()"
+                + " ORDER BY a.updated_at"),
+        query(
+            "accounts.findActiveBalanceSnapshots",
+            "SELECT a.id, a.currency, a.balance, a.version FROM accounts a WHERE a.user_id = 1"
+                + " AND a.is_active = true AND a.include_in_total = true"),
+        query(
+            "accounts.findBalanceSnapshotsByIdIn",
+            "SELECT a.id, a.currency, a.balance, a.version FROM accounts a"
+                + " WHERE a.id IN (1, 2, 3)"),
+        // AdviceRepository
+        query(
+            "advices.findIdsByUserIdCreatedSince",
+            "SELECT a.id FROM advices a WHERE a.user_id = 1 AND a.created_at >= now()"
+                + " ORDER BY a.created_at DESC, a.id DESC"),
+        query(
+            "advices.findAllWithItemsByIdIn",
+            "SELECT a.*, i.* FROM advices a LEFT JOIN advice_items i ON i.advice_id = a.id"
+                + " WHERE a.id IN (1, 2, 3)"),
+        query(
+            "advices.findByTaskIdWithItems",
+            "SELECT a.*, u.*, i.* FROM advices a JOIN users u ON u.id = a.user_id"
+                + " LEFT JOIN advice_items i ON i.advice_id = a.id WHERE a.task_id = 'task'"),
+        // AdviceTaskRepository, OcrTaskRepository, FxRateRepository
+        query(
+            "adviceTasks.findById",
+            "SELECT * FROM advice_tasks WHERE task_id = '00000000-0000-0000-0000-000000000001'"),
+        query(
+            "ocrTasks.findByTaskId",
+            "SELECT * FROM ocr_tasks WHERE task_id = '00000000-0000-0000-0000-000000000001'"),
+        query("fxRates.findByCurrency", "SELECT * FROM fx_rates WHERE currency = 'USD'"),
+        // CategoryRepository
+        query(
+            "categories.findByUserIdAndIsDefaultFalse",
+            "SELECT * FROM categories WHERE user_id = 1 AND is_default = false"),
+        query("categories.findByIsDefaultTrue", "SELECT * FROM categories WHERE is_default = true"),
+        query(
+            "categories.findByIdAndUserIdAndIsDefaultFalse",
+            "SELECT * FROM categories WHERE id = 1 AND user_id = 1 AND is_default = false"),
+        query(
+            "categories.findByUserIdAndIsDefaultFalseAndUpdatedAtAfter",
+            "SELECT * FROM categories WHERE user_id = 1 AND is_default = false"
+                + " AND updated_at > now()"),
+        query(
+            "categories.findByIsDefaultTrueAndUpdatedAtAfter",
+            "SELECT * FROM categories WHERE is_default = true AND updated_at > now()"),
+        // CategoryTokenStatsStore
+        query(
+            "categoryTokenStats.findByUserId",
+            "SELECT token, category_id, occurrences FROM category_token_stats WHERE user_id = 1"),
+        query(
+            "categoryTokenStats.findLabeledHistory",
+            "SELECT description, category_id FROM transactions WHERE user_id = 1"
+                + " AND category_id IS NOT NULL AND description IS NOT NULL"
+                + " ORDER BY id DESC LIMIT 1000"),
+        query(
+            "categoryTokenStats.replaceUser", "DELETE FROM category_token_stats WHERE user_id = 1"),
+        // ReminderRepository
+        query(
+            "reminders.findByUserId",
+            "SELECT r.*, u.*, a.* FROM reminders r JOIN users u ON u.id = r.user_id"
+                + " LEFT JOIN accounts a ON a.id = r.account_id WHERE r.user_id = 1"),
+        query(
+            "reminders.findActiveDueByUserId",
+            "SELECT r.*, u.*, a.* FROM reminders r JOIN users u ON u.id = r.user_id"
+                + " LEFT JOIN accounts a ON a.id = r.account_id WHERE r.user_id = 1"
+                + " AND r.is_active = true AND r.next_occurrence <= current_date"),
+        query(
+            "reminders.findByIdWithRelations",
+            "SELECT r.*, u.*, a.* FROM reminders r JOIN users u ON u.id = r.user_id"
+                + " LEFT JOIN accounts a ON a.id = r.account_id WHERE r.id = 1"),
+        query(
+            "reminders.findDueForShard",
+            "SELECT r.* FROM reminders r WHERE r.is_active = true"
+                + " AND r.next_occurrence <= current_date"
+                + " AND (r.next_occurrence > current_date - 1"
+                + " OR (r.next_occurrence = current_date - 1 AND r.id > 0))"
+                + " AND (r.last_notified_on IS NULL OR r.last_notified_on < current_date)"
+                + " AND mod(r.user_id, 2) = 0 ORDER BY r.next_occurrence, r.id LIMIT 500"),
+        query(
+            "reminders.findPassed",
+            "SELECT r.* FROM reminders r WHERE r.is_active = true"
+                + " AND r.next_occurrence < current_date"
+                + " AND (false = false OR r.last_notified_on >= r.next_occurrence)"
+                + " AND (r.next_occurrence > date '1970-01-01'"
+                + " OR (r.next_occurrence = date '1970-01-01' AND r.id > 0))"
+                + " ORDER BY r.next_occurrence, r.id LIMIT 500"),
+        query(
+            "reminders.moveNextOccurrence",
+            "UPDATE reminders SET next_occurrence = current_date"
+                + " WHERE id = 1 AND next_occurrence = current_date - 1"),
+        query(
+            "reminders.findByIdForUpdate", "SELECT r.* FROM reminders r WHERE r.id = 1 FOR UPDATE"),
+        query(
+            "reminders.findAutoPostDue",
+            "SELECT r.* FROM reminders r WHERE r.is_active = true AND r.auto_post = true"
+                + " AND r.account_id IS NOT NULL AND r.auto_posted_through < current_date"
+                + " AND r.id > 0 ORDER BY r.id LIMIT 500"),
+        query(
+            "reminders.findByUserIdUpdatedAfter",
+            "SELECT r.*, u.*, a.* FROM reminders r JOIN users u ON u.id = r.user_id"
+                + " LEFT JOIN accounts a ON a.id = r.account_id WHERE r.user_id = 1"
+                + " AND r.updated_at > now() ORDER BY r.updated_at"),
+        query("reminders.accountForeignKeyCheck", "SELECT 1 FROM reminders WHERE account_id = 1"),
+        // SyncTombstoneRepository
+        query(
+            "syncTombstones.findByUserIdAndDeletedAtAfterOrderByDeletedAt",
+            "SELECT * FROM sync_tombstones WHERE user_id = 1 AND deleted_at > now()"
+                + " ORDER BY deleted_at"),
+        query(
+            "syncTombstones.deleteOlderThan",
+            "DELETE FROM sync_tombstones WHERE deleted_at < now() - interval '90 days'"),
+        // TransactionRepository, TransactionBatchWriter
+        query(
+            "transactions.findByUserIdOrderByDateDescCreatedAtDesc",
+            "SELECT t.*, c.*, a.*, ta.* FROM transactions t"
+                + " LEFT JOIN categories c ON c.id = t.category_id"
+                + " LEFT JOIN accounts a ON a.id = t.account_id"
+                + " LEFT JOIN accounts ta ON ta.id = t.transfer_account_id"
+                + " WHERE t.user_id = 1 ORDER BY t.date DESC, t.created_at DESC"),
+        query(
+            "transactions.findByIdAndUserId",
+            "SELECT t.*, c.*, a.*, ta.* FROM transactions t"
+                + " LEFT JOIN categories c ON c.id = t.category_id"
+                + " LEFT JOIN accounts a ON a.id = t.account_id"
+                + " LEFT JOIN accounts ta ON ta.id = t.transfer_account_id"
+                + " WHERE t.id = 1 AND t.user_id = 1"),
+        query(
+            "transactions.findByUserIdWithFilters",
+            "SELECT t.* FROM transactions t WHERE t.user_id = 1 AND t.type = 'EXPENSE'"
+                + " AND (t.account_id = 2 OR t.transfer_account_id = 2) AND t.category_id = 3"
+                + " AND t.date >= current_date - 30 AND t.date <= current_date"
+                + " ORDER BY t.date DESC, t.created_at DESC"),
+        query(
+            "transactions.streamForExport",
+            "SELECT t.id, t.date, t.type, t.amount, a.name, ta.name, c.name, t.description"
+                + " FROM transactions t JOIN accounts a ON a.id = t.account_id"
+                + " LEFT JOIN accounts ta ON ta.id = t.transfer_account_id"
+                + " LEFT JOIN categories c ON c.id = t.category_id"
+                + " WHERE t.user_id = 1 AND t.date >= current_date - 365"
+                + " AND t.date <= current_date ORDER BY t.date, t.id"),
+        query(
+            "transactions.findByUserIdUpdatedAfter",
+            "SELECT t.* FROM transactions t WHERE t.user_id = 1 AND t.updated_at > now()"
+                + " ORDER BY t.updated_at"),
+        query(
+            "transactions.findForUpdate",
+            "SELECT id, type, category_id, account_id, transfer_account_id, amount, description,"
+                + " date FROM transactions WHERE user_id = 1 AND id IN (1, 2, 3) FOR UPDATE"),
+        query(
+            "transactions.accountForeignKeyCheck",
+            "SELECT 1 FROM transactions WHERE account_id = 1"),
+        query(
+            "transactions.transferAccountForeignKeyCheck",
+            "SELECT 1 FROM transactions WHERE transfer_account_id = 1"),
+        query(
+            "transactions.categoryForeignKeyCheck",
+            "SELECT 1 FROM transactions WHERE category_id = 1"),
+        // UserRepository
+        query("users.findByEmail", "SELECT * FROM users WHERE email = 'user@test.com'"),
+        query(
+            "users.findByProviderAndProviderId",
+            "SELECT * FROM users WHERE provider = 'google' AND provider_id = '42'"));
+  }
+
+  private static Arguments query(String name, String sql) {
+    return Arguments.of(name, sql);
+  }
+
+  private static String explain(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("SET enable_seqscan = off");
+      StringBuilder plan = new StringBuilder();
+      try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+        while (rs.next()) {
+          plan.append(rs.getString(1)).append('\n');
+        }
+      }
+      return plan.toString();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.nsu.spendsphere.models.dto.AccountBalanceSnapshotDTO;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+
+class AccountBalanceCacheTest {
+
+  private static final long USER_ID = 1L;
+
+  private final AccountRepository accountRepository = mock(AccountRepository.class);
+  private final ResourceVersionRegistry resourceVersions =
+      new ResourceVersionRegistry(mock(RabbitTemplate.class));
+  private final PlatformTransactionManager transactionManager =
+      mock(PlatformTransactionManager.class);
+  private final AccountBalanceCache cache =
+      new AccountBalanceCache(
+          accountRepository, mock(UserAccessService.class), resourceVersions, transactionManager);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(resourceVersions, "maxUsers", 100);
+    ReflectionTestUtils.setField(cache, "maxUsers", 100);
+    when(accountRepository.findActiveBalanceSnapshots(USER_ID))
+        .thenReturn(
+            List.of(
+                snapshot(10L, Currency.RUB, "100.00", 1L),
+                snapshot(20L, Currency.USD, "50.00", 1L)))
+        .thenReturn(List.of(snapshot(10L, Currency.RUB, "70.00", 3L)));
+  }
+
+  @Test
+  void appliesCommittedBalancesWithoutReloading() {
+    assertEquals(new BigDecimal("100.00"), rub(cache.get(USER_ID)));
+
+    cache.bumpAfterCommit(
+        USER_ID,
+        () -> List.of(snapshot(10L, Currency.RUB, "130.00", 2L)),
+        VersionedResource.TRANSACTIONS);
+    AccountBalanceCache.Summary summary = cache.get(USER_ID);
+    assertEquals(new BigDecimal("130.00"), rub(summary));
+    assertEquals(new BigDecimal("50.00"), summary.balancesByCurrency().get(Currency.USD));
+    assertEquals(2, summary.accounts());
+
+    cache.bumpAfterCommit(
+        USER_ID,
+        () -> List.of(snapshot(10L, Currency.RUB, "999.00", 1L)),
+        VersionedResource.TRANSACTIONS);
+    assertEquals(new BigDecimal("130.00"), rub(cache.get(USER_ID)));
+
+    verify(accountRepository, times(1)).findActiveBalanceSnapshots(USER_ID);
+    verify(transactionManager, times(1)).getTransaction(any());
+  }
+
+  @Test
+  void reloadsAfterBumpWithoutBalances() {
+    cache.get(USER_ID);
+
+    resourceVersions.bump(USER_ID, VersionedResource.ACCOUNTS);
+    AccountBalanceCache.Summary summary = cache.get(USER_ID);
+
+    assertEquals(new BigDecimal("70.00"), rub(summary));
+    assertEquals(1, summary.accounts());
+    verify(accountRepository, times(2)).findActiveBalanceSnapshots(USER_ID);
+    verify(transactionManager, times(2)).getTransaction(any());
+  }
+
+  private static BigDecimal rub(AccountBalanceCache.Summary summary) {
+    return summary.balancesByCurrency().get(Currency.RUB);
+  }
+
+  private static AccountBalanceSnapshotDTO snapshot(
+      long id, Currency currency, String balance, long version) {
+    return new AccountBalanceSnapshotDTO(id, currency, new BigDecimal(balance), version);
+  }
+}
@@ -0,0 +1,150 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.nsu.spendsphere.controllers.GlobalExceptionHandler;
+import ru.nsu.spendsphere.models.dto.AccountDTO;
+import ru.nsu.spendsphere.models.dto.AccountUpdateDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.TransactionBatchWriter;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+class AccountSecondLevelCacheIntegrationTest {
+
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private AccountService accountService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private TransactionBatchWriter batchWriter;
+  @Autowired private EntityCacheInvalidator entityCacheInvalidator;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  private long userId;
+  private long accountId;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          User user =
+              userRepository.save(
+                  User.builder()
+                      .email("l2cache@test.com")
+                      .password("pass")
+                      .name("Test")
+                      .surname("User")
+                      .build());
+          Account account =
+              accountRepository.save(
+                  Account.builder()
+                      .user(user)
+                      .accountType(AccountType.CARD)
+                      .name("Основная")
+                      .balance(new BigDecimal("1000.00"))
+                      .build());
+          userId = user.getId();
+          accountId = account.getId();
+        });
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          accountRepository.deleteById(accountId);
+          userRepository.deleteById(userId);
+        });
+  }
+
+  @Test
+  void jdbcBalanceUpdateEvictsCachedAccount() {
+    Account cached = accountRepository.findById(accountId).get();
+    assertEquals(new BigDecimal("1000.00"), cached.getBalance());
+    assertTrue(entityManagerFactory.getCache().contains(Account.class, accountId));
+
+    addToBalance(transactionTemplate, "250.00");
+
+    assertFalse(entityManagerFactory.getCache().contains(Account.class, accountId));
+    Account reloaded = accountRepository.findById(accountId).get();
+    assertEquals(new BigDecimal("1250.00"), reloaded.getBalance());
+    assertTrue(entityManagerFactory.getCache().contains(Account.class, accountId));
+  }
+
+  @Test
+  void updateOverConcurrentBalanceChangeIsRejectedWithConflict() {
+    TransactionTemplate concurrent =
+        new TransactionTemplate(transactionTemplate.getTransactionManager());
+    concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    OptimisticLockingFailureException conflict =
+        assertThrows(
+            OptimisticLockingFailureException.class,
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status -> {
+                      Account account = accountRepository.findById(accountId).get();
+                      addToBalance(concurrent, "250.00");
+                      account.setName("Переименованный");
+                      accountRepository.saveAndFlush(account);
+                    }));
+
+    assertEquals(
+        HttpStatus.CONFLICT,
+        new GlobalExceptionHandler().handleOptimisticLockingFailure(conflict).getStatusCode());
+    Account current = accountRepository.findById(accountId).get();
+    assertEquals(new BigDecimal("1250.00"), current.getBalance());
+    assertEquals("Основная", current.getName());
+  }
+
+  @Test
+  void updateReadsAccountPastStaleCacheEntry() {
+    accountRepository.findById(accountId).get();
+    assertTrue(entityManagerFactory.getCache().contains(Account.class, accountId));
+
+    // Изменение баланса на другом узле: строка обновлена, сообщение об эвикции еще не пришло.
+    transactionTemplate.executeWithoutResult(
+        status -> batchWriter.applyBalanceDeltas(Map.of(accountId, new BigDecimal("250.00"))));
+    assertTrue(entityManagerFactory.getCache().contains(Account.class, accountId));
+
+    AccountDTO updated =
+        accountService.updateAccount(
+            accountId,
+            userId,
+            new AccountUpdateDTO(null, null, null, "Переименованный", null, null, null, null));
+
+    assertEquals("Переименованный", updated.name());
+    Account current = accountRepository.findById(accountId).get();
+    assertEquals(new BigDecimal("1250.00"), current.getBalance());
+    assertEquals("Переименованный", current.getName());
+  }
+
+  private void addToBalance(TransactionTemplate template, String delta) {
+    template.executeWithoutResult(
+        status -> {
+          batchWriter.applyBalanceDeltas(Map.of(accountId, new BigDecimal(delta)));
+          entityCacheInvalidator.evictAfterCommit(Account.class, Set.of(accountId));
+        });
+  }
+}
@@ -0,0 +1,90 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.dto.AccountBalanceDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.Currency;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class AccountServiceIntegrationTest {
+
+  @Autowired private AccountService accountService;
+  @Autowired private ResourceVersionRegistry resourceVersions;
+  @Autowired private FxRates fxRates;
+  @Autowired private UserRepository userRepository;
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void balanceSummaryIsCachedUntilAccountsVersionChanges() {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("balance@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account main = saveAccount(user, "Основная", "1000.00", Currency.RUB, true, true);
+    saveAccount(user, "Наличные", "500.50", Currency.RUB, true, true);
+    saveAccount(user, "Валютный", "200.00", Currency.USD, true, true);
+    saveAccount(user, "Закрытый", "999.00", Currency.RUB, false, true);
+    saveAccount(user, "Копилка", "50.00", Currency.RUB, true, false);
+    entityManager.flush();
+
+    AccountBalanceDTO balance = accountService.getUserAccountsBalance(user.getId(), Currency.RUB);
+    assertEquals(3, balance.totalAccounts());
+    assertEquals(new BigDecimal("1500.50"), balance.balancesByCurrency().get(Currency.RUB));
+    assertEquals(new BigDecimal("200.00"), balance.balancesByCurrency().get(Currency.USD));
+    assertEquals(Currency.RUB, balance.baseCurrency());
+    assertEquals(
+        new BigDecimal("1500.50")
+            .add(fxRates.convert(new BigDecimal("200.00"), Currency.USD, Currency.RUB)),
+        balance.totalInBaseCurrency());
+
+    main.setBalance(new BigDecimal("0.00"));
+    entityManager.flush();
+    assertEquals(balance, accountService.getUserAccountsBalance(user.getId(), Currency.RUB));
+
+    resourceVersions.bump(user.getId(), VersionedResource.ACCOUNTS);
+    assertEquals(
+        new BigDecimal("500.50"),
+        accountService
+            .getUserAccountsBalance(user.getId(), Currency.RUB)
+            .balancesByCurrency()
+            .get(Currency.RUB));
+  }
+
+  private Account saveAccount(
+      User user,
+      String name,
+      String balance,
+      Currency currency,
+      boolean active,
+      boolean includeInTotal) {
+    return accountRepository.save(
+        Account.builder()
+            .user(user)
+            .accountType(AccountType.CARD)
+            .name(name)
+            .balance(new BigDecimal(balance))
+            .currency(currency)
+            .isActive(active)
+            .includeInTotal(includeInTotal)
+            .build());
+  }
+}
@@ -0,0 +1,61 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ru.nsu.spendsphere.models.dto.CategoryDTO;
+import ru.nsu.spendsphere.models.entities.CategoryType;
+
+class CategoryNameIndexTest {
+
+  private static final double THRESHOLD = 0.5;
+
+  private final CategoryNameIndex index =
+      CategoryNameIndex.of(
+          List.of(
+              category(1L, "Продукты"),
+              category(2L, "Транспорт"),
+              category(3L, "Кафе и рестораны"),
+              category(4L, "Здоровье"),
+              category(5L, "Коммунальные услуги")));
+
+  @Test
+  void matchesSpellingVariants() {
+    assertEquals(1L, index.match("продукт", THRESHOLD).categoryId());
+    assertEquals(1L, index.match("Продукты питания", THRESHOLD).categoryId());
+    assertEquals(2L, index.match("трнспорт", THRESHOLD).categoryId());
+    assertEquals(3L, index.match("ресторан", THRESHOLD).categoryId());
+    assertEquals(4L, index.match("ЗДОРОВЯ", THRESHOLD).categoryId());
+    assertEquals(5L, index.match("коммуналка", THRESHOLD).categoryId());
+  }
+
+  @Test
+  void matchesSingleWordOfMultiWordName() {
+    assertEquals(3L, index.match("кафе", THRESHOLD).categoryId());
+    assertEquals(1.0, index.match("кафе", THRESHOLD).score(), 1e-9);
+    assertEquals(5L, index.match("услуги", THRESHOLD).categoryId());
+  }
+
+  @Test
+  void rejectsMatchesBelowThreshold() {
+    assertNull(index.match("такси", THRESHOLD));
+    assertNull(index.match("кино", THRESHOLD));
+  }
+
+  @Test
+  void ignoresEmptyNames() {
+    assertNull(index.match(null, THRESHOLD));
+    assertNull(index.match("  --  ", THRESHOLD));
+  }
+
+  @Test
+  void exactNameHasFullScore() {
+    assertEquals(1.0, index.match("транспорт", THRESHOLD).score(), 1e-9);
+  }
+
+  private static CategoryDTO category(long id, String name) {
+    return new CategoryDTO(id, name, null, null, true, CategoryType.EXPENSE);
+  }
+}
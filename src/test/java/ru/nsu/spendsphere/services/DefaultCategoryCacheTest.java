@@ -0,0 +1,61 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.nsu.spendsphere.models.entities.Category;
+import ru.nsu.spendsphere.repositories.CategoryRepository;
+
+class DefaultCategoryCacheTest {
+
+  private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+  private final DefaultCategoryCache cache = new DefaultCategoryCache(categoryRepository);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+  }
+
+  @Test
+  void loadsOnMissAndServesHitsFromMemory() {
+    when(categoryRepository.findByIsDefaultTrue()).thenReturn(List.of(defaultCategory(1L, "Еда")));
+
+    assertEquals("Еда", cache.get().get(0).name());
+    long version = cache.version();
+    assertEquals(1, cache.get().size());
+    assertEquals(version, cache.version());
+
+    verify(categoryRepository, times(1)).findByIsDefaultTrue();
+  }
+
+  @Test
+  void reloadsAfterInvalidationAndChangesVersionOnlyWhenDefaultsChange() {
+    when(categoryRepository.findByIsDefaultTrue())
+        .thenReturn(List.of(defaultCategory(1L, "Еда")))
+        .thenReturn(List.of(defaultCategory(1L, "Еда")))
+        .thenReturn(List.of(defaultCategory(1L, "Еда"), defaultCategory(2L, "Транспорт")));
+
+    long initial = cache.version();
+
+    cache.invalidate();
+    assertEquals(initial, cache.version());
+
+    cache.invalidate();
+    assertEquals(2, cache.get().size());
+    assertNotEquals(initial, cache.version());
+
+    verify(categoryRepository, times(3)).findByIsDefaultTrue();
+  }
+
+  private static Category defaultCategory(long id, String name) {
+    return Category.builder().id(id).name(name).isDefault(true).build();
+  }
+}
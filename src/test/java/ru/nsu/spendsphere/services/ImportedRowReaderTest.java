@@ -0,0 +1,69 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+import ru.nsu.spendsphere.exceptions.BadRequestException;
+
+class ImportedRowReaderTest {
+
+  @Test
+  void csvReadsColumnsByHeaderAndQuotedFields() throws IOException {
+    ImportedRowReader reader =
+        new CsvImportedRowReader(
+            new StringReader(
+                "\uFEFFDate;Amount;Category;Description\n"
+                    + "01.10.2025;-1 250,50;Продукты;\"Магнит; молоко\"\n"
+                    + "\n"
+                    + "2025-10-02;300;;\"многострочное\n\"\"описание\"\"\"\n"));
+
+    ImportedRow first = reader.next();
+    assertEquals(2, first.line());
+    assertEquals("01.10.2025", first.date());
+    assertEquals("-1 250,50", first.amount());
+    assertEquals("Продукты", first.category());
+    assertEquals("Магнит; молоко", first.description());
+    assertNull(first.account());
+
+    ImportedRow second = reader.next();
+    assertEquals(4, second.line());
+    assertNull(second.category());
+    assertEquals("многострочное\n\"описание\"", second.description());
+
+    assertNull(reader.next());
+  }
+
+  @Test
+  void csvRequiresDateAndAmountColumns() {
+    assertThrows(
+        BadRequestException.class,
+        () -> new CsvImportedRowReader(new StringReader("description,category\n")));
+  }
+
+  @Test
+  void ofxReadsSgmlTransactionsWithoutClosingTags() throws IOException {
+    ImportedRowReader reader =
+        new OfxImportedRowReader(
+            new StringReader(
+                "OFXHEADER:100\n<OFX><BANKTRANLIST>\n"
+                    + "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20251001120000<TRNAMT>-500.00"
+                    + "<NAME>Магнит<MEMO>Продукты &amp; быт\n"
+                    + "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20251002<TRNAMT>1000.00<NAME>Зарплата\n"
+                    + "</BANKTRANLIST></OFX>"));
+
+    ImportedRow first = reader.next();
+    assertEquals("2025-10-01", first.date());
+    assertEquals("-500.00", first.amount());
+    assertEquals("Магнит — Продукты & быт", first.description());
+
+    ImportedRow second = reader.next();
+    assertEquals("2025-10-02", second.date());
+    assertEquals("Зарплата", second.description());
+
+    assertNull(reader.next());
+  }
+}
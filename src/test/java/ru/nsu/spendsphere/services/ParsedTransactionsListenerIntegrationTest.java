@@ -0,0 +1,107 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.Category;
+import ru.nsu.spendsphere.models.entities.OcrTask;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.models.messaging.OcrResultData;
+import ru.nsu.spendsphere.models.messaging.OcrResultItem;
+import ru.nsu.spendsphere.models.messaging.OcrResultMessage;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.CategoryRepository;
+import ru.nsu.spendsphere.repositories.OcrTaskRepository;
+import ru.nsu.spendsphere.repositories.TransactionRepository;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class ParsedTransactionsListenerIntegrationTest {
+
+  @Autowired private TransactionService transactionService;
+  @Autowired private CategoryDictionaryCache categoryDictionaryCache;
+  @Autowired private OcrTaskRepository ocrTaskRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private TransactionRepository transactionRepository;
+  @MockitoSpyBean private CategoryRepository categoryRepository;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void ocrBatchWithWarmCacheRunsNoCategoryQueries() {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("ocr@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account account =
+        accountRepository.save(
+            Account.builder()
+                .user(user)
+                .accountType(AccountType.CARD)
+                .name("Основная")
+                .balance(new BigDecimal("10000.00"))
+                .build());
+    categoryRepository.save(Category.builder().user(user).name("Продукты").build());
+    UUID taskId = UUID.randomUUID();
+    ocrTaskRepository.save(
+        OcrTask.builder().taskId(taskId).userId(user.getId()).accountId(account.getId()).build());
+
+    ParsedTransactionsListener listener =
+        new ParsedTransactionsListener(
+            transactionService, ocrTaskRepository, categoryDictionaryCache, meterRegistry);
+    ReflectionTestUtils.setField(listener, "parsedResultsQueueName", "parsed");
+    ReflectionTestUtils.setField(listener, "categoryMatchThreshold", 0.5);
+    listener.init();
+
+    categoryDictionaryCache.get(user.getId());
+    clearInvocations(categoryRepository);
+
+    List<OcrResultItem> items =
+        IntStream.range(0, 40)
+            .mapToObj(
+                i ->
+                    new OcrResultItem(
+                        "Товар " + i,
+                        new BigDecimal("10.00"),
+                        null,
+                        LocalDate.now(),
+                        "продукты",
+                        "EXPENSE"))
+            .toList();
+    listener.handleParsedTransactions(
+        new OcrResultMessage(taskId.toString(), "SUCCESS", new OcrResultData(items), null));
+
+    assertEquals(
+        40, transactionRepository.findByUserIdOrderByDateDescCreatedAtDesc(user.getId()).size());
+    verify(categoryRepository, never()).findByUserIdAndIsDefaultFalse(any());
+    verify(categoryRepository, never()).findByIsDefaultTrue();
+    verify(categoryRepository, never()).findById(any());
+    assertEquals(40, meterRegistry.timer("ocr.category.match").count());
+  }
+}
@@ -0,0 +1,147 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.dto.ReminderCreateDTO;
+import ru.nsu.spendsphere.models.dto.ReminderDTO;
+import ru.nsu.spendsphere.models.dto.ReminderUpdateDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.RecurrenceType;
+import ru.nsu.spendsphere.models.entities.Reminder;
+import ru.nsu.spendsphere.models.entities.Transaction;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.ReminderRepository;
+import ru.nsu.spendsphere.repositories.TransactionRepository;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "app.reminders.auto-post.enabled=true")
+@Transactional
+class ReminderAutoPostingServiceIntegrationTest {
+
+  @Autowired private ReminderAutoPostingService autoPostingService;
+  @Autowired private ReminderService reminderService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private TransactionRepository transactionRepository;
+  @Autowired private ReminderRepository reminderRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void postsEachOccurrenceOnceAndUpdatesBalance() {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("autopost@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account account =
+        accountRepository.save(
+            Account.builder()
+                .user(user)
+                .accountType(AccountType.CARD)
+                .name("Основная")
+                .balance(new BigDecimal("1000.00"))
+                .build());
+
+    reminderService.create(
+        user.getId(),
+        new ReminderCreateDTO(
+            "Подписка",
+            null,
+            new BigDecimal("100.00"),
+            RecurrenceType.DAILY,
+            null,
+            null,
+            null,
+            true,
+            account.getId(),
+            true));
+    entityManager.flush();
+
+    LocalDate runDate = LocalDate.now().plusDays(2);
+    assertEquals(3, autoPostingService.postDueReminders(runDate));
+    assertEquals(0, autoPostingService.postDueReminders(runDate));
+    entityManager.clear();
+
+    List<Transaction> transactions =
+        transactionRepository.findByUserIdOrderByDateDescCreatedAtDesc(user.getId());
+    assertEquals(3, transactions.size());
+    assertEquals(runDate, transactions.get(0).getDate());
+    assertEquals(TransactionType.EXPENSE, transactions.get(0).getType());
+    assertEquals(
+        new BigDecimal("700.00"),
+        accountRepository.findById(account.getId()).orElseThrow().getBalance());
+  }
+
+  @Test
+  void reactivatedReminderDoesNotPostPassedOccurrences() {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("reactivate@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account account =
+        accountRepository.save(
+            Account.builder()
+                .user(user)
+                .accountType(AccountType.CARD)
+                .name("Основная")
+                .balance(new BigDecimal("1000.00"))
+                .build());
+    LocalDate today = LocalDate.now();
+
+    ReminderDTO created =
+        reminderService.create(
+            user.getId(),
+            new ReminderCreateDTO(
+                "Подписка",
+                null,
+                new BigDecimal("100.00"),
+                RecurrenceType.DAILY,
+                null,
+                null,
+                null,
+                true,
+                account.getId(),
+                true));
+    Reminder reminder = reminderRepository.findById(created.id()).orElseThrow();
+    reminder.setIsActive(false);
+    reminder.setAutoPostedThrough(today.minusDays(10));
+    reminderRepository.saveAndFlush(reminder);
+
+    reminderService.update(
+        user.getId(),
+        created.id(),
+        new ReminderUpdateDTO(null, null, null, null, null, null, null, true, null, null));
+    entityManager.flush();
+
+    assertEquals(1, autoPostingService.postDueReminders(today));
+    entityManager.clear();
+
+    List<Transaction> transactions =
+        transactionRepository.findByUserIdOrderByDateDescCreatedAtDesc(user.getId());
+    assertEquals(1, transactions.size());
+    assertEquals(today, transactions.get(0).getDate());
+    assertEquals(
+        new BigDecimal("900.00"),
+        accountRepository.findById(account.getId()).orElseThrow().getBalance());
+  }
+}
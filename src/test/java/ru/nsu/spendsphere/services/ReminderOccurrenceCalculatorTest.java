@@ -0,0 +1,136 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import ru.nsu.spendsphere.models.entities.RecurrenceType;
+import ru.nsu.spendsphere.models.entities.Reminder;
+
+class ReminderOccurrenceCalculatorTest {
+
+  private final ReminderOccurrenceCalculator calculator = new ReminderOccurrenceCalculator();
+
+  @Test
+  void weeklyNextOccurrenceIsSameOrFollowingDay() {
+    Reminder reminder = weekly(DayOfWeek.FRIDAY);
+    LocalDate wednesday = LocalDate.of(2025, 10, 15);
+
+    assertEquals(
+        Optional.of(LocalDate.of(2025, 10, 17)), calculator.nextOccurrence(reminder, wednesday));
+    assertEquals(
+        Optional.of(LocalDate.of(2025, 10, 17)),
+        calculator.nextOccurrence(reminder, LocalDate.of(2025, 10, 17)));
+  }
+
+  @Test
+  void monthlyDayIsClampedToShortMonths() {
+    Reminder reminder = monthly(30, false);
+
+    assertEquals(
+        Optional.of(LocalDate.of(2024, 2, 29)),
+        calculator.nextOccurrence(reminder, LocalDate.of(2024, 2, 1)));
+    assertEquals(
+        Optional.of(LocalDate.of(2025, 2, 28)),
+        calculator.nextOccurrence(reminder, LocalDate.of(2025, 2, 1)));
+    assertEquals(
+        Optional.of(LocalDate.of(2025, 4, 30)),
+        calculator.nextOccurrence(reminder, LocalDate.of(2025, 3, 31)));
+  }
+
+  @Test
+  void monthlyLastDayListsEveryMonthEnd() {
+    Reminder reminder = monthly(null, true);
+
+    List<LocalDate> occurrences =
+        calculator.occurrencesBetween(
+            reminder, LocalDate.of(2025, 1, 15), LocalDate.of(2025, 4, 29));
+
+    assertEquals(
+        List.of(LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 31)),
+        occurrences);
+  }
+
+  @Test
+  void incompleteRulesNeverOccur() {
+    assertTrue(calculator.nextOccurrence(weekly(null), LocalDate.of(2025, 1, 1)).isEmpty());
+    assertTrue(calculator.nextOccurrence(monthly(null, false), LocalDate.of(2025, 1, 1)).isEmpty());
+  }
+
+  @Test
+  void matchesDayByDayWalkForEveryRule() {
+    List<Reminder> reminders = new ArrayList<>();
+    reminders.add(daily());
+    for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+      reminders.add(weekly(dayOfWeek));
+    }
+    for (int dayOfMonth = 1; dayOfMonth <= 30; dayOfMonth++) {
+      reminders.add(monthly(dayOfMonth, false));
+    }
+    reminders.add(monthly(null, true));
+
+    LocalDate start = LocalDate.of(2023, 12, 1);
+    for (Reminder reminder : reminders) {
+      for (int offset = 0; offset < 460; offset += 7) {
+        LocalDate from = start.plusDays(offset);
+        for (int days : new int[] {0, 1, 5, 27, 31, 365}) {
+          LocalDate to = from.plusDays(days);
+          assertEquals(
+              walkDays(reminder, from, to),
+              calculator.occurrencesBetween(reminder, from, to),
+              () -> reminder.getRecurrenceType() + " from " + from + " to " + to);
+        }
+      }
+    }
+  }
+
+  /** Эталон: перебор по дням, как в прежней реализации getUpcoming. */
+  private List<LocalDate> walkDays(Reminder reminder, LocalDate from, LocalDate to) {
+    List<LocalDate> result = new ArrayList<>();
+    for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+      boolean matches =
+          switch (reminder.getRecurrenceType()) {
+            case DAILY -> true;
+            case WEEKLY -> day.getDayOfWeek() == reminder.getWeeklyDayOfWeek();
+            case MONTHLY -> {
+              YearMonth month = YearMonth.from(day);
+              int lastDay = month.lengthOfMonth();
+              int target =
+                  Boolean.TRUE.equals(reminder.getMonthlyUseLastDay())
+                      ? lastDay
+                      : Math.min(reminder.getMonthlyDayOfMonth(), lastDay);
+              yield day.getDayOfMonth() == target;
+            }
+          };
+      if (matches) {
+        result.add(day);
+      }
+    }
+    return result;
+  }
+
+  private Reminder daily() {
+    return Reminder.builder().recurrenceType(RecurrenceType.DAILY).build();
+  }
+
+  private Reminder weekly(DayOfWeek dayOfWeek) {
+    return Reminder.builder()
+        .recurrenceType(RecurrenceType.WEEKLY)
+        .weeklyDayOfWeek(dayOfWeek)
+        .build();
+  }
+
+  private Reminder monthly(Integer dayOfMonth, boolean useLastDay) {
+    return Reminder.builder()
+        .recurrenceType(RecurrenceType.MONTHLY)
+        .monthlyDayOfMonth(dayOfMonth)
+        .monthlyUseLastDay(useLastDay)
+        .build();
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -20,8 +21,10 @@ import ru.nsu.spendsphere.models.dto.ReminderUpdateDTO;
 import ru.nsu.spendsphere.models.entities.Account;
 import ru.nsu.spendsphere.models.entities.AccountType;
 import ru.nsu.spendsphere.models.entities.RecurrenceType;
+import ru.nsu.spendsphere.models.entities.Reminder;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.ReminderRepository;
 import ru.nsu.spendsphere.repositories.UserRepository;
 
 @ActiveProfiles("test")
@@ -32,6 +35,9 @@ class ReminderServiceIntegrationTest {
   @Autowired private ReminderService reminderService;
   @Autowired private UserRepository userRepository;
   @Autowired private AccountRepository accountRepository;
+  @Autowired private ReminderRepository reminderRepository;
+  @Autowired private ReminderOccurrenceAdvancer occurrenceAdvancer;
+  @Autowired private EntityManager entityManager;
 
   @Test
   void createReadUpdateDeleteFlow() {
@@ -50,7 +56,8 @@ class ReminderServiceIntegrationTest {
                 20,
                 false,
                 true,
-                account.getId()));
+                account.getId(),
+                null));
 
     assertNotNull(created.id());
     assertEquals("Оплата интернета", created.title());
@@ -73,7 +80,8 @@ class ReminderServiceIntegrationTest {
                 null,
                 null,
                 true,
-                account.getId()));
+                account.getId(),
+                null));
 
     assertEquals("Оплата интернета (обновлено)", updated.title());
     assertEquals(new BigDecimal("650.00"), updated.amount());
@@ -101,7 +109,8 @@ class ReminderServiceIntegrationTest {
             null,
             null,
             true,
-            account.getId()));
+            account.getId(),
+            null));
 
     reminderService.create(
         user.getId(),
@@ -114,7 +123,8 @@ class ReminderServiceIntegrationTest {
             null,
             null,
             true,
-            account.getId()));
+            account.getId(),
+            null));
 
     int dom = Math.min(30, LocalDate.now().getDayOfMonth());
     reminderService.create(
@@ -128,7 +138,8 @@ class ReminderServiceIntegrationTest {
             dom,
             false,
             true,
-            account.getId()));
+            account.getId(),
+            null));
 
     List<ReminderDTO> upcoming = reminderService.getUpcoming(user.getId(), 5);
     assertEquals(3, upcoming.size());
@@ -150,12 +161,81 @@ class ReminderServiceIntegrationTest {
             null,
             true,
             true,
-            account.getId()));
+            account.getId(),
+            null));
 
     List<ReminderDTO> upcoming = reminderService.getUpcoming(user.getId(), 31);
     assertNotNull(upcoming);
   }
 
+  @Test
+  void upcomingComputesPassedNextOccurrenceWithoutWriting() {
+    User user = createUser();
+    Account account = createAccount(user, "Основная");
+    LocalDate today = LocalDate.now();
+
+    ReminderDTO created =
+        reminderService.create(
+            user.getId(),
+            new ReminderCreateDTO(
+                "Еженедельно",
+                null,
+                new BigDecimal("20.00"),
+                RecurrenceType.WEEKLY,
+                today.plusDays(2).getDayOfWeek(),
+                null,
+                null,
+                true,
+                account.getId(),
+                null));
+
+    Reminder reminder = reminderRepository.findById(created.id()).orElseThrow();
+    assertEquals(today.plusDays(2), reminder.getNextOccurrence());
+
+    reminder.setNextOccurrence(today.minusDays(5));
+    reminderRepository.saveAndFlush(reminder);
+
+    List<ReminderDTO> upcoming = reminderService.getUpcoming(user.getId(), 3);
+    assertEquals(1, upcoming.size());
+    assertEquals(
+        today.minusDays(5),
+        reminderRepository.findById(created.id()).orElseThrow().getNextOccurrence());
+    assertEquals(0, reminderService.getUpcoming(user.getId(), 1).size());
+  }
+
+  @Test
+  void advancerMovesPassedNextOccurrenceForward() {
+    User user = createUser();
+    Account account = createAccount(user, "Основная");
+    LocalDate today = LocalDate.now();
+
+    ReminderDTO created =
+        reminderService.create(
+            user.getId(),
+            new ReminderCreateDTO(
+                "Еженедельно",
+                null,
+                new BigDecimal("20.00"),
+                RecurrenceType.WEEKLY,
+                today.plusDays(2).getDayOfWeek(),
+                null,
+                null,
+                true,
+                account.getId(),
+                null));
+    Reminder reminder = reminderRepository.findById(created.id()).orElseThrow();
+    reminder.setNextOccurrence(today.minusDays(5));
+    reminderRepository.saveAndFlush(reminder);
+
+    occurrenceAdvancer.advancePassed(today);
+    entityManager.clear();
+
+    assertEquals(
+        today.plusDays(2),
+        reminderRepository.findById(created.id()).orElseThrow().getNextOccurrence());
+    assertEquals(1, reminderService.getUpcoming(user.getId(), 3).size());
+  }
+
   private User createUser() {
     User user =
         User.builder().email("user@test.com").password("pass").name("Test").surname("User").build();
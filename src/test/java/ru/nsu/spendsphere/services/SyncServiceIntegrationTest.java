@@ -0,0 +1,100 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.dto.CategoryInputDTO;
+import ru.nsu.spendsphere.models.dto.SyncDTO;
+import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
+import ru.nsu.spendsphere.models.dto.TransactionDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.CategoryType;
+import ru.nsu.spendsphere.models.entities.SyncEntityType;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class SyncServiceIntegrationTest {
+
+  @Autowired private SyncService syncService;
+  @Autowired private TransactionService transactionService;
+  @Autowired private CategoryService categoryService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void returnsOnlyChangesAndDeletionsAfterToken() throws InterruptedException {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("sync@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account account =
+        accountRepository.save(
+            Account.builder()
+                .user(user)
+                .accountType(AccountType.CARD)
+                .name("Основная")
+                .balance(new BigDecimal("1000.00"))
+                .build());
+    categoryService.createCustomCategory(
+        user.getId(), new CategoryInputDTO("Хобби", "🎨", "#8b5cf6", CategoryType.EXPENSE));
+    TransactionDTO deleted = createExpense(user, account);
+    entityManager.flush();
+
+    SyncDTO full = syncService.sync(user.getId(), null);
+    assertTrue(full.fullResync());
+    assertEquals(1, full.transactions().size());
+    assertEquals(1, full.accounts().size());
+
+    Thread.sleep(5);
+    long since = System.currentTimeMillis();
+    Thread.sleep(5);
+    transactionService.deleteTransaction(deleted.id(), user.getId());
+    TransactionDTO created = createExpense(user, account);
+    entityManager.flush();
+
+    SyncDTO delta = syncService.sync(user.getId(), since);
+    assertFalse(delta.fullResync());
+    assertEquals(1, delta.transactions().size());
+    assertEquals(created.id(), delta.transactions().get(0).id());
+    assertEquals(1, delta.accounts().size());
+    assertTrue(delta.categories().isEmpty());
+    assertTrue(delta.reminders().isEmpty());
+    assertEquals(1, delta.deleted().size());
+    assertEquals(SyncEntityType.TRANSACTION, delta.deleted().get(0).entityType());
+    assertEquals(deleted.id(), delta.deleted().get(0).entityId());
+    assertTrue(delta.token() >= since);
+  }
+
+  private TransactionDTO createExpense(User user, Account account) {
+    return transactionService.createTransaction(
+        user.getId(),
+        new TransactionCreateDTO(
+            TransactionType.EXPENSE,
+            null,
+            account.getId(),
+            null,
+            new BigDecimal("100.00"),
+            "Покупка",
+            LocalDate.now()));
+  }
+}
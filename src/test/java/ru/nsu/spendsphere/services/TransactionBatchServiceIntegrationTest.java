@@ -0,0 +1,151 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.dto.TransactionBatchItemStatus;
+import ru.nsu.spendsphere.models.dto.TransactionBatchOperationDTO;
+import ru.nsu.spendsphere.models.dto.TransactionBatchOperationType;
+import ru.nsu.spendsphere.models.dto.TransactionBatchResultDTO;
+import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
+import ru.nsu.spendsphere.models.dto.TransactionDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.TransactionType;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.TransactionRepository;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class TransactionBatchServiceIntegrationTest {
+
+  @Autowired private TransactionBatchService batchService;
+  @Autowired private TransactionService transactionService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private TransactionRepository transactionRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void appliesMixedOperationsAndMergesBalanceDeltas() {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("batch@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account card = createAccount(user, "Карта", "1000.00");
+    Account savings = createAccount(user, "Вклад", "0.00");
+    TransactionDTO toUpdate = createExpense(user, card, "100.00");
+    TransactionDTO toDelete = createExpense(user, card, "50.00");
+    entityManager.flush();
+
+    TransactionBatchResultDTO result =
+        batchService.applyBatch(
+            user.getId(),
+            List.of(
+                operation(
+                    TransactionBatchOperationType.CREATE,
+                    null,
+                    TransactionType.TRANSFER,
+                    card.getId(),
+                    savings.getId(),
+                    "300.00"),
+                operation(
+                    TransactionBatchOperationType.UPDATE,
+                    toUpdate.id(),
+                    null,
+                    null,
+                    null,
+                    "150.00"),
+                operation(
+                    TransactionBatchOperationType.DELETE, toDelete.id(), null, null, null, null),
+                operation(
+                    TransactionBatchOperationType.DELETE, toDelete.id(), null, null, null, null),
+                operation(
+                    TransactionBatchOperationType.CREATE,
+                    null,
+                    TransactionType.EXPENSE,
+                    999_999L,
+                    null,
+                    "10.00")));
+
+    assertEquals(3, result.succeeded());
+    assertEquals(2, result.failed());
+    assertEquals(TransactionBatchItemStatus.CREATED, result.results().get(0).status());
+    assertTrue(result.results().get(0).transactionId() != null);
+    assertEquals(TransactionBatchItemStatus.UPDATED, result.results().get(1).status());
+    assertEquals(TransactionBatchItemStatus.DELETED, result.results().get(2).status());
+    assertEquals(TransactionBatchItemStatus.NOT_FOUND, result.results().get(3).status());
+    assertEquals(TransactionBatchItemStatus.NOT_FOUND, result.results().get(4).status());
+
+    entityManager.clear();
+    // 1000 - 100 - 50 (созданы) - 300 (перевод) - 50 (изменение) + 50 (удаление)
+    assertEquals(new BigDecimal("550.00"), balance(card));
+    assertEquals(new BigDecimal("300.00"), balance(savings));
+    assertEquals(
+        new BigDecimal("150.00"),
+        transactionRepository.findById(toUpdate.id()).orElseThrow().getAmount());
+    assertTrue(transactionRepository.findById(toDelete.id()).isEmpty());
+  }
+
+  private Account createAccount(User user, String name, String balance) {
+    return accountRepository.save(
+        Account.builder()
+            .user(user)
+            .accountType(AccountType.CARD)
+            .name(name)
+            .balance(new BigDecimal(balance))
+            .build());
+  }
+
+  private TransactionDTO createExpense(User user, Account account, String amount) {
+    return transactionService.createTransaction(
+        user.getId(),
+        new TransactionCreateDTO(
+            TransactionType.EXPENSE,
+            null,
+            account.getId(),
+            null,
+            new BigDecimal(amount),
+            "Покупка",
+            LocalDate.now()));
+  }
+
+  private BigDecimal balance(Account account) {
+    return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+  }
+
+  private static TransactionBatchOperationDTO operation(
+      TransactionBatchOperationType operation,
+      Long transactionId,
+      TransactionType type,
+      Long accountId,
+      Long transferAccountId,
+      String amount) {
+    return new TransactionBatchOperationDTO(
+        operation,
+        transactionId,
+        type,
+        null,
+        accountId,
+        transferAccountId,
+        amount != null ? new BigDecimal(amount) : null,
+        null,
+        operation == TransactionBatchOperationType.CREATE ? LocalDate.now() : null);
+  }
+}
@@ -0,0 +1,85 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.nsu.spendsphere.models.dto.TransactionExportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportFormat;
+import ru.nsu.spendsphere.models.dto.TransactionImportResultDTO;
+import ru.nsu.spendsphere.models.entities.Account;
+import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class TransactionExportServiceIntegrationTest {
+
+  @Autowired private TransactionImportService importService;
+  @Autowired private TransactionExportService exportService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private AccountRepository accountRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void importedTransactionsAreExportedAsCsv() throws Exception {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("export@test.com")
+                .password("pass")
+                .name("Test")
+                .surname("User")
+                .build());
+    Account account =
+        accountRepository.save(
+            Account.builder()
+                .user(user)
+                .accountType(AccountType.CARD)
+                .name("Основная")
+                .balance(new BigDecimal("1000.00"))
+                .build());
+    entityManager.flush();
+
+    String csv =
+        "date,amount,account,description\n"
+            + "2025-10-01,-250.50,Основная,\"Кофе, круассан\"\n"
+            + "02.10.2025,1 000,основная,Зарплата\n"
+            + "2025-10-03,abc,Основная,Ошибка\n";
+    TransactionImportResultDTO result =
+        importService.importTransactions(
+            user.getId(),
+            null,
+            TransactionImportFormat.CSV,
+            StandardCharsets.UTF_8,
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(2, result.imported());
+    assertEquals(1, result.skipped());
+    assertEquals("line 4: invalid amount 'abc'", result.errors().get(0));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportService.export(user.getId(), TransactionExportFormat.CSV, null, null).writeTo(out);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("id,date,type,amount,account,transfer_account,category,description", lines[0]);
+    assertTrue(lines[1].endsWith(",2025-10-01,EXPENSE,250.50,Основная,,,\"Кофе, круассан\""));
+    assertTrue(lines[2].endsWith(",2025-10-02,INCOME,1000.00,Основная,,,Зарплата"));
+
+    entityManager.clear();
+    assertEquals(
+        new BigDecimal("1749.50"),
+        accountRepository.findById(account.getId()).orElseThrow().getBalance());
+  }
+}
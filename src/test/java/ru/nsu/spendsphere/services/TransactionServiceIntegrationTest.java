@@ -1,9 +1,13 @@
 package ru.nsu.spendsphere.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,9 +17,11 @@ import ru.nsu.spendsphere.models.dto.TransactionCreateDTO;
 import ru.nsu.spendsphere.models.dto.TransactionUpdateDTO;
 import ru.nsu.spendsphere.models.entities.Account;
 import ru.nsu.spendsphere.models.entities.AccountType;
+import ru.nsu.spendsphere.models.entities.Transaction;
 import ru.nsu.spendsphere.models.entities.TransactionType;
 import ru.nsu.spendsphere.models.entities.User;
 import ru.nsu.spendsphere.repositories.AccountRepository;
+import ru.nsu.spendsphere.repositories.TransactionRepository;
 import ru.nsu.spendsphere.repositories.UserRepository;
 
 @ActiveProfiles("test")
@@ -26,6 +32,8 @@ class TransactionServiceIntegrationTest {
   @Autowired private TransactionService transactionService;
   @Autowired private UserRepository userRepository;
   @Autowired private AccountRepository accountRepository;
+  @Autowired private TransactionRepository transactionRepository;
+  @Autowired private EntityManager entityManager;
 
   // ---------- CREATE ----------
 
@@ -249,6 +257,42 @@ class TransactionServiceIntegrationTest {
     assertEquals(new BigDecimal("300.00"), reloadedB.getBalance());
   }
 
+  // ---------- READ ----------
+
+  @Test
+  void listQueriesLoadReadOnlyEntities() {
+    User user = createUser();
+    Account account = createAccount(user, "Основная карта", new BigDecimal("1000.00"));
+    Long transactionId =
+        transactionService
+            .createTransaction(
+                user.getId(),
+                new TransactionCreateDTO(
+                    TransactionType.EXPENSE,
+                    null,
+                    account.getId(),
+                    null,
+                    new BigDecimal("200.00"),
+                    "Покупка",
+                    LocalDate.now()))
+            .id();
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Transaction> transactions =
+        transactionRepository.findByUserIdWithFilters(user.getId(), null, null, null, null, null);
+    assertEquals(1, transactions.size());
+    assertTrue(entityManager.unwrap(Session.class).isReadOnly(transactions.get(0)));
+
+    transactions.get(0).setAmount(new BigDecimal("1.00"));
+    entityManager.flush();
+    entityManager.clear();
+
+    assertEquals(
+        new BigDecimal("200.00"),
+        transactionRepository.findById(transactionId).orElseThrow().getAmount());
+  }
+
   private User createUser() {
     User user =
         User.builder()
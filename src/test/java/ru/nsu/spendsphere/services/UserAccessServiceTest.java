@@ -0,0 +1,49 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.nsu.spendsphere.exceptions.ResourceNotFoundException;
+import ru.nsu.spendsphere.models.entities.User;
+import ru.nsu.spendsphere.repositories.UserRepository;
+
+class UserAccessServiceTest {
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final UserAccessService userAccessService = new UserAccessService(userRepository);
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void skipsDatabaseForAuthenticatedUser() {
+    User user = User.builder().id(7L).email("me@test.com").build();
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+    userAccessService.requireExists(7L);
+    userAccessService.getReference(7L);
+
+    verify(userRepository, never()).existsById(7L);
+    verify(userRepository, never()).findById(7L);
+    verify(userRepository).getReferenceById(7L);
+  }
+
+  @Test
+  void checksDatabaseForOtherUsers() {
+    when(userRepository.existsById(8L)).thenReturn(false);
+
+    assertThrows(ResourceNotFoundException.class, () -> userAccessService.requireExists(8L));
+    verify(userRepository).existsById(8L);
+  }
+}
@@ -0,0 +1,67 @@
+package ru.nsu.spendsphere.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ru.nsu.spendsphere.repositories.CategoryTokenStatsStore.TokenStat;
+
+class UserCategoryModelTest {
+
+  private static final long GROCERIES = 1L;
+  private static final long TRANSPORT = 2L;
+
+  @Test
+  void predictsCategoryFromLearnedDescriptions() {
+    UserCategoryModel model = new UserCategoryModel();
+    learn(model, "Пятёрочка молоко хлеб", GROCERIES);
+    learn(model, "Магнит продукты", GROCERIES);
+    learn(model, "Яндекс такси поездка", TRANSPORT);
+    learn(model, "Метро пополнение карты", TRANSPORT);
+
+    assertEquals(GROCERIES, predict(model, "молоко и сыр"));
+    assertEquals(TRANSPORT, predict(model, "такси домой"));
+    assertNull(predict(model, "абонемент в бассейн"));
+  }
+
+  @Test
+  void unlearnRemovesContribution() {
+    UserCategoryModel model = new UserCategoryModel();
+    learn(model, "кофе с собой", GROCERIES);
+    model.add(TransactionCategoryClassifier.tokenize("кофе с собой"), GROCERIES, -1);
+
+    assertNull(predict(model, "кофе"));
+  }
+
+  @Test
+  void snapshotRestoresModel() {
+    UserCategoryModel model = new UserCategoryModel();
+    learn(model, "аптека витамины", GROCERIES);
+    learn(model, "бензин заправка", TRANSPORT);
+
+    UserCategoryModel restored = new UserCategoryModel();
+    List<TokenStat> snapshot = model.takeSnapshotIfDirty();
+    assertNotNull(snapshot);
+    restored.load(snapshot);
+
+    assertNull(model.takeSnapshotIfDirty());
+    assertEquals(TRANSPORT, predict(restored, "заправка"));
+  }
+
+  @Test
+  void tokenizerNormalizesAndDropsShortTokens() {
+    assertEquals(
+        List.of("пятерочка", "молоко"),
+        TransactionCategoryClassifier.tokenize("ПЯТЁРОЧКА: молоко 3.2% x 2"));
+  }
+
+  private static void learn(UserCategoryModel model, String description, long categoryId) {
+    model.add(TransactionCategoryClassifier.tokenize(description), categoryId, 1);
+  }
+
+  private static Long predict(UserCategoryModel model, String description) {
+    return model.predict(TransactionCategoryClassifier.tokenize(description));
+  }
+}